@@ -0,0 +1,53 @@
+package com.example.proyectoweb.bench;
+
+import com.example.proyectoweb.Dto.ActivityDto;
+import com.example.proyectoweb.Servicio.ActividadService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Alta de N actividades contra H2: un crear (una transacción) por fila, como el plan de JMeter,
+// contra un solo crearLote con INSERT por lotes.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ActividadBulkBenchmark {
+
+    @Param({"1000"})
+    public int filas;
+
+    private ConfigurableApplicationContext ctx;
+    private ActividadService service;
+    private List<ActivityDto> dtos;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        ctx = BenchContext.start();
+        service = ctx.getBean(ActividadService.class);
+        dtos = new ArrayList<>(filas);
+        for (int i = 0; i < filas; i++) dtos.add(new ActivityDto(null, "A" + i, "task", "d", i, 0));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        ctx.close();
+    }
+
+    @Benchmark
+    public int crearUnoPorUno() {
+        int n = 0;
+        for (ActivityDto dto : dtos) if (service.crear(dto).getId() != null) n++;
+        return n;
+    }
+
+    @Benchmark
+    public List<Long> crearLote() {
+        return service.crearLote(dtos);
+    }
+}
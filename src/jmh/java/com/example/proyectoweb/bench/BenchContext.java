@@ -0,0 +1,23 @@
+package com.example.proyectoweb.bench;
+
+import com.example.proyectoweb.ProyectoWebApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+// Levanta la aplicación completa con el perfil "test" (H2 en memoria) para los benchmarks
+// que necesitan servicios y repositorios reales. Un contexto por fork de JMH.
+final class BenchContext {
+
+    private BenchContext() {}
+
+    static ConfigurableApplicationContext start() {
+        return new SpringApplicationBuilder(ProyectoWebApplication.class)
+                .profiles("test")
+                .properties(
+                        "server.port=0",
+                        "spring.main.banner-mode=off",
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=WARN")
+                .run();
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.proyectoweb.bench;
+
+import com.example.proyectoweb.condition.GatewayConditions;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Decidir la rama de un gateway EXCLUSIVE de tres ramas: condiciones ya compiladas contra
+// compilar el JSON en cada decisión (lo que haría un evaluador sin caché).
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConditionBenchmark {
+
+    private static final String JSON = """
+            {"branches": [
+               {"archId": 1, "when": "monto > 10000 && prioridad == 'ALTA'"},
+               {"archId": 2, "when": "monto > 1000 || (urgente && dias * 24 < 72)"},
+               {"archId": 3, "when": "prioridad != 'BAJA'"}],
+             "default": 4}""";
+
+    private GatewayConditions compiled;
+    private double[] vars;
+    private Map<String, Object> values;
+
+    @Setup
+    public void setup() {
+        compiled = GatewayConditions.compile(1L, JSON);
+        values = Map.of("monto", 500, "prioridad", "MEDIA", "urgente", true, "dias", 5);
+        vars = compiled.bind(values);
+    }
+
+    @Benchmark
+    public int compilado() {
+        return compiled.firstMatch(vars);
+    }
+
+    @Benchmark
+    public int compilarEnCadaLlamada() {
+        GatewayConditions c = GatewayConditions.compile(1L, JSON);
+        return c.firstMatch(c.bind(values));
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.proyectoweb.bench;
+
+import com.example.proyectoweb.exception.GlobalExceptionHandler;
+import com.example.proyectoweb.exception.InvalidTokenException;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.BadCredentialsException;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// GlobalExceptionHandler.buildResponse medido a través de los handlers públicos que lo usan.
+// handleGeneric queda fuera: registra el stack trace y mediría el logging, no el handler.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExceptionHandlerBenchmark {
+
+    private GlobalExceptionHandler handler;
+    private MockHttpServletRequest request;
+    private InvalidTokenException invalidToken;
+    private BadCredentialsException badCredentials;
+
+    @Setup
+    public void setup() {
+        handler = new GlobalExceptionHandler();
+        request = new MockHttpServletRequest("GET", "/api/processes/list");
+        invalidToken = new InvalidTokenException();
+        badCredentials = new BadCredentialsException("bad");
+    }
+
+    @Benchmark
+    public ResponseEntity<Map<String, Object>> invalidToken() {
+        return handler.handleInvalidToken(invalidToken, request);
+    }
+
+    @Benchmark
+    public ResponseEntity<Map<String, Object>> badCredentials() {
+        return handler.handleBadCredentials(badCredentials, request);
+    }
+}
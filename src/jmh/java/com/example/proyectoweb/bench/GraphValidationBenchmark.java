@@ -0,0 +1,57 @@
+package com.example.proyectoweb.bench;
+
+import com.example.proyectoweb.Dto.ValidationResultDto;
+import com.example.proyectoweb.common.GatewayType;
+import com.example.proyectoweb.graph.CompiledGraph;
+import com.example.proyectoweb.graph.GraphValidator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Compilar y validar un modelo grande sin base de datos: cadena de bloques 1 -> {2,3} -> 4
+// con gateways PARALLEL, unos 50k nodos. La meta es < 50 ms por validación.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GraphValidationBenchmark {
+
+    @Param({"50000"})
+    public int nodos;
+
+    private CompiledGraph graph;
+
+    @Setup
+    public void setup() {
+        graph = build();
+    }
+
+    private CompiledGraph build() {
+        CompiledGraph.Builder b = CompiledGraph.builder(1L, 0L);
+        long arch = 0, gw = 0;
+        int bloques = nodos / 3;
+        b.activity(0);
+        for (int k = 0; k < bloques; k++) {
+            long in = 3L * k, left = in + 1, right = in + 2, out = in + 3;
+            b.activity(left).activity(right).activity(out);
+            long a1 = arch++, a2 = arch++, a3 = arch++, a4 = arch++;
+            b.arch(a1, in, left).arch(a2, in, right).arch(a3, left, out).arch(a4, right, out);
+            long split = gw++, join = gw++;
+            b.gateway(split, GatewayType.PARALLEL, a1).gateway(split, GatewayType.PARALLEL, a2);
+            b.gateway(join, GatewayType.PARALLEL, a3).gateway(join, GatewayType.PARALLEL, a4);
+        }
+        return b.build();
+    }
+
+    @Benchmark
+    public ValidationResultDto validar() {
+        return GraphValidator.validate(graph);
+    }
+
+    @Benchmark
+    public ValidationResultDto compilarYValidar() {
+        return GraphValidator.validate(build());
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.proyectoweb.bench;
+
+import com.example.proyectoweb.security.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Throughput de validación de JWT: camino anterior (3 parseos, clave derivada en cada uno)
+// contra parse único con y sin la caché de tokens verificados.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtUtilBenchmark {
+
+    private static final String SECRET = "mi-super-clave-12345678901234567890";
+
+    private JwtUtil conCache;
+    private JwtUtil sinCache;
+    private UserDetails user;
+    private String token;
+
+    @Setup
+    public void setup() {
+        conCache = new JwtUtil(SECRET, 3_600_000L, 10_000L);
+        sinCache = new JwtUtil(SECRET, 3_600_000L, 0L);
+        user = new User("ana@acme.com", "", List.of());
+        token = conCache.generateToken(user);
+    }
+
+    @Benchmark
+    public boolean tresParseos_anterior() {
+        String username = legacyClaims(token).getSubject();
+        String again = legacyClaims(token).getSubject();
+        Date exp = legacyClaims(token).getExpiration();
+        return username.equalsIgnoreCase(user.getUsername()) && again != null && !exp.before(new Date());
+    }
+
+    @Benchmark
+    public boolean parseUnico_sinCache() {
+        Claims claims = sinCache.parseClaims(token);
+        return sinCache.isTokenValid(claims, user);
+    }
+
+    @Benchmark
+    public boolean parseUnico_conCache() {
+        Claims claims = conCache.parseClaims(token);
+        return conCache.isTokenValid(claims, user);
+    }
+
+    private static Claims legacyClaims(String token) {
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.proyectoweb.bench;
+
+import com.example.proyectoweb.Dto.ActivityDto;
+import com.example.proyectoweb.Dto.PersonaDto;
+import com.example.proyectoweb.Mapper.ActividadMapper;
+import com.example.proyectoweb.Mapper.ActividadMapperImpl;
+import com.example.proyectoweb.Mapper.PersonaMapper;
+import com.example.proyectoweb.Mapper.PersonaMapperImpl;
+import com.example.proyectoweb.Modelo.Actividad;
+import com.example.proyectoweb.Modelo.Organization;
+import com.example.proyectoweb.Modelo.Persona;
+import org.modelmapper.ModelMapper;
+import org.modelmapper.convention.MatchingStrategies;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Costo del mapeo entidad -> DTO: ModelMapper STRICT (como estaba configurado antes) contra
+// los mappers MapStruct generados, por objeto y para una lista del tamaño de un /list grande.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MappingBenchmark {
+
+    @Param({"1000"})
+    public int listSize;
+
+    private ModelMapper modelMapper;
+    private ActividadMapper actividadMapper;
+    private PersonaMapper personaMapper;
+    private Actividad actividad;
+    private Persona persona;
+    private List<Actividad> actividades;
+
+    @Setup
+    public void setup() {
+        modelMapper = new ModelMapper();
+        modelMapper.getConfiguration().setMatchingStrategy(MatchingStrategies.STRICT);
+        actividadMapper = new ActividadMapperImpl();
+        personaMapper = new PersonaMapperImpl();
+
+        actividad = new Actividad(1L, "Revisar", "task", "Revisión de documentos", 120, 80);
+        persona = new Persona(2L, "Ana", "ana@acme.com", "$2a$10$hash",
+                new Organization(3L, "Acme", "900", "info@acme.com"));
+        actividades = new ArrayList<>(listSize);
+        for (int i = 0; i < listSize; i++)
+            actividades.add(new Actividad((long) i, "A" + i, "task", "d", i, i));
+    }
+
+    @Benchmark
+    public ActivityDto actividad_modelMapper() {
+        return modelMapper.map(actividad, ActivityDto.class);
+    }
+
+    @Benchmark
+    public ActivityDto actividad_mapStruct() {
+        return actividadMapper.toDto(actividad);
+    }
+
+    @Benchmark
+    public PersonaDto persona_modelMapper() {
+        // Igual que el PersonaService.toDto anterior
+        PersonaDto dto = modelMapper.map(persona, PersonaDto.class);
+        dto.setOrganizationId(persona.getOrganization() != null ? persona.getOrganization().getId() : null);
+        dto.setPassword(null);
+        return dto;
+    }
+
+    @Benchmark
+    public PersonaDto persona_mapStruct() {
+        return personaMapper.toDto(persona);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<ActivityDto> lista_modelMapper() {
+        List<ActivityDto> out = new ArrayList<>(actividades.size());
+        for (Actividad e : actividades) out.add(modelMapper.map(e, ActivityDto.class));
+        return out;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<ActivityDto> lista_mapStruct() {
+        List<ActivityDto> out = new ArrayList<>(actividades.size());
+        for (Actividad e : actividades) out.add(actividadMapper.toDto(e));
+        return out;
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.proyectoweb.bench;
+
+import com.example.proyectoweb.Dto.ProcesoDto;
+import com.example.proyectoweb.Dto.ProcesoPageDto;
+import com.example.proyectoweb.Modelo.*;
+import com.example.proyectoweb.Repo.*;
+import com.example.proyectoweb.Servicio.ProcesoService;
+import com.example.proyectoweb.common.GatewayType;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+// ProcesoService.toDto contra H2: obtener (un proceso, colecciones lazy) y una página de
+// listar (IDs hijos en lote). El modelo sembrado imita un proceso mediano del editor.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProcesoServiceBenchmark {
+
+    @Param({"200"})
+    public int procesos;
+
+    @Param({"20"})
+    public int actividadesPorProceso;
+
+    private ConfigurableApplicationContext ctx;
+    private ProcesoService service;
+    private Long orgId;
+    private Long procesoId;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        ctx = BenchContext.start();
+        service = ctx.getBean(ProcesoService.class);
+        RepoOrganization repoOrg = ctx.getBean(RepoOrganization.class);
+        RepoActividad repoActividad = ctx.getBean(RepoActividad.class);
+        RepoArch repoArch = ctx.getBean(RepoArch.class);
+        RepoGateway repoGateway = ctx.getBean(RepoGateway.class);
+        RepoProceso repoProceso = ctx.getBean(RepoProceso.class);
+
+        Organization org = repoOrg.save(new Organization(null, "Bench", "nit-bench", "bench@acme.com"));
+        orgId = org.getId();
+        for (int i = 0; i < procesos; i++) {
+            List<Actividad> acts = new ArrayList<>();
+            for (int j = 0; j < actividadesPorProceso; j++)
+                acts.add(new Actividad(null, "A" + j, "task", "d", j * 10, 0));
+            acts = repoActividad.saveAll(acts);
+            List<Arch> archs = new ArrayList<>();
+            for (int j = 1; j < acts.size(); j++) archs.add(new Arch(null, acts.get(j - 1), acts.get(j)));
+            archs = repoArch.saveAll(archs);
+            Gateway gw = repoGateway.save(new Gateway(null, GatewayType.EXCLUSIVE, new ArrayList<>(), null));
+
+            Proceso p = new Proceso();
+            p.setName("P" + i);
+            p.setDescription("D");
+            p.setCategory("Bench");
+            p.setOrganization(org);
+            p.setActivities(new ArrayList<>(acts));
+            p.setArchs(new ArrayList<>(archs));
+            p.setGateways(new ArrayList<>(List.of(gw)));
+            procesoId = repoProceso.save(p).getId();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        ctx.close();
+    }
+
+    @Benchmark
+    public Optional<ProcesoDto> obtener() {
+        return service.obtener(procesoId);
+    }
+
+    @Benchmark
+    public ProcesoPageDto listarPagina() {
+        return service.listar(orgId, null, null, null, 50);
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.proyectoweb.bench;
+
+import com.example.proyectoweb.Dto.SimulationRequestDto;
+import com.example.proyectoweb.Dto.SimulationResultDto;
+import com.example.proyectoweb.common.GatewayType;
+import com.example.proyectoweb.graph.CompiledGraph;
+import com.example.proyectoweb.simulation.SimulationEngine;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Corrida de 1M de instancias sobre un proceso de ~30 actividades: bloques EXCLUSIVE y
+// PARALLEL alternados. Sin Spring; el pool usa un hilo por CPU.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class SimulationBenchmark {
+
+    @Param({"1000000"})
+    public long instancias;
+
+    @Param({"10"})
+    public int bloques;
+
+    private SimulationEngine engine;
+    private CompiledGraph graph;
+
+    @Setup
+    public void setup() {
+        engine = new SimulationEngine(0, 100_000_000L, 10_000, 10_000);
+        CompiledGraph.Builder b = CompiledGraph.builder(1L, 0L);
+        long arch = 0;
+        b.activity(0);
+        for (int k = 0; k < bloques; k++) {
+            long in = 3L * k, left = in + 1, right = in + 2, out = in + 3;
+            GatewayType type = k % 2 == 0 ? GatewayType.EXCLUSIVE : GatewayType.PARALLEL;
+            b.activity(left).activity(right).activity(out);
+            long a1 = arch++, a2 = arch++, a3 = arch++, a4 = arch++;
+            b.arch(a1, in, left).arch(a2, in, right).arch(a3, left, out).arch(a4, right, out);
+            b.gateway(2L * k, type, a1).gateway(2L * k, type, a2);
+            b.gateway(2L * k + 1, type, a3).gateway(2L * k + 1, type, a4);
+        }
+        graph = b.build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        engine.shutdown();
+    }
+
+    @Benchmark
+    public SimulationResultDto simular() {
+        return engine.run(graph, new SimulationRequestDto(instancias, 1L, null, null, null));
+    }
+}
@@ -1,17 +0,0 @@
-package com.example.proyectoweb.Config;
-
-import org.modelmapper.ModelMapper;
-import org.modelmapper.convention.MatchingStrategies;
-import org.springframework.context.annotation.Bean;
-import org.springframework.context.annotation.Configuration;
-
-// Bean de ModelMapper para inyectar en mappers/servicios
-@Configuration
-public class ModelMapperConfig {
-    @Bean
-    public ModelMapper modelMapper() {
-        ModelMapper mm = new ModelMapper();
-        mm.getConfiguration().setMatchingStrategy(MatchingStrategies.STRICT);
-        return mm;
-    }
-}
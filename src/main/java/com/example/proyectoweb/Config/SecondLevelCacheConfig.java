@@ -0,0 +1,78 @@
+package com.example.proyectoweb.Config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caché de segundo nivel de Hibernate sobre JCache, con Caffeine como proveedor local.
+ * Cada región se crea acá con su tamaño y TTL ({@code second-level-cache.<región>.max-size} y
+ * {@code .ttl-seconds}); una región que Hibernate pida y no esté en {@link #REGIONS} hace fallar
+ * el arranque, así que una entidad nueva con {@code @Cache} necesita su entrada.
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+
+    public static final String ORGANIZATION = "organization";
+    public static final String PROCESS_ROLE = "processRole";
+    public static final String ACTIVIDAD = "actividad";
+    public static final String ROLES_BY_ORGANIZATION = "processRole.byOrganization";
+    // Regiones propias de Hibernate para el caché de consultas
+    static final String QUERY_RESULTS = "default-query-results-region";
+    static final String UPDATE_TIMESTAMPS = "default-update-timestamps-region";
+
+    // región -> {tamaño máximo, TTL en segundos} por defecto; 0 = sin límite
+    private static final Map<String, long[]> REGIONS = new LinkedHashMap<>();
+    static {
+        REGIONS.put(ORGANIZATION, new long[]{1_000, 3_600});
+        REGIONS.put(PROCESS_ROLE, new long[]{10_000, 3_600});
+        REGIONS.put(ACTIVIDAD, new long[]{50_000, 600});
+        REGIONS.put(ROLES_BY_ORGANIZATION, new long[]{1_000, 600});
+        REGIONS.put(QUERY_RESULTS, new long[]{1_000, 300});
+        // Una entrada por tabla; si expirara, las consultas cacheadas podrían verse como vigentes
+        REGIONS.put(UPDATE_TIMESTAMPS, new long[]{0, 0});
+    }
+
+    // Un CacheManager por contexto (URI propia): los contextos de test no comparten regiones
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(Environment env) {
+        CacheManager manager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("proyectoweb-l2-" + UUID.randomUUID()), getClass().getClassLoader());
+        REGIONS.forEach((region, defaults) -> {
+            long maxSize = env.getProperty("second-level-cache." + region + ".max-size", Long.class, defaults[0]);
+            long ttl = env.getProperty("second-level-cache." + region + ".ttl-seconds", Long.class, defaults[1]);
+            CaffeineConfiguration<Object, Object> config = new CaffeineConfiguration<>();
+            if (maxSize > 0) config.setMaximumSize(OptionalLong.of(maxSize));
+            if (ttl > 0) config.setExpireAfterWrite(OptionalLong.of(TimeUnit.SECONDS.toNanos(ttl)));
+            // Estadísticas de Caffeine (CacheStats), las mismas que exponen los demás cachés
+            config.setNativeStatisticsEnabled(true);
+            manager.createCache(region, config);
+        });
+        return manager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager hibernateCacheManager) {
+        return props -> {
+            props.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            props.put(AvailableSettings.USE_QUERY_CACHE, true);
+            props.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            props.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            props.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+}
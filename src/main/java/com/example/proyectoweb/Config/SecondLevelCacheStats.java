@@ -0,0 +1,30 @@
+package com.example.proyectoweb.Config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import javax.cache.CacheManager;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Aciertos/fallos por región del caché de segundo nivel, leídos del Caffeine debajo de cada caché JCache
+@Component
+@RequiredArgsConstructor
+public class SecondLevelCacheStats {
+
+    private final CacheManager hibernateCacheManager;
+
+    public Map<String, CacheStats> stats() {
+        Map<String, CacheStats> out = new LinkedHashMap<>();
+        for (String region : hibernateCacheManager.getCacheNames())
+            out.put(region, stats(region));
+        return out;
+    }
+
+    public CacheStats stats(String region) {
+        javax.cache.Cache<Object, Object> cache = hibernateCacheManager.getCache(region);
+        return cache != null ? cache.unwrap(Cache.class).stats() : CacheStats.empty();
+    }
+}
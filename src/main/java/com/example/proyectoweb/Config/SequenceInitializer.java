@@ -0,0 +1,52 @@
+package com.example.proyectoweb.Config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Deja cada secuencia de IDs por delante del mayor ID de su tabla. Las tablas que pasaron de IDENTITY
+ * a secuencia ya tienen filas, pero ddl-auto=update crea la secuencia desde 1 y el primer INSERT
+ * chocaría con un ID existente. Corre al arrancar, antes de que el contexto atienda requests; en una
+ * base ya ajustada solo consume un nextval por secuencia.
+ */
+@Component
+public class SequenceInitializer {
+
+    private static final Logger log = LoggerFactory.getLogger(SequenceInitializer.class);
+
+    // Igual al allocationSize de cada @SequenceGenerator
+    private static final int ALLOCATION_SIZE = 50;
+
+    // secuencia -> tabla
+    private static final String[][] SEQUENCES = {
+            {"activity_seq", "activity"},
+            {"arch_seq", "arch"},
+            {"gateway_seq", "gateway"},
+    };
+
+    private final JdbcTemplate jdbc;
+
+    // La EntityManagerFactory asegura que ddl-auto ya creó tablas y secuencias
+    public SequenceInitializer(JdbcTemplate jdbc, EntityManagerFactory emf) {
+        this.jdbc = jdbc;
+    }
+
+    @PostConstruct
+    public void ajustar() {
+        for (String[] s : SEQUENCES) ajustar(s[0], s[1]);
+    }
+
+    private void ajustar(String sequence, String table) {
+        long maxId = jdbc.queryForObject("select coalesce(max(id), 0) from " + table, Long.class);
+        long next = jdbc.queryForObject("select nextval('" + sequence + "')", Long.class);
+        // Con el optimizador pooled un valor v reparte los IDs (v - 50, v]: todos deben quedar sobre maxId
+        if (next - ALLOCATION_SIZE >= maxId) return;
+        long restart = maxId + 2L * ALLOCATION_SIZE;
+        jdbc.execute("alter sequence " + sequence + " restart with " + restart);
+        log.info("Secuencia {} adelantada a {} (max(id) de {} = {})", sequence, restart, table, maxId);
+    }
+}
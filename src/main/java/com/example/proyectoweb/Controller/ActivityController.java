@@ -1,10 +1,15 @@
 package com.example.proyectoweb.Controller;
 
 import com.example.proyectoweb.Dto.ActivityDto;
+import com.example.proyectoweb.Dto.ActivityPositionDto;
 import com.example.proyectoweb.Servicio.ActividadService;
+import com.example.proyectoweb.common.ETags;
+import com.example.proyectoweb.common.JsonStreamWriter;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.*;
 import org.springframework.web.bind.annotation.*;
+import java.io.IOException;
 import java.util.List;
 
 @RestController @RequiredArgsConstructor
@@ -13,14 +18,24 @@ import java.util.List;
 public class ActivityController {
 
     private final ActividadService service;
+    private final JsonStreamWriter streams;
 
     @GetMapping("/list")
     public List<ActivityDto> list() { return service.listar(); }
 
+    // Versión en streaming de /list: arreglo JSON por defecto, NDJSON con Accept: application/x-ndjson
+    @GetMapping(value = "/list/stream", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public void listStream(@RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                           HttpServletResponse response) throws IOException {
+        streams.<ActivityDto>write(response, JsonStreamWriter.wantsNdjson(accept), service::exportar);
+    }
+
+    // ETag por @Version; con If-None-Match vigente responde 304 sin cargar la entidad
     @GetMapping("/get/{id}")
-    public ResponseEntity<ActivityDto> get(@PathVariable Long id) {
-        return service.obtener(id).map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+    public ResponseEntity<ActivityDto> get(@PathVariable Long id,
+                                     @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return ETags.conditionalGet(ifNoneMatch, v -> ETags.of("actividad", id, v),
+                () -> service.version(id), () -> service.obtenerVersionado(id));
     }
 
     @PostMapping("/create")
@@ -28,6 +43,20 @@ public class ActivityController {
         return ResponseEntity.status(HttpStatus.CREATED).body(service.crear(dto));
     }
 
+    @PostMapping("/bulk")
+    public ResponseEntity<List<Long>> createBulk(@RequestBody List<ActivityDto> dtos) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(service.crearLote(dtos));
+    }
+
+    @PutMapping("/bulk")
+    public List<Long> updateBulk(@RequestBody List<ActivityDto> dtos) { return service.actualizarLote(dtos); }
+
+    // Movimientos de figuras: se aceptan y se escriben en diferido, juntando los repetidos (202)
+    @PatchMapping("/positions")
+    public ResponseEntity<Integer> movePositions(@RequestBody List<ActivityPositionDto> moves) {
+        return ResponseEntity.accepted().body(service.moverLote(moves));
+    }
+
     @PutMapping("/update/{id}")
     public ResponseEntity<ActivityDto> update(@PathVariable Long id, @RequestBody ActivityDto dto) {
         return service.actualizar(id, dto).map(ResponseEntity::ok)
@@ -3,9 +3,13 @@ package com.example.proyectoweb.Controller;
 
 import com.example.proyectoweb.Dto.GatewayDto;
 import com.example.proyectoweb.Servicio.GatewayService;
+import com.example.proyectoweb.common.ETags;
+import com.example.proyectoweb.common.JsonStreamWriter;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.*;
 import org.springframework.web.bind.annotation.*;
+import java.io.IOException;
 import java.util.List;
 
 @RestController @RequiredArgsConstructor
@@ -14,14 +18,23 @@ import java.util.List;
 public class GatewayController {
 
     private final GatewayService service;
+    private final JsonStreamWriter streams;
 
     @GetMapping("/list")
     public List<GatewayDto> list() { return service.listar(); }
 
+    @GetMapping(value = "/list/stream", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public void listStream(@RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                           HttpServletResponse response) throws IOException {
+        streams.<GatewayDto>write(response, JsonStreamWriter.wantsNdjson(accept), service::exportar);
+    }
+
+    // ETag por @Version; con If-None-Match vigente responde 304 sin cargar la entidad
     @GetMapping("/get/{id}")
-    public ResponseEntity<GatewayDto> get(@PathVariable Long id) {
-        return service.obtener(id).map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+    public ResponseEntity<GatewayDto> get(@PathVariable Long id,
+                                     @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return ETags.conditionalGet(ifNoneMatch, v -> ETags.of("gateway", id, v),
+                () -> service.version(id), () -> service.obtenerVersionado(id));
     }
 
     @PostMapping("/create")
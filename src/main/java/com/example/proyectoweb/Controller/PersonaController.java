@@ -2,9 +2,12 @@ package com.example.proyectoweb.Controller;
 
 import com.example.proyectoweb.Dto.PersonaDto;
 import com.example.proyectoweb.Servicio.PersonaService;
+import com.example.proyectoweb.common.JsonStreamWriter;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.*;
 import org.springframework.web.bind.annotation.*;
+import java.io.IOException;
 import java.util.List;
 
 @RestController
@@ -14,10 +17,17 @@ import java.util.List;
 public class PersonaController {
 
     private final PersonaService service;
+    private final JsonStreamWriter streams;
 
     @GetMapping("/list")
     public List<PersonaDto> list() { return service.listar(); }
 
+    @GetMapping(value = "/list/stream", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public void listStream(@RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                           HttpServletResponse response) throws IOException {
+        streams.<PersonaDto>write(response, JsonStreamWriter.wantsNdjson(accept), service::exportar);
+    }
+
     @GetMapping("/get/{id}")
     public ResponseEntity<PersonaDto> get(@PathVariable Long id) {
         return service.obtener(id).map(ResponseEntity::ok)
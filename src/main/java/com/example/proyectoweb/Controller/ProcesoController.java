@@ -1,12 +1,27 @@
 package com.example.proyectoweb.Controller;
 
+import com.example.proyectoweb.Dto.ActivityDto;
 import com.example.proyectoweb.Dto.ProcesoDto;
-import com.example.proyectoweb.Modelo.ProcessHistory;
+import com.example.proyectoweb.Dto.ProcesoPageDto;
+import com.example.proyectoweb.Dto.ProcessDiffDto;
+import com.example.proyectoweb.Dto.ProcessGraphDto;
+import com.example.proyectoweb.Dto.ProcessGraphSaveResultDto;
+import com.example.proyectoweb.Dto.ProcessHistoryDto;
+import com.example.proyectoweb.Dto.ProcessHistoryPageDto;
+import com.example.proyectoweb.Dto.ProcessRevisionDto;
+import com.example.proyectoweb.Dto.ProcessRevisionPageDto;
+import com.example.proyectoweb.Dto.ProcessVersionDto;
+import com.example.proyectoweb.Dto.SimulationRequestDto;
+import com.example.proyectoweb.Dto.SimulationResultDto;
+import com.example.proyectoweb.Dto.ValidationResultDto;
 import com.example.proyectoweb.Servicio.ProcesoService;
+import com.example.proyectoweb.common.ETags;
 import com.example.proyectoweb.common.ProcessStatus;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.*;
 import org.springframework.web.bind.annotation.*;
+import java.time.Instant;
 import java.util.List;
 
 @RestController @RequiredArgsConstructor
@@ -14,18 +29,38 @@ import java.util.List;
 @CrossOrigin(origins = "http://localhost:4200")
 public class ProcesoController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final ProcesoService service;
 
+    // Página por keyset; si hay más resultados el cursor siguiente viaja en X-Next-Cursor.
+    // El ETag sale de los (id, versión) de la página: con If-None-Match vigente basta esa proyección y no se
+    // cargan entidades ni colecciones. Si no coincide, el ETag de la respuesta es el de la página leída.
     @GetMapping("/list")
-    public List<ProcesoDto> list(@RequestParam(required = false) Long orgId,
-                                 @RequestParam(required = false) ProcessStatus status) {
-        return service.listar(orgId, status);
+    public ResponseEntity<List<ProcesoDto>> list(@RequestParam(required = false) Long orgId,
+                                                 @RequestParam(required = false) ProcessStatus status,
+                                                 @RequestParam(required = false) String category,
+                                                 @RequestParam(required = false) String cursor,
+                                                 @RequestParam(required = false) Integer size,
+                                                 @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        Object scope = orgId!=null? orgId : "all";
+        if (ifNoneMatch!=null) {
+            String actual = ETags.of("procesos", scope, service.marca(orgId, status, category, cursor, size));
+            if (ETags.matches(ifNoneMatch, actual)) return ETags.notModified(actual);
+        }
+        ProcesoPageDto page = service.listar(orgId, status, category, cursor, size);
+        String etag = ETags.of("procesos", scope, page.getWatermark());
+        ResponseEntity.BodyBuilder ok = ResponseEntity.ok().eTag(etag).cacheControl(ETags.REVALIDATE);
+        if (page.getNextCursor()!=null) ok.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        return ok.body(page.getItems());
     }
 
+    // ETag por @Version; con If-None-Match vigente responde 304 sin cargar la entidad
     @GetMapping("/get/{id}")
-    public ResponseEntity<ProcesoDto> get(@PathVariable Long id) {
-        return service.obtener(id).map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+    public ResponseEntity<ProcesoDto> get(@PathVariable Long id,
+                                     @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return ETags.conditionalGet(ifNoneMatch, v -> ETags.of("proceso", id, v),
+                () -> service.version(id), () -> service.obtenerVersionado(id));
     }
 
     @PostMapping("/create")
@@ -42,6 +77,24 @@ public class ProcesoController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    // Diagrama completo en un solo pedido; devuelve los IDs asignados a los elementos nuevos
+    @PutMapping("/{id}/graph")
+    public ProcessGraphSaveResultDto saveGraph(@PathVariable Long id,
+                                               @RequestBody ProcessGraphDto dto,
+                                               @RequestHeader(value="X-Actor-Email", required=false) String actor) {
+        return service.guardarGrafo(id, dto, actor);
+    }
+
+    // Actividades cuya esquina (x, y) cae en el rectángulo, bordes incluidos; el lienzo pide solo lo visible
+    @GetMapping("/{id}/activities")
+    public List<ActivityDto> activities(@PathVariable Long id,
+                                        @RequestParam(required = false) Integer minX,
+                                        @RequestParam(required = false) Integer minY,
+                                        @RequestParam(required = false) Integer maxX,
+                                        @RequestParam(required = false) Integer maxY) {
+        return service.actividadesEnVista(id, minX, minY, maxX, maxY);
+    }
+
     @DeleteMapping("/delete/{id}")
     public ResponseEntity<Void> delete(@PathVariable Long id,
                                        @RequestParam(defaultValue = "false") boolean hardDelete,
@@ -50,8 +103,48 @@ public class ProcesoController {
                 : ResponseEntity.notFound().build();
     }
 
+    @GetMapping("/{id}/validate")
+    public ValidationResultDto validate(@PathVariable Long id) {
+        return service.validar(id);
+    }
+
+    @PostMapping("/{id}/simulate")
+    public SimulationResultDto simulate(@PathVariable Long id, @RequestBody SimulationRequestDto req) {
+        return service.simular(id, req);
+    }
+
+    // Revisiones de la estructura, más reciente primero; cursor en X-Next-Cursor
+    @GetMapping("/{id}/versions")
+    public ResponseEntity<List<ProcessRevisionDto>> versions(@PathVariable Long id,
+                                                             @RequestParam(required = false) String cursor,
+                                                             @RequestParam(required = false) Integer size) {
+        ProcessRevisionPageDto page = service.versiones(id, cursor, size);
+        ResponseEntity.BodyBuilder ok = ResponseEntity.ok();
+        if (page.getNextCursor()!=null) ok.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        return ok.body(page.getItems());
+    }
+
+    @GetMapping("/{id}/versions/{revision}")
+    public ProcessVersionDto version(@PathVariable Long id, @PathVariable int revision) {
+        return service.version(id, revision);
+    }
+
+    // Cambios para pasar de la revisión from a la revisión to
+    @GetMapping("/{id}/diff")
+    public ProcessDiffDto diff(@PathVariable Long id, @RequestParam int from, @RequestParam int to) {
+        return service.diff(id, from, to);
+    }
+
+    // Más reciente primero; from/to en ISO-8601 (from inclusivo, to exclusivo); cursor en X-Next-Cursor
     @GetMapping("/{id}/history")
-    public List<ProcessHistory> history(@PathVariable Long id) {
-        return service.historial(id);
+    public ResponseEntity<List<ProcessHistoryDto>> history(@PathVariable Long id,
+                                                           @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+                                                           @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+                                                           @RequestParam(required = false) String cursor,
+                                                           @RequestParam(required = false) Integer size) {
+        ProcessHistoryPageDto page = service.historial(id, from, to, cursor, size);
+        ResponseEntity.BodyBuilder ok = ResponseEntity.ok();
+        if (page.getNextCursor()!=null) ok.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        return ok.body(page.getItems());
     }
 }
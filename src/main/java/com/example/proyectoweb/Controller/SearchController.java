@@ -0,0 +1,31 @@
+package com.example.proyectoweb.Controller;
+
+import com.example.proyectoweb.Dto.SearchHitDto;
+import com.example.proyectoweb.Dto.SearchPageDto;
+import com.example.proyectoweb.Servicio.SearchService;
+import com.example.proyectoweb.common.SearchHitType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.util.List;
+
+@RestController @RequiredArgsConstructor
+@RequestMapping("/api/search")
+@CrossOrigin(origins = "http://localhost:4200")
+public class SearchController {
+
+    private final SearchService service;
+
+    // Procesos y actividades que contienen todas las palabras de q, mejor puntaje primero; type filtra
+    // por PROCESS o ACTIVITY. Cursor siguiente en X-Next-Cursor, como en /api/processes/list.
+    @GetMapping
+    public ResponseEntity<List<SearchHitDto>> search(@RequestParam String q,
+                                                     @RequestParam(required = false) SearchHitType type,
+                                                     @RequestParam(required = false) String cursor,
+                                                     @RequestParam(required = false) Integer size) {
+        SearchPageDto page = service.buscar(q, type, cursor, size);
+        ResponseEntity.BodyBuilder ok = ResponseEntity.ok();
+        if (page.getNextCursor()!=null) ok.header(ProcesoController.NEXT_CURSOR_HEADER, page.getNextCursor());
+        return ok.body(page.getItems());
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.proyectoweb.Dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ActivityPositionDto {
+    private Long id;
+    private Integer x;
+    private Integer y;
+}
@@ -0,0 +1,14 @@
+package com.example.proyectoweb.Dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FieldChangeDto {
+    private String field;
+    private Object from;
+    private Object to;
+}
@@ -0,0 +1,11 @@
+package com.example.proyectoweb.Dto;
+
+import lombok.*;
+import java.util.List;
+
+@Data @NoArgsConstructor @AllArgsConstructor
+public class PathFrequencyDto {
+    // Actividades en el orden en que se ejecutaron (las ramas paralelas quedan intercaladas)
+    private List<Long> activityIds;
+    private long count;
+}
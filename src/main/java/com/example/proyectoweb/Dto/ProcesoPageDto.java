@@ -0,0 +1,16 @@
+package com.example.proyectoweb.Dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProcesoPageDto {
+    private List<ProcesoDto> items;
+    private String nextCursor; // null cuando no hay más páginas
+    private String watermark; // (id, versión) de las filas de la página, para el ETag de /list
+}
@@ -0,0 +1,24 @@
+package com.example.proyectoweb.Dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// Qué cambia para pasar de la revisión fromRevision a toRevision; las listas vacías no cambian
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProcessDiffDto {
+    private Long procesoId;
+    private Integer fromRevision;
+    private Integer toRevision;
+    private List<FieldChangeDto> fields;
+    private List<Long> addedActivityIds;
+    private List<Long> removedActivityIds;
+    private List<Long> addedArchIds;
+    private List<Long> removedArchIds;
+    private List<Long> addedGatewayIds;
+    private List<Long> removedGatewayIds;
+}
@@ -0,0 +1,20 @@
+package com.example.proyectoweb.Dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// Diagrama completo tal como debe quedar. Los elementos nuevos llevan un id temporal <= 0 que los
+// arcos y gateways (incluido conditionsJson) pueden usar para referirse a ellos.
+// version es opcional: si viene y no coincide con la del proceso, el guardado se rechaza.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProcessGraphDto {
+    private Long version;
+    private List<ActivityDto> activities;
+    private List<ArchDto> archs;
+    private List<GatewayDto> gateways;
+}
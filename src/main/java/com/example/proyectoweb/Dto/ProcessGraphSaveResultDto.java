@@ -0,0 +1,22 @@
+package com.example.proyectoweb.Dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+// ID temporal -> ID asignado por cada elemento nuevo, y cuántas filas cambió el guardado
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProcessGraphSaveResultDto {
+    private Long procesoId;
+    private Long version;
+    private Map<Long, Long> activityIds;
+    private Map<Long, Long> archIds;
+    private Map<Long, Long> gatewayIds;
+    private int inserted;
+    private int updated;
+    private int deleted;
+}
@@ -0,0 +1,15 @@
+package com.example.proyectoweb.Dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProcessHistoryPageDto {
+    private List<ProcessHistoryDto> items;
+    private String nextCursor; // null cuando no hay más páginas
+}
@@ -0,0 +1,15 @@
+package com.example.proyectoweb.Dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProcessRevisionDto {
+    private Integer revision;
+    private boolean checkpoint;
+    private String changedBy;
+    private Long createdAtEpoch;
+}
@@ -0,0 +1,25 @@
+package com.example.proyectoweb.Dto;
+
+import com.example.proyectoweb.common.ProcessStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// Un proceso tal como estaba en una revisión
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProcessVersionDto {
+    private Long procesoId;
+    private Integer revision;
+    private String name;
+    private String description;
+    private String category;
+    private ProcessStatus status;
+    private Long organizationId;
+    private List<Long> activityIds;
+    private List<Long> archIds;
+    private List<Long> gatewayIds;
+}
@@ -0,0 +1,19 @@
+package com.example.proyectoweb.Dto;
+
+import com.example.proyectoweb.common.SearchHitType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchHitDto {
+    private SearchHitType type;
+    private Long id;
+    private String name;
+    private String description;
+    private String category;   // solo procesos
+    private Long procesoId;    // solo actividades: el proceso que la contiene, si hay
+    private double score;
+}
@@ -0,0 +1,18 @@
+package com.example.proyectoweb.Dto;
+
+import lombok.*;
+import java.util.Map;
+
+@Data @NoArgsConstructor @AllArgsConstructor
+public class SimulationRequestDto {
+    private Long instances;
+    // Semilla para reproducir una corrida; null = aleatoria
+    private Long seed;
+    // archId -> peso. EXCLUSIVE: se normaliza entre las salidas (default 1 cada una).
+    // INCLUSIVE: probabilidad independiente de tomar cada arco (default 0.5).
+    private Map<Long, Double> branchProbabilities;
+    private Integer maxStepsPerInstance;
+    // Variables para las condiciones de los gateways: número, texto o booleano; una lista se
+    // muestrea de forma uniforme por instancia. Donde hay condiciones, no se usan los pesos.
+    private Map<String, Object> variables;
+}
@@ -0,0 +1,26 @@
+package com.example.proyectoweb.Dto;
+
+import lombok.*;
+import java.util.List;
+import java.util.Map;
+
+@Data @NoArgsConstructor @AllArgsConstructor
+public class SimulationResultDto {
+    private Long procesoId;
+    private long instances;
+    private long completed;
+    // Tokens atascados en una unión PARALLEL que nunca recibió todas sus ramas
+    private long deadlocked;
+    // Cortadas por maxStepsPerInstance (bucles que no terminan)
+    private long truncated;
+    // Llegaron a un gateway con condiciones donde ninguna se cumplió y no había default
+    private long noBranch;
+    private long elapsedMs;
+    private double instancesPerSecond;
+    private double avgStepsPerInstance;
+    private Map<Long, Long> activityVisits;
+    private Map<Long, Long> endFrequency;
+    private List<PathFrequencyDto> topPaths;
+    // Instancias cuyo camino no entró en el tope de caminos distintos seguidos
+    private long untrackedPaths;
+}
@@ -0,0 +1,15 @@
+package com.example.proyectoweb.Dto;
+
+import com.example.proyectoweb.common.IssueSeverity;
+import lombok.*;
+import java.util.List;
+
+@Data @NoArgsConstructor @AllArgsConstructor
+public class ValidationIssueDto {
+    private String code;
+    private IssueSeverity severity;
+    private String message;
+    private List<Long> activityIds;
+    private List<Long> archIds;
+    private Long gatewayId;
+}
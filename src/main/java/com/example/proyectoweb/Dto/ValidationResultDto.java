@@ -0,0 +1,12 @@
+package com.example.proyectoweb.Dto;
+
+import lombok.*;
+import java.util.List;
+
+@Data @NoArgsConstructor @AllArgsConstructor
+public class ValidationResultDto {
+    private Long procesoId;
+    // Sin issues de severidad ERROR; las advertencias no bloquean la publicación
+    private boolean valid;
+    private List<ValidationIssueDto> issues;
+}
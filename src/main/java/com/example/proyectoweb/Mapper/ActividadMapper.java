@@ -0,0 +1,16 @@
+package com.example.proyectoweb.Mapper;
+
+import com.example.proyectoweb.Dto.ActivityDto;
+import com.example.proyectoweb.Modelo.Actividad;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+@Mapper
+public interface ActividadMapper {
+
+    ActivityDto toDto(Actividad e);
+
+    // La versión la maneja Hibernate
+    @Mapping(target = "version", ignore = true)
+    Actividad toEntity(ActivityDto dto);
+}
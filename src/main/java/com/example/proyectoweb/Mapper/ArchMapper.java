@@ -0,0 +1,14 @@
+package com.example.proyectoweb.Mapper;
+
+import com.example.proyectoweb.Dto.ArchDto;
+import com.example.proyectoweb.Modelo.Arch;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+@Mapper
+public interface ArchMapper {
+
+    @Mapping(target = "actividadI", source = "actividadI.id")
+    @Mapping(target = "actividadD", source = "actividadD.id")
+    ArchDto toDto(Arch e);
+}
@@ -0,0 +1,20 @@
+package com.example.proyectoweb.Mapper;
+
+import com.example.proyectoweb.Dto.GatewayDto;
+import com.example.proyectoweb.Modelo.Arch;
+import com.example.proyectoweb.Modelo.Gateway;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.NullValueMappingStrategy;
+
+// archs se aplana a sus IDs; una lista nula sale como lista vacía
+@Mapper(nullValueIterableMappingStrategy = NullValueMappingStrategy.RETURN_DEFAULT)
+public interface GatewayMapper {
+
+    @Mapping(target = "archIds", source = "archs")
+    GatewayDto toDto(Gateway e);
+
+    default Long archId(Arch a) {
+        return a.getId();
+    }
+}
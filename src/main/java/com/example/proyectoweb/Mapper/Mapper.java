@@ -2,27 +2,24 @@ package com.example.proyectoweb.Mapper;
 
 import com.example.proyectoweb.Dto.OrganizationDto;
 import com.example.proyectoweb.Modelo.Organization;
-import org.modelmapper.ModelMapper;
 import org.springframework.stereotype.Component;
 
 @Component
 public class Mapper {
 
-    private final ModelMapper mapper;
+    private final OrganizationMapper organizationMapper;
 
-    public Mapper(ModelMapper mapper) {
-        this.mapper = mapper;
+    public Mapper(OrganizationMapper organizationMapper) {
+        this.organizationMapper = organizationMapper;
     }
 
     public OrganizationDto ConvertirOrg(Organization org) {
-        if (org == null) return null;
-        return mapper.map(org, OrganizationDto.class);
+        return organizationMapper.toDto(org);
     }
 
     public Organization ConvertirOrg(OrganizationDto dto) {
-        if (dto == null) return null;
-        return mapper.map(dto, Organization.class);
+        return organizationMapper.toEntity(dto);
     }
-    //Si se quiere, se puede agregar demas metodos para conversion con el bean de mapper a todos los objetos que tengan DTO
+    //Los demás mapeos viven en las interfaces MapStruct de este paquete (ActividadMapper, PersonaMapper, ...)
 
 }
@@ -2,26 +2,15 @@ package com.example.proyectoweb.Mapper;
 
 import com.example.proyectoweb.Dto.OrganizationDto;
 import com.example.proyectoweb.Modelo.Organization;
-import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
-import org.springframework.stereotype.Component;
+import org.mapstruct.Mapper;
 
-// Envuelve ModelMapper solo para Organization (centraliza reglas/conversión)
-@Component
-@RequiredArgsConstructor
-public class OrganizationMapper {
-
-    private final ModelMapper mapper;
+// Mapeo Organization <-> DTO generado en compilación por MapStruct
+@Mapper
+public interface OrganizationMapper {
 
     // Entidad -> DTO
-    public OrganizationDto toDto(Organization org) {
-        if (org == null) return null;
-        return mapper.map(org, OrganizationDto.class);
-    }
+    OrganizationDto toDto(Organization org);
 
     // DTO -> Entidad
-    public Organization toEntity(OrganizationDto dto) {
-        if (dto == null) return null;
-        return mapper.map(dto, Organization.class);
-    }
+    Organization toEntity(OrganizationDto dto);
 }
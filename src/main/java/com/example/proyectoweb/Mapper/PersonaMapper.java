@@ -0,0 +1,19 @@
+package com.example.proyectoweb.Mapper;
+
+import com.example.proyectoweb.Dto.PersonaDto;
+import com.example.proyectoweb.Modelo.Persona;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+@Mapper
+public interface PersonaMapper {
+
+    // Nunca expone el password (ni el hash) al front
+    @Mapping(target = "organizationId", source = "organization.id")
+    @Mapping(target = "password", ignore = true)
+    PersonaDto toDto(Persona e);
+
+    // La organización la resuelve el servicio a partir de organizationId
+    @Mapping(target = "organization", ignore = true)
+    Persona toEntity(PersonaDto dto);
+}
@@ -0,0 +1,39 @@
+package com.example.proyectoweb.Mapper;
+
+import com.example.proyectoweb.Dto.ProcesoDto;
+import com.example.proyectoweb.Modelo.Actividad;
+import com.example.proyectoweb.Modelo.Arch;
+import com.example.proyectoweb.Modelo.Gateway;
+import com.example.proyectoweb.Modelo.Proceso;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+@Mapper
+public interface ProcesoMapper {
+
+    // Proceso completo: las colecciones se aplanan a sus IDs (inicializa las relaciones lazy)
+    @Mapping(target = "organizationId", source = "organization.id")
+    @Mapping(target = "activityIds", source = "activities")
+    @Mapping(target = "archIds", source = "archs")
+    @Mapping(target = "gatewayIds", source = "gateways")
+    ProcesoDto toDto(Proceso p);
+
+    // Solo la cabecera; los IDs hijos los llena quien ya los cargó en lote
+    @Mapping(target = "organizationId", source = "organization.id")
+    @Mapping(target = "activityIds", ignore = true)
+    @Mapping(target = "archIds", ignore = true)
+    @Mapping(target = "gatewayIds", ignore = true)
+    ProcesoDto toHeaderDto(Proceso p);
+
+    default Long actividadId(Actividad a) {
+        return a.getId();
+    }
+
+    default Long archId(Arch a) {
+        return a.getId();
+    }
+
+    default Long gatewayId(Gateway g) {
+        return g.getId();
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.proyectoweb.Mapper;
+
+import com.example.proyectoweb.Dto.ActivityRoleLinkDto;
+import com.example.proyectoweb.Dto.ProcessRoleDto;
+import com.example.proyectoweb.Modelo.ActivityRoleLink;
+import com.example.proyectoweb.Modelo.ProcessRole;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+@Mapper
+public interface ProcessRoleMapper {
+
+    @Mapping(target = "organizationId", source = "organization.id")
+    ProcessRoleDto toDto(ProcessRole e);
+
+    @Mapping(target = "actividadId", source = "actividad.id")
+    @Mapping(target = "roleId", source = "role.id")
+    ActivityRoleLinkDto toDto(ActivityRoleLink e);
+}
@@ -2,14 +2,23 @@ package com.example.proyectoweb.Modelo;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 
 @Data
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "actividad")
 @NoArgsConstructor
 @AllArgsConstructor
 @Table(name = "Activity")
 public class Actividad {
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Secuencia con optimizador pooled: un nextval cada 50 IDs y sin IDENTITY, que impedía
+    // agrupar los INSERT en lotes JDBC
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "activity_seq")
+    @SequenceGenerator(name = "activity_seq", sequenceName = "activity_seq", allocationSize = 50)
     private Long id;
 
     @Column
@@ -27,4 +36,13 @@ public class Actividad {
     @Column
     private Integer y;
 
+    // Para ETag y escrituras concurrentes; sube con cada UPDATE de la fila
+    @Version
+    @ColumnDefault("0")
+    @Column(name="version", nullable=false)
+    private Long version;
+
+    public Actividad(Long id, String name, String type, String description, Integer x, Integer y) {
+        this(id, name, type, description, x, y, null);
+    }
 }
@@ -8,7 +8,8 @@ import lombok.*;
 @AllArgsConstructor
 @Entity
 @Table(name="ActivityRoleLink",
-        uniqueConstraints = @UniqueConstraint(name="uk_activity_role", columnNames={"actividad_id","role_id"}))
+        uniqueConstraints = @UniqueConstraint(name="uk_activity_role", columnNames={"actividad_id","role_id"}),
+        indexes = @Index(name="idx_arlink_role", columnList="role_id, actividad_id"))
 public class ActivityRoleLink {
     @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -2,6 +2,7 @@ package com.example.proyectoweb.Modelo;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 
 @Data
 @NoArgsConstructor
@@ -13,7 +14,10 @@ import lombok.*;
                 @Index(name="idx_arch_ad", columnList = "actividad_d_id")
         })
 public class Arch {
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Secuencia pooled como activity_seq: el guardado del diagrama inserta arcos en lotes JDBC
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "arch_seq")
+    @SequenceGenerator(name = "arch_seq", sequenceName = "arch_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(optional = false, fetch = FetchType.LAZY)
@@ -25,4 +29,13 @@ public class Arch {
     @JoinColumn(name="actividad_d_id", nullable=false,
             foreignKey = @ForeignKey(name="fk_arch_actividad_d"))
     private Actividad actividadD;
+
+    @Version
+    @ColumnDefault("0")
+    @Column(name="version", nullable=false)
+    private Long version;
+
+    public Arch(Long id, Actividad actividadI, Actividad actividadD) {
+        this(id, actividadI, actividadD, null);
+    }
 }
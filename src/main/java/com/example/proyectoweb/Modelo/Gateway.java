@@ -3,6 +3,7 @@ package com.example.proyectoweb.Modelo;
 import com.example.proyectoweb.common.GatewayType;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -12,7 +13,9 @@ import java.util.List;
 @Entity
 @Table(name = "Gateway")
 public class Gateway {
-    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "gateway_seq")
+    @SequenceGenerator(name = "gateway_seq", sequenceName = "gateway_seq", allocationSize = 50)
     private Long id;
 
     @Enumerated(EnumType.STRING)
@@ -29,4 +32,14 @@ public class Gateway {
 
     @Column(name="conditions_json", length=2000)
     private String conditionsJson;
+
+    // Sube también cuando cambian sus arcos (gateway_arch es una colección propia)
+    @Version
+    @ColumnDefault("0")
+    @Column(name="version", nullable=false)
+    private Long version;
+
+    public Gateway(Long id, GatewayType type, List<Arch> archs, String conditionsJson) {
+        this(id, type, archs, conditionsJson, null);
+    }
 }
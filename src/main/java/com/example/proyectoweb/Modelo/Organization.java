@@ -2,11 +2,15 @@ package com.example.proyectoweb.Modelo;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "organization")
 @Table(name = "Organization",
         uniqueConstraints = {
                 @UniqueConstraint(name = "uk_organization_nit", columnNames = "NIT"),
@@ -3,6 +3,7 @@ package com.example.proyectoweb.Modelo;
 import com.example.proyectoweb.common.ProcessStatus;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -10,7 +11,11 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "Proceso")
+@Table(name = "Proceso",
+        indexes = {
+                @Index(name="idx_proceso_org_status", columnList = "organization_id, status, id"),
+                @Index(name="idx_proceso_category", columnList = "category, id")
+        })
 public class Proceso {
     @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -28,6 +33,12 @@ public class Proceso {
     @Column(name="status", nullable=false, length=20)
     private ProcessStatus status = ProcessStatus.DRAFT;
 
+    // Sube con cada cambio del proceso o de sus tablas intermedias; clave del grafo compilado
+    @Version
+    @ColumnDefault("0")
+    @Column(name="version", nullable=false)
+    private Long version;
+
     // Vinculado a una organización
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name="organization_id", foreignKey = @ForeignKey(name="fk_proceso_org"))
@@ -37,7 +48,8 @@ public class Proceso {
     @OneToMany
     @JoinTable(name="proceso_actividad",
             joinColumns=@JoinColumn(name="proceso_id", foreignKey=@ForeignKey(name="fk_proc_act_proc")),
-            inverseJoinColumns=@JoinColumn(name="actividad_id", foreignKey=@ForeignKey(name="fk_proc_act_act")))
+            inverseJoinColumns=@JoinColumn(name="actividad_id", foreignKey=@ForeignKey(name="fk_proc_act_act")),
+            indexes=@Index(name="idx_proc_act_act", columnList="actividad_id, proceso_id"))
     private List<Actividad> activities = new ArrayList<>();
 
     @OneToMany
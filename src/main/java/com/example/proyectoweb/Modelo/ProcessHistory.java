@@ -10,7 +10,8 @@ import java.time.Instant;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name="ProcessHistory", indexes = @Index(name="idx_ph_proceso", columnList="proceso_id"))
+// (proceso_id, created_at, id) descendente: el historial de un proceso se pagina como un rango del índice
+@Table(name="ProcessHistory", indexes = @Index(name="idx_ph_proceso_created", columnList="proceso_id, created_at DESC, id DESC"))
 public class ProcessHistory {
     @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -0,0 +1,38 @@
+package com.example.proyectoweb.Modelo;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.Length;
+
+import java.time.Instant;
+
+// Una revisión de la estructura de un proceso: delta contra la anterior o checkpoint completo
+// (ver versioning/RevisionCodec). Sin FK a Proceso: las revisiones se borran junto con el proceso.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "ProcessRevision",
+        uniqueConstraints = @UniqueConstraint(name = "uk_revision_proceso_rev", columnNames = {"proceso_id", "revision"}))
+public class ProcessRevision {
+    @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "proceso_id", nullable = false)
+    private Long procesoId;
+
+    @Column(name = "revision", nullable = false)
+    private Integer revision;
+
+    @Column(name = "checkpoint", nullable = false)
+    private boolean checkpoint;
+
+    @Column(name = "payload", nullable = false, length = Length.LONG32)
+    private byte[] payload;
+
+    @Column(name = "changed_by", length = 100)
+    private String changedBy;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt = Instant.now();
+}
@@ -2,11 +2,15 @@ package com.example.proyectoweb.Modelo;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "processRole")
 @Table(name="ProcessRole",
         uniqueConstraints = @UniqueConstraint(name="uk_role_name_org", columnNames={"name","organization_id"}))
 public class ProcessRole {
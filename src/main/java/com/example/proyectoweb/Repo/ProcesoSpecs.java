@@ -0,0 +1,27 @@
+package com.example.proyectoweb.Repo;
+
+import com.example.proyectoweb.Modelo.Proceso;
+import com.example.proyectoweb.common.ProcessStatus;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Predicados de /api/processes/list. Solo se agregan los filtros presentes,
+// así la consulta final usa los índices en lugar de "(:x is null or ...)".
+public final class ProcesoSpecs {
+
+    private ProcesoSpecs() {}
+
+    public static Specification<Proceso> filtros(Long orgId, ProcessStatus status, String category, Long afterId) {
+        return (root, query, cb) -> {
+            List<Predicate> ps = new ArrayList<>();
+            if (orgId != null) ps.add(cb.equal(root.get("organization").get("id"), orgId));
+            if (status != null) ps.add(cb.equal(root.get("status"), status));
+            if (category != null && !category.isBlank()) ps.add(cb.equal(root.get("category"), category));
+            if (afterId != null) ps.add(cb.greaterThan(root.get("id"), afterId));
+            return cb.and(ps.toArray(new Predicate[0]));
+        };
+    }
+}
@@ -1,8 +1,34 @@
 package com.example.proyectoweb.Repo;
 
 import com.example.proyectoweb.Modelo.Actividad;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface RepoActividad extends JpaRepository<Actividad, Long> {}
+public interface RepoActividad extends JpaRepository<Actividad, Long> {
+
+    // Lectura por cursor para /list/stream; el Stream debe cerrarse dentro de la transacción
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select a from Actividad a order by a.id")
+    Stream<Actividad> streamAll();
+
+    // Para If-None-Match: solo la versión, sin cargar la entidad
+    @Query("select a.version from Actividad a where a.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    // Carga inicial del índice de búsqueda (ver SearchIndexer), por keyset
+    record SearchRow(Long id, String name, String description) {}
+
+    @Query("select a.id as id, a.name as name, a.description as description from Actividad a " +
+            "where a.id > :after order by a.id")
+    List<SearchRow> findSearchRowsAfter(@Param("after") long after, Limit limit);
+}
@@ -2,6 +2,8 @@ package com.example.proyectoweb.Repo;
 
 import com.example.proyectoweb.Modelo.ActivityRoleLink;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -10,4 +12,7 @@ import java.util.List;
 public interface RepoActivityRoleLink extends JpaRepository<ActivityRoleLink, Long> {
     boolean existsByRole_Id(Long roleId);
     List<ActivityRoleLink> findAllByRole_Id(Long roleId);
-}
\ No newline at end of file
+
+    @Query("select l.actividad.id from ActivityRoleLink l where l.role.id = :roleId order by l.actividad.id")
+    List<Long> findActividadIdsByRole_Id(@Param("roleId") Long roleId);
+}
@@ -1,11 +1,26 @@
 package com.example.proyectoweb.Repo;
 
 import com.example.proyectoweb.Modelo.Arch;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface RepoArch extends JpaRepository<Arch, Long> {
     List<Arch> findAllByActividadI_IdOrActividadD_Id(Long actividadIId, Long actividadDId);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select a from Arch a order by a.id")
+    Stream<Arch> streamAll();
+
+    // Para If-None-Match: solo la versión, sin cargar la entidad
+    @Query("select a.version from Arch a where a.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
 }
@@ -1,8 +1,29 @@
 package com.example.proyectoweb.Repo;
 
 import com.example.proyectoweb.Modelo.Gateway;
+import com.example.proyectoweb.common.GatewayType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface RepoGateway extends JpaRepository<Gateway,Long> {}
+public interface RepoGateway extends JpaRepository<Gateway,Long> {
+
+    // Una fila por (gateway, arch), ordenada por gateway; archId es null si no tiene arcos
+    record ArchRow(Long gatewayId, GatewayType type, String conditionsJson, Long archId) {}
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select g.id as gatewayId, g.type as type, g.conditionsJson as conditionsJson, a.id as archId " +
+            "from Gateway g left join g.archs a order by g.id")
+    Stream<ArchRow> streamWithArchIds();
+
+    // Para If-None-Match: solo la versión, sin cargar la entidad
+    @Query("select g.version from Gateway g where g.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+}
@@ -1,12 +1,20 @@
 package com.example.proyectoweb.Repo;
 
 import com.example.proyectoweb.Modelo.Persona;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface RepoPersona extends JpaRepository<Persona, Long> {
     Optional<Persona> findByEmailIgnoreCase(String email);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select p from Persona p order by p.id")
+    Stream<Persona> streamAll();
 }
@@ -1,11 +1,74 @@
 package com.example.proyectoweb.Repo;
 
 import com.example.proyectoweb.Modelo.Proceso;
+import com.example.proyectoweb.common.GatewayType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
-@Repository public interface RepoProceso extends JpaRepository<Proceso,Long> {
-    List<Proceso> findAllByOrganization_Id(Long orgId);
-}
\ No newline at end of file
+@Repository public interface RepoProceso extends JpaRepository<Proceso,Long>, JpaSpecificationExecutor<Proceso> {
+    // Fila (proceso, hijo) leída directo de las tablas intermedias, sin cargar entidades
+    record ChildIdRow(Long procesoId, Long childId) {}
+
+    @Query("select p.id as procesoId, a.id as childId from Proceso p join p.activities a where p.id in :ids")
+    List<ChildIdRow> findActivityIdsByProcesoIds(@Param("ids") Collection<Long> ids);
+
+    @Query("select p.id as procesoId, a.id as childId from Proceso p join p.archs a where p.id in :ids")
+    List<ChildIdRow> findArchIdsByProcesoIds(@Param("ids") Collection<Long> ids);
+
+    @Query("select p.id as procesoId, g.id as childId from Proceso p join p.gateways g where p.id in :ids")
+    List<ChildIdRow> findGatewayIdsByProcesoIds(@Param("ids") Collection<Long> ids);
+
+    // Filas para compilar el grafo de un proceso (ver ProcessGraphService)
+    record ArchEdgeRow(Long archId, Long fromId, Long toId) {}
+    record GatewayArchRow(Long gatewayId, GatewayType type, Long archId) {}
+    record GatewayConditionsRow(Long gatewayId, Long version, String conditionsJson) {}
+
+    // (id, versión) de una página de /list, para el ETag (ver ProcesoService.marca)
+    record IdVersionRow(Long id, Long version) {}
+
+    @Query("select p.version from Proceso p where p.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    @Query("select a.id from Proceso p join p.activities a where p.id = :id")
+    List<Long> findActivityIdsByProcesoId(@Param("id") Long id);
+
+    // Posiciones para la grilla de ActivityViewportIndex
+    record PositionRow(Long activityId, Integer x, Integer y) {}
+
+    @Query("select a.id as activityId, a.x as x, a.y as y from Proceso p join p.activities a where p.id = :id")
+    List<PositionRow> findActivityPositionsByProcesoId(@Param("id") Long id);
+
+    @Query("select a.id as archId, a.actividadI.id as fromId, a.actividadD.id as toId " +
+            "from Proceso p join p.archs a where p.id = :id")
+    List<ArchEdgeRow> findArchEdgesByProcesoId(@Param("id") Long id);
+
+    @Query("select g.id as gatewayId, g.type as type, ga.id as archId " +
+            "from Proceso p join p.gateways g left join g.archs ga where p.id = :id")
+    List<GatewayArchRow> findGatewayArchesByProcesoId(@Param("id") Long id);
+
+    @Query("select g.id as gatewayId, g.version as version, g.conditionsJson as conditionsJson " +
+            "from Proceso p join p.gateways g where p.id = :id and g.conditionsJson is not null")
+    List<GatewayConditionsRow> findGatewayConditionsByProcesoId(@Param("id") Long id);
+
+    @Query("select p.id as procesoId, a.id as childId from Proceso p join p.activities a where a.id in :ids")
+    List<ChildIdRow> findProcesoIdsByActivityIds(@Param("ids") Collection<Long> ids);
+
+    // Carga inicial del índice de búsqueda (ver SearchIndexer), por keyset
+    record SearchRow(Long id, String name, String description, String category) {}
+
+    @Query("select p.id as id, p.name as name, p.description as description, p.category as category " +
+            "from Proceso p where p.id > :after order by p.id")
+    List<SearchRow> findSearchRowsAfter(@Param("after") long after, Limit limit);
+
+    @Query("select distinct p.id from Proceso p join p.activities a where a.id in " +
+            "(select l.actividad.id from ActivityRoleLink l where l.role.id = :roleId) order by p.id")
+    List<Long> findIdsUsingRole(@Param("roleId") Long roleId);
+}
@@ -1,12 +1,34 @@
 package com.example.proyectoweb.Repo;
 
 import com.example.proyectoweb.Modelo.ProcessHistory;
+import com.example.proyectoweb.common.ProcessStatus;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
 import java.util.List;
 
 @Repository
 public interface RepoProcessHistory extends JpaRepository<ProcessHistory, Long> {
-    List<ProcessHistory> findAllByProceso_IdOrderByCreatedAtDesc(Long procesoId);
-}
\ No newline at end of file
+    long countByProceso_Id(Long procesoId);
+
+    // Fila de historial sin la entidad ni el proxy de Proceso
+    record HistoryRow(Long id, Long procesoId, String changedBy, ProcessStatus status,
+                      String descriptionSnapshot, Instant createdAt) {}
+
+    // Keyset sobre (created_at, id) descendente, el orden de idx_ph_proceso_created: cada página es un
+    // rango del índice a partir del cursor. Los límites ausentes se pasan como instantes extremos.
+    @Query("select h.id as id, h.proceso.id as procesoId, h.changedBy as changedBy, h.status as status, " +
+            "h.descriptionSnapshot as descriptionSnapshot, h.createdAt as createdAt " +
+            "from ProcessHistory h where h.proceso.id = :procesoId " +
+            "and h.createdAt >= :from and h.createdAt < :to " +
+            "and (h.createdAt < :beforeAt or (h.createdAt = :beforeAt and h.id < :beforeId)) " +
+            "order by h.createdAt desc, h.id desc")
+    List<HistoryRow> findPage(@Param("procesoId") Long procesoId,
+                              @Param("from") Instant from, @Param("to") Instant to,
+                              @Param("beforeAt") Instant beforeAt, @Param("beforeId") Long beforeId,
+                              Limit limit);
+}
@@ -0,0 +1,40 @@
+package com.example.proyectoweb.Repo;
+
+import com.example.proyectoweb.Modelo.ProcessRevision;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+// Todas las consultas son rangos de uk_revision_proceso_rev (proceso_id, revision)
+@Repository
+public interface RepoProcessRevision extends JpaRepository<ProcessRevision, Long> {
+
+    record PayloadRow(Integer revision, byte[] payload) {}
+    record InfoRow(Integer revision, boolean checkpoint, String changedBy, Instant createdAt) {}
+
+    @Query("select max(r.revision) from ProcessRevision r where r.procesoId = :id")
+    Optional<Integer> findHeadRevision(@Param("id") Long procesoId);
+
+    @Query("select max(r.revision) from ProcessRevision r " +
+            "where r.procesoId = :id and r.checkpoint = true and r.revision <= :rev")
+    Optional<Integer> findCheckpointAtOrBefore(@Param("id") Long procesoId, @Param("rev") int revision);
+
+    @Query("select r.revision as revision, r.payload as payload from ProcessRevision r " +
+            "where r.procesoId = :id and r.revision between :from and :to order by r.revision")
+    List<PayloadRow> findPayloads(@Param("id") Long procesoId, @Param("from") int from, @Param("to") int to);
+
+    @Query("select r.revision as revision, r.checkpoint as checkpoint, r.changedBy as changedBy, r.createdAt as createdAt " +
+            "from ProcessRevision r where r.procesoId = :id and r.revision < :before order by r.revision desc")
+    List<InfoRow> findInfoPage(@Param("id") Long procesoId, @Param("before") int before, Limit limit);
+
+    @Modifying
+    @Query("delete from ProcessRevision r where r.procesoId = :id")
+    int deleteByProcesoId(@Param("id") Long procesoId);
+}
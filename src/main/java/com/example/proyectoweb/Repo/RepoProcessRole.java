@@ -1,12 +1,19 @@
 package com.example.proyectoweb.Repo;
+import com.example.proyectoweb.Config.SecondLevelCacheConfig;
 import com.example.proyectoweb.Modelo.ProcessRole;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 
 @Repository
 public interface RepoProcessRole extends JpaRepository<ProcessRole, Long> {
+    // Resultado en el caché de consultas; se descarta solo cuando cambia la tabla ProcessRole
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = SecondLevelCacheConfig.ROLES_BY_ORGANIZATION)})
     List<ProcessRole> findAllByOrganization_Id(Long orgId);
     boolean existsByIdAndOrganization_Id(Long id, Long orgId);
 }
\ No newline at end of file
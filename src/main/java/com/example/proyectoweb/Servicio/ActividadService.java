@@ -1,60 +1,184 @@
 package com.example.proyectoweb.Servicio;
 
 import com.example.proyectoweb.Dto.ActivityDto;
+import com.example.proyectoweb.Dto.ActivityPositionDto;
+import com.example.proyectoweb.Mapper.ActividadMapper;
 import com.example.proyectoweb.Modelo.Actividad;
 import com.example.proyectoweb.Modelo.Arch;
 import com.example.proyectoweb.Repo.RepoActividad;
 import com.example.proyectoweb.Repo.RepoArch;
+import com.example.proyectoweb.common.EntityStreams;
+import com.example.proyectoweb.common.IdResolver;
+import com.example.proyectoweb.common.Versioned;
+import com.example.proyectoweb.graph.ProcessGraphCache;
+import com.example.proyectoweb.positions.ActivityPositionWriter;
+import com.example.proyectoweb.search.SearchIndexer;
+import com.example.proyectoweb.spatial.ActivityViewportIndex;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import java.util.*;
+import java.util.function.Consumer;
+
+import static com.example.proyectoweb.common.DomainExceptions.BadRequest;
 
 @Service
 @RequiredArgsConstructor
 public class ActividadService {
 
+    // Igual a hibernate.jdbc.batch_size y al allocationSize de activity_seq
+    private static final int BATCH_SIZE = 50;
+    private static final int MAX_BULK = 10_000;
+
     private final RepoActividad repo;
     private final RepoArch repoArch;
-    private final ModelMapper mapper;
+    private final ActividadMapper mapper;
+    private final ProcessGraphCache graphCache;
+    private final ActivityPositionWriter positions;
+    private final ActivityViewportIndex viewport;
+    private final SearchIndexer search;
+    // Las escrituras abren su transacción después de escribir los movimientos pendientes (ver ActivityPositionWriter)
+    private final TransactionTemplate tx;
+
+    @PersistenceContext
+    private EntityManager em;
 
     @Transactional
     public ActivityDto crear(ActivityDto dto) {
-        Actividad entity = mapper.map(dto, Actividad.class);
+        Actividad entity = mapper.toEntity(dto);
         entity.setId(null);
-        return mapper.map(repo.save(entity), ActivityDto.class);
+        Actividad saved = repo.save(entity);
+        search.actividad(saved);
+        return mapper.toDto(saved);
+    }
+
+    // Crea todas las actividades en una sola transacción. Los IDs salen de la secuencia pooled
+    // al hacer persist, y cada BATCH_SIZE filas se hace flush (un INSERT por lotes) y clear.
+    @Transactional
+    public List<Long> crearLote(List<ActivityDto> dtos) {
+        validarLote(dtos);
+        List<Long> ids = new ArrayList<>(dtos.size());
+        for (int i = 0; i < dtos.size(); i++) {
+            Actividad e = mapper.toEntity(dtos.get(i));
+            e.setId(null);
+            em.persist(e);
+            search.actividad(e);
+            ids.add(e.getId());
+            if ((i + 1) % BATCH_SIZE == 0) {
+                em.flush();
+                em.clear();
+            }
+        }
+        return ids;
+    }
+
+    // Carga las existentes con un SELECT ... IN por bloque y deja que el flush agrupe los UPDATE
+    public List<Long> actualizarLote(List<ActivityDto> dtos) {
+        validarLote(dtos);
+        List<Long> ids = new ArrayList<>(dtos.size());
+        for (ActivityDto dto : dtos) {
+            if (dto.getId() == null) throw new BadRequest("Cada actividad del lote requiere id");
+            ids.add(dto.getId());
+        }
+        positions.flush(ids);
+        return tx.execute(status -> {
+            List<Actividad> existentes = IdResolver.resolveAll(repo, ids, Actividad::getId, "Actividad");
+            for (int i = 0; i < dtos.size(); i++) {
+                ActivityDto dto = dtos.get(i);
+                Actividad e = existentes.get(i);
+                e.setName(dto.getName());
+                e.setType(dto.getType());
+                e.setDescription(dto.getDescription());
+                search.actividad(e);
+            }
+            return ids;
+        });
+    }
+
+    // Solo encola: ActivityPositionWriter junta los movimientos repetidos y los escribe por lotes
+    public int moverLote(List<ActivityPositionDto> moves) {
+        if (moves == null || moves.isEmpty()) throw new BadRequest("El lote está vacío");
+        if (moves.size() > MAX_BULK) throw new BadRequest("El lote supera " + MAX_BULK + " actividades");
+        for (ActivityPositionDto m : moves)
+            if (m.getId() == null || m.getX() == null || m.getY() == null)
+                throw new BadRequest("Cada posición requiere id, x e y");
+        for (ActivityPositionDto m : moves) positions.record(m.getId(), m.getX(), m.getY());
+        return moves.size();
     }
 
     @Transactional(readOnly = true)
     public Optional<ActivityDto> obtener(Long id) {
-        return repo.findById(id).map(e -> mapper.map(e, ActivityDto.class));
+        return obtenerVersionado(id).map(Versioned::body);
+    }
+
+    // Los movimientos sin escribir ya cuentan: posición pendiente y un paso de versión por movimiento,
+    // lo mismo que deja en la base el UPDATE de ActivityPositionWriter
+    @Transactional(readOnly = true)
+    public Optional<Versioned<ActivityDto>> obtenerVersionado(Long id) {
+        return positions.read(id, p -> repo.findById(id).map(e -> {
+            em.detach(e);
+            return new Versioned<>(conPendiente(mapper.toDto(e), p), e.getVersion() + (p!=null? p.moves() : 0));
+        }));
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<Long> version(Long id) {
+        return positions.read(id, p -> repo.findVersionById(id).map(v -> v + (p!=null? p.moves() : 0)));
     }
 
     @Transactional(readOnly = true)
     public List<ActivityDto> listar() {
         List<ActivityDto> out = new ArrayList<>();
-        for (Actividad e : repo.findAll()) out.add(mapper.map(e, ActivityDto.class));
+        for (Actividad e : repo.findAll()) out.add(conPendiente(mapper.toDto(e), positions.pending(e.getId())));
         return out;
     }
 
-    @Transactional
+    // Recorre la tabla con un cursor y entrega cada DTO al sink apenas se mapea (ver EntityStreams)
+    @Transactional(readOnly = true)
+    public void exportar(Consumer<ActivityDto> sink) {
+        EntityStreams.export(repo.streamAll(), e -> conPendiente(mapper.toDto(e), positions.pending(e.getId())), sink, em);
+    }
+
     public Optional<ActivityDto> actualizar(Long id, ActivityDto dto) {
-        return repo.findById(id).map(existing -> {
+        positions.flush(List.of(id));
+        return tx.execute(status -> repo.findById(id).map(existing -> {
             existing.setName(dto.getName());
             existing.setType(dto.getType());
             existing.setDescription(dto.getDescription());
-            return mapper.map(repo.save(existing), ActivityDto.class);
-        });
+            if (dto.getX() != null) existing.setX(dto.getX());
+            if (dto.getY() != null) existing.setY(dto.getY());
+            if (dto.getX() != null || dto.getY() != null) viewport.invalidateActivity(id);
+            search.actividad(existing);
+            return mapper.toDto(repo.save(existing));
+        }));
     }
 
-    @Transactional
     public boolean eliminar(Long id) {
-        return repo.findById(id).map(act -> {
+        positions.flush(List.of(id));
+        return tx.execute(status -> repo.findById(id).map(act -> {
             List<Arch> relacionados = repoArch.findAllByActividadI_IdOrActividadD_Id(id, id);
             repoArch.deleteAll(relacionados);
             repo.delete(act);
+            graphCache.invalidateAll();
+            viewport.invalidateActivity(id);
+            search.actividadEliminada(id);
             return true;
-        }).orElse(false);
+        }).orElse(false));
+    }
+
+    private static ActivityDto conPendiente(ActivityDto dto, ActivityPositionWriter.Pending p) {
+        if (p!=null) {
+            dto.setX(p.x());
+            dto.setY(p.y());
+        }
+        return dto;
+    }
+
+    private static void validarLote(List<ActivityDto> dtos) {
+        if (dtos == null || dtos.isEmpty()) throw new BadRequest("El lote está vacío");
+        if (dtos.size() > MAX_BULK) throw new BadRequest("El lote supera " + MAX_BULK + " actividades");
     }
 }
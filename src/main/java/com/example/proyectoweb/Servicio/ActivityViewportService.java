@@ -0,0 +1,88 @@
+package com.example.proyectoweb.Servicio;
+
+import com.example.proyectoweb.Dto.ActivityDto;
+import com.example.proyectoweb.Mapper.ActividadMapper;
+import com.example.proyectoweb.Modelo.Actividad;
+import com.example.proyectoweb.Repo.RepoActividad;
+import com.example.proyectoweb.Repo.RepoProceso;
+import com.example.proyectoweb.positions.ActivityPositionWriter;
+import com.example.proyectoweb.spatial.ActivityViewportIndex;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+
+import static com.example.proyectoweb.common.DomainExceptions.*;
+
+/**
+ * Actividades de un proceso dentro de un rectángulo del lienzo. Los IDs salen de la grilla en memoria
+ * (ver ActivityViewportIndex) y solo esas actividades se leen de la base.
+ */
+@Service
+@RequiredArgsConstructor
+public class ActivityViewportService {
+
+    private static final int ID_BATCH_SIZE = 1000;
+
+    private final RepoProceso repo;
+    private final RepoActividad repoActividad;
+    private final ActividadMapper mapper;
+    private final ActivityPositionWriter positions;
+    private final ActivityViewportIndex index;
+
+    // Límite ausente = sin límite por ese lado. Se compara la esquina (x, y) de cada figura: el cliente
+    // agranda el rectángulo con el tamaño de figura para traer también las que asoman por arriba o la izquierda.
+    @Transactional(readOnly = true)
+    public List<ActivityDto> enVista(Long procesoId, Integer minX, Integer minY, Integer maxX, Integer maxY) {
+        int x0 = minX!=null? minX : Integer.MIN_VALUE, y0 = minY!=null? minY : Integer.MIN_VALUE;
+        int x1 = maxX!=null? maxX : Integer.MAX_VALUE, y1 = maxY!=null? maxY : Integer.MAX_VALUE;
+        if (x0 > x1 || y0 > y1) throw new BadRequest("El rectángulo requiere minX <= maxX y minY <= maxY");
+        if (!repo.existsById(procesoId)) throw new NotFound("Proceso no encontrado");
+
+        long[] ids = index.query(procesoId, x0, y0, x1, y1, () -> cargar(procesoId));
+        List<ActivityDto> out = new ArrayList<>(ids.length);
+        for (int from = 0; from < ids.length; from += ID_BATCH_SIZE) {
+            List<Long> chunk = new ArrayList<>(Math.min(ID_BATCH_SIZE, ids.length - from));
+            for (int i = from; i < Math.min(from + ID_BATCH_SIZE, ids.length); i++) chunk.add(ids[i]);
+            Map<Long, Actividad> found = new HashMap<>(chunk.size() * 2);
+            for (Actividad a : repoActividad.findAllById(chunk)) found.put(a.getId(), a);
+            // Una actividad borrada después de armar la grilla simplemente no sale
+            for (Long id : chunk) {
+                Actividad a = found.get(id);
+                if (a != null) out.add(conPendiente(mapper.toDto(a)));
+            }
+        }
+        return out;
+    }
+
+    /** Descarta la grilla del proceso al confirmar; para cambios en qué actividades tiene. */
+    public void invalidar(Long procesoId) {
+        index.invalidate(procesoId);
+    }
+
+    private ActivityDto conPendiente(ActivityDto dto) {
+        ActivityPositionWriter.Pending p = positions.pending(dto.getId());
+        if (p!=null) {
+            dto.setX(p.x());
+            dto.setY(p.y());
+        }
+        return dto;
+    }
+
+    // Sin coordenadas cuenta como (0, 0), que es donde el modelador dibuja la figura
+    private ActivityViewportIndex.Positions cargar(Long procesoId) {
+        List<RepoProceso.PositionRow> rows = repo.findActivityPositionsByProcesoId(procesoId);
+        long[] ids = new long[rows.size()];
+        int[] xs = new int[rows.size()], ys = new int[rows.size()];
+        for (int i = 0; i < rows.size(); i++) {
+            RepoProceso.PositionRow r = rows.get(i);
+            ids[i] = r.activityId();
+            // Los movimientos sin escribir ya cuentan (ver ActivityPositionWriter)
+            ActivityPositionWriter.Pending p = positions.pending(r.activityId());
+            xs[i] = p!=null? p.x() : r.x()!=null? r.x() : 0;
+            ys[i] = p!=null? p.y() : r.y()!=null? r.y() : 0;
+        }
+        return new ActivityViewportIndex.Positions(ids, xs, ys);
+    }
+}
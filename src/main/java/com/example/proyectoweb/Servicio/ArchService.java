@@ -1,14 +1,21 @@
 package com.example.proyectoweb.Servicio;
 
 import com.example.proyectoweb.Dto.ArchDto;
+import com.example.proyectoweb.Mapper.ArchMapper;
 import com.example.proyectoweb.Modelo.Actividad;
 import com.example.proyectoweb.Modelo.Arch;
 import com.example.proyectoweb.Repo.RepoActividad;
 import com.example.proyectoweb.Repo.RepoArch;
+import com.example.proyectoweb.common.EntityStreams;
+import com.example.proyectoweb.common.Versioned;
+import com.example.proyectoweb.graph.ProcessGraphCache;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.util.*;
+import java.util.function.Consumer;
 
 import static com.example.proyectoweb.common.DomainExceptions.*;
 
@@ -18,6 +25,11 @@ public class ArchService {
 
     private final RepoArch repo;
     private final RepoActividad repoActividad;
+    private final ArchMapper mapper;
+    private final ProcessGraphCache graphCache;
+
+    @PersistenceContext
+    private EntityManager em;
 
     @Transactional
     public ArchDto crear(ArchDto dto) {
@@ -30,23 +42,36 @@ public class ArchService {
                 .orElseThrow(() -> new NotFound("Actividad destino no existe"));
 
         Arch saved = repo.save(new Arch(null, ai, ad));
-        return new ArchDto(saved.getId(), ai.getId(), ad.getId());
+        return mapper.toDto(saved);
     }
 
     @Transactional(readOnly = true)
     public Optional<ArchDto> obtener(Long id) {
-        return repo.findById(id).map(e -> new ArchDto(e.getId(),
-                e.getActividadI().getId(), e.getActividadD().getId()));
+        return repo.findById(id).map(mapper::toDto);
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<Versioned<ArchDto>> obtenerVersionado(Long id) {
+        return repo.findById(id).map(e -> new Versioned<>(mapper.toDto(e), e.getVersion()));
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<Long> version(Long id) {
+        return repo.findVersionById(id);
     }
 
     @Transactional(readOnly = true)
     public List<ArchDto> listar() {
         List<ArchDto> out = new ArrayList<>();
-        for (Arch e : repo.findAll())
-            out.add(new ArchDto(e.getId(), e.getActividadI().getId(), e.getActividadD().getId()));
+        for (Arch e : repo.findAll()) out.add(mapper.toDto(e));
         return out;
     }
 
+    @Transactional(readOnly = true)
+    public void exportar(Consumer<ArchDto> sink) {
+        EntityStreams.export(repo.streamAll(), mapper::toDto, sink, em);
+    }
+
     @Transactional
     public Optional<ArchDto> actualizar(Long id, ArchDto dto) {
         return repo.findById(id).map(existing -> {
@@ -63,7 +88,8 @@ public class ArchService {
             if (Objects.equals(existing.getActividadI().getId(), existing.getActividadD().getId()))
                 throw new BadRequest("Origen y destino no pueden ser iguales");
             Arch saved = repo.save(existing);
-            return new ArchDto(saved.getId(), saved.getActividadI().getId(), saved.getActividadD().getId());
+            graphCache.invalidateAll();
+            return mapper.toDto(saved);
         });
     }
 
@@ -71,6 +97,7 @@ public class ArchService {
     public boolean eliminar(Long id) {
         if (!repo.existsById(id)) return false;
         repo.deleteById(id);
+        graphCache.invalidateAll();
         return true;
     }
 }
@@ -1,17 +1,25 @@
 package com.example.proyectoweb.Servicio;
 
 import com.example.proyectoweb.Dto.GatewayDto;
+import com.example.proyectoweb.Mapper.GatewayMapper;
 import com.example.proyectoweb.Modelo.Arch;
 import com.example.proyectoweb.Modelo.Gateway;
 import com.example.proyectoweb.Repo.RepoArch;
 import com.example.proyectoweb.Repo.RepoGateway;
+import com.example.proyectoweb.common.IdResolver;
+import com.example.proyectoweb.common.Versioned;
+import com.example.proyectoweb.condition.ConditionCache;
+import com.example.proyectoweb.condition.GatewayConditions;
+import com.example.proyectoweb.graph.ProcessGraphCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
-import static com.example.proyectoweb.common.DomainExceptions.*;
+import static com.example.proyectoweb.common.DomainExceptions.BadRequest;
 
 @Service
 @RequiredArgsConstructor
@@ -19,6 +27,9 @@ public class GatewayService {
 
     private final RepoGateway repo;
     private final RepoArch repoArch;
+    private final GatewayMapper mapper;
+    private final ProcessGraphCache graphCache;
+    private final ConditionCache conditionCache;
 
     @Transactional
     public GatewayDto crear(GatewayDto dto) {
@@ -27,17 +38,46 @@ public class GatewayService {
         e.setConditionsJson(dto.getConditionsJson());
         if (dto.getArchIds()!=null && !dto.getArchIds().isEmpty())
             e.setArchs(resolveArchList(dto.getArchIds()));
-        return toDto(repo.save(e));
+        validarCondiciones(e);
+        return mapper.toDto(repo.save(e));
     }
 
     @Transactional(readOnly = true)
     public Optional<GatewayDto> obtener(Long id) {
-        return repo.findById(id).map(this::toDto);
+        return repo.findById(id).map(mapper::toDto);
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<Versioned<GatewayDto>> obtenerVersionado(Long id) {
+        return repo.findById(id).map(e -> new Versioned<>(mapper.toDto(e), e.getVersion()));
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<Long> version(Long id) {
+        return repo.findVersionById(id);
     }
 
     @Transactional(readOnly = true)
     public List<GatewayDto> listar() {
-        return repo.findAll().stream().map(this::toDto).collect(Collectors.toList());
+        return repo.findAll().stream().map(mapper::toDto).collect(Collectors.toList());
+    }
+
+    // Lee (gateway, arch) como proyección ordenada por gateway y agrupa filas consecutivas:
+    // sin entidades en el contexto ni un SELECT extra por colección de arcos
+    @Transactional(readOnly = true)
+    public void exportar(Consumer<GatewayDto> sink) {
+        try (Stream<RepoGateway.ArchRow> rows = repo.streamWithArchIds()) {
+            GatewayDto actual = null;
+            for (Iterator<RepoGateway.ArchRow> it = rows.iterator(); it.hasNext(); ) {
+                RepoGateway.ArchRow r = it.next();
+                if (actual == null || !actual.getId().equals(r.gatewayId())) {
+                    if (actual != null) sink.accept(actual);
+                    actual = new GatewayDto(r.gatewayId(), r.type(), new ArrayList<>(), r.conditionsJson());
+                }
+                if (r.archId() != null) actual.getArchIds().add(r.archId());
+            }
+            if (actual != null) sink.accept(actual);
+        }
     }
 
     @Transactional
@@ -46,7 +86,10 @@ public class GatewayService {
             if (dto.getType()!=null) existing.setType(dto.getType());
             if (dto.getConditionsJson()!=null) existing.setConditionsJson(dto.getConditionsJson());
             if (dto.getArchIds()!=null) existing.setArchs(resolveArchList(dto.getArchIds()));
-            return toDto(repo.save(existing));
+            validarCondiciones(existing);
+            graphCache.invalidateAll();
+            conditionCache.invalidate(id);
+            return mapper.toDto(repo.save(existing));
         });
     }
 
@@ -54,22 +97,22 @@ public class GatewayService {
     public boolean eliminar(Long id) {
         if (!repo.existsById(id)) return false;
         repo.deleteById(id);
+        graphCache.invalidateAll();
+        conditionCache.invalidate(id);
         return true;
     }
 
-    private GatewayDto toDto(Gateway e) {
-        List<Long> archIds = (e.getArchs()==null)? List.of()
-                : e.getArchs().stream().map(Arch::getId).collect(Collectors.toList());
-        return new GatewayDto(e.getId(), e.getType(), archIds, e.getConditionsJson());
+    // Se compilan al guardar para rechazar una condición mal escrita antes de que llegue a una simulación.
+    // También la usa ProcessDiagramService al guardar el diagrama completo.
+    static void validarCondiciones(Gateway g) {
+        if (g.getConditionsJson()==null || g.getConditionsJson().isBlank()) return;
+        GatewayConditions c = GatewayConditions.check(g.getId()!=null? g.getId() : 0L, g.getConditionsJson());
+        Set<Long> propios = g.getArchs().stream().map(Arch::getId).collect(Collectors.toSet());
+        for (Long archId : c.referencedArchIds())
+            if (!propios.contains(archId)) throw new BadRequest("La condición nombra el arco " + archId + " que no es del gateway");
     }
 
     private List<Arch> resolveArchList(List<Long> ids) {
-        if (ids==null || ids.isEmpty()) return new ArrayList<>();
-        List<Arch> list = new ArrayList<>(ids.size());
-        for (Long id : ids) {
-            Arch arch = repoArch.findById(id).orElseThrow(() -> new NotFound("No existe Arch id="+id));
-            list.add(arch);
-        }
-        return list;
+        return IdResolver.resolveAll(repoArch, ids, Arch::getId, "Arch");
     }
 }
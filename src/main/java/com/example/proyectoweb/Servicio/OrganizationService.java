@@ -1,10 +1,10 @@
 package com.example.proyectoweb.Servicio;
 
 import com.example.proyectoweb.Dto.OrganizationDto;
+import com.example.proyectoweb.Mapper.OrganizationMapper;
 import com.example.proyectoweb.Modelo.Organization;
 import com.example.proyectoweb.Repo.RepoOrganization;
 import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.util.*;
@@ -14,25 +14,25 @@ import java.util.*;
 public class OrganizationService {
 
     private final RepoOrganization repo;
-    private final ModelMapper mapper;
+    private final OrganizationMapper mapper;
 
     @Transactional
     public OrganizationDto crear(OrganizationDto dto) {
-        Organization e = mapper.map(dto, Organization.class);
+        Organization e = mapper.toEntity(dto);
         e.setId(null);
         e = repo.save(e);
-        return mapper.map(e, OrganizationDto.class);
+        return mapper.toDto(e);
     }
 
     @Transactional(readOnly = true)
     public Optional<OrganizationDto> obtener(Long id) {
-        return repo.findById(id).map(e -> mapper.map(e, OrganizationDto.class));
+        return repo.findById(id).map(mapper::toDto);
     }
 
     @Transactional(readOnly = true)
     public List<OrganizationDto> listar() {
         List<OrganizationDto> out = new ArrayList<>();
-        for (Organization e : repo.findAll()) out.add(mapper.map(e, OrganizationDto.class));
+        for (Organization e : repo.findAll()) out.add(mapper.toDto(e));
         return out;
     }
 
@@ -42,7 +42,7 @@ public class OrganizationService {
             existing.setName(dto.getName());
             existing.setNit(dto.getNit());
             existing.setEmail(dto.getEmail());
-            return mapper.map(repo.save(existing), OrganizationDto.class);
+            return mapper.toDto(repo.save(existing));
         });
     }
 
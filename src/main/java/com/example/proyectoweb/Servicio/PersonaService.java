@@ -3,19 +3,24 @@ package com.example.proyectoweb.Servicio;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
-import org.modelmapper.ModelMapper;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.example.proyectoweb.Dto.PersonaDto;
+import com.example.proyectoweb.Mapper.PersonaMapper;
 import com.example.proyectoweb.Modelo.Organization;
 import com.example.proyectoweb.Modelo.Persona;
 import com.example.proyectoweb.Repo.RepoOrganization;
 import com.example.proyectoweb.Repo.RepoPersona;
 import com.example.proyectoweb.common.DomainExceptions.NotFound;
+import com.example.proyectoweb.common.EntityStreams;
+import com.example.proyectoweb.security.PrincipalCache;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import lombok.RequiredArgsConstructor;
 
 @Service
@@ -24,12 +29,16 @@ public class PersonaService {
 
     private final RepoPersona repo;
     private final RepoOrganization repoOrg;
-    private final ModelMapper mapper;
+    private final PersonaMapper mapper;
     private final PasswordEncoder passwordEncoder;
+    private final PrincipalCache principalCache;
+
+    @PersistenceContext
+    private EntityManager em;
 
     @Transactional
     public PersonaDto crear(PersonaDto dto) {
-        Persona e = mapper.map(dto, Persona.class);
+        Persona e = mapper.toEntity(dto);
         e.setId(null);
 
         // 🔐 Hashear contraseña (si es obligatorio podrías validar que no venga null/blank)
@@ -44,24 +53,33 @@ public class PersonaService {
         }
 
         e = repo.save(e);
-        return toDto(e);
+        return mapper.toDto(e);
     }
 
     @Transactional(readOnly = true)
     public Optional<PersonaDto> obtener(Long id) {
-        return repo.findById(id).map(this::toDto);
+        return repo.findById(id).map(mapper::toDto);
     }
 
     @Transactional(readOnly = true)
     public List<PersonaDto> listar() {
         List<PersonaDto> out = new ArrayList<>();
-        for (Persona e : repo.findAll()) out.add(toDto(e));
+        for (Persona e : repo.findAll()) out.add(mapper.toDto(e));
         return out;
     }
 
+    @Transactional(readOnly = true)
+    public void exportar(Consumer<PersonaDto> sink) {
+        EntityStreams.export(repo.streamAll(), mapper::toDto, sink, em);
+    }
+
     @Transactional
     public Optional<PersonaDto> actualizar(Long id, PersonaDto dto) {
         return repo.findById(id).map(existing -> {
+            // El principal cacheado queda obsoleto tanto con el email anterior como con el nuevo (se
+            // descarta al confirmar, ver PrincipalCache)
+            principalCache.invalidate(existing.getEmail());
+            principalCache.invalidate(dto.getEmail());
 
             existing.setName(dto.getName());
             existing.setEmail(dto.getEmail());
@@ -77,29 +95,21 @@ public class PersonaService {
                 existing.setOrganization(org);
             }
 
-            return toDto(repo.save(existing));
+            return mapper.toDto(repo.save(existing));
         });
     }
 
     @Transactional
     public boolean eliminar(Long id) {
-        if (!repo.existsById(id)) return false;
-        repo.deleteById(id);
-        return true;
+        return repo.findById(id).map(p -> {
+            principalCache.invalidate(p.getEmail());
+            repo.delete(p);
+            return true;
+        }).orElse(false);
     }
 
     @Transactional(readOnly = true)
     public Optional<PersonaDto> obtenerPorEmail(String email) {
-        return repo.findByEmailIgnoreCase(email).map(this::toDto);
-    }
-
-    private PersonaDto toDto(Persona e) {
-        PersonaDto dto = mapper.map(e, PersonaDto.class);
-        dto.setOrganizationId(
-                e.getOrganization() != null ? e.getOrganization().getId() : null
-        );
-        // Nunca expone el password (ni el hash) al front
-        dto.setPassword(null);
-        return dto;
+        return repo.findByEmailIgnoreCase(email).map(mapper::toDto);
     }
 }
\ No newline at end of file
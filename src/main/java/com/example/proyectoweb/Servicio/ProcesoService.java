@@ -1,12 +1,42 @@
 package com.example.proyectoweb.Servicio;
 
+import com.example.proyectoweb.Dto.ActivityDto;
 import com.example.proyectoweb.Dto.ProcesoDto;
+import com.example.proyectoweb.Dto.ProcesoPageDto;
+import com.example.proyectoweb.Dto.ProcessHistoryDto;
+import com.example.proyectoweb.Dto.ProcessHistoryPageDto;
+import com.example.proyectoweb.Dto.ProcessDiffDto;
+import com.example.proyectoweb.Dto.ProcessGraphDto;
+import com.example.proyectoweb.Dto.ProcessGraphSaveResultDto;
+import com.example.proyectoweb.Dto.ProcessRevisionPageDto;
+import com.example.proyectoweb.Dto.ProcessVersionDto;
+import com.example.proyectoweb.Dto.SimulationRequestDto;
+import com.example.proyectoweb.Dto.SimulationResultDto;
+import com.example.proyectoweb.Dto.ValidationResultDto;
+import com.example.proyectoweb.Mapper.ProcesoMapper;
 import com.example.proyectoweb.Modelo.*;
 import com.example.proyectoweb.Repo.*;
+import com.example.proyectoweb.common.IdResolver;
+import com.example.proyectoweb.common.Versioned;
 import com.example.proyectoweb.common.ProcessStatus;
+import com.example.proyectoweb.exception.ProcessValidationException;
+import com.example.proyectoweb.history.ProcessHistoryWriter;
+import com.example.proyectoweb.positions.ActivityPositionWriter;
+import com.example.proyectoweb.search.SearchIndexer;
+import com.example.proyectoweb.versioning.ProcessSnapshot;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -16,12 +46,34 @@ import static com.example.proyectoweb.common.DomainExceptions.*;
 @RequiredArgsConstructor
 public class ProcesoService {
 
+    // Tope de parámetros por IN (...) al cargar IDs hijos en lote
+    private static final int ID_BATCH_SIZE = 1000;
+
+    static final int DEFAULT_PAGE_SIZE = 50;
+    static final int MAX_PAGE_SIZE = 500;
+
+    // Límites del historial cuando no se pide rango (dentro de lo que admite un timestamp de PostgreSQL)
+    private static final Instant HISTORY_MIN = Instant.parse("0001-01-01T00:00:00Z");
+    private static final Instant HISTORY_MAX = Instant.parse("9999-12-31T23:59:59Z");
+
     private final RepoProceso repo;
     private final RepoOrganization repoOrg;
     private final RepoActividad repoActividad;
     private final RepoArch repoArch;
     private final RepoGateway repoGateway;
     private final RepoProcessHistory repoHistory;
+    private final ProcesoMapper mapper;
+    private final ProcessGraphService graphs;
+    private final ProcessHistoryWriter historyWriter;
+    private final ProcessVersionService versions;
+    private final ProcessDiagramService diagrams;
+    private final ActivityPositionWriter positions;
+    private final ActivityViewportService viewport;
+    private final SearchIndexer search;
+    private final TransactionTemplate tx;
+
+    @PersistenceContext
+    private EntityManager em;
 
     @Transactional
     public ProcesoDto crear(ProcesoDto dto, String actorEmail) {
@@ -43,26 +95,78 @@ public class ProcesoService {
         if (dto.getGatewayIds()!=null) p.setGateways(resolveGateways(dto.getGatewayIds()));
 
         p = repo.save(p);
+        if (p.getStatus()==ProcessStatus.PUBLISHED) exigirValido(p.getId());
+        search.proceso(p);
         addHistory(p, actorEmail, "Creación");
+        versions.registrar(p.getId(), ProcessSnapshot.EMPTY, ProcessSnapshot.of(p), actorEmail);
 
-        return toDto(p);
+        return mapper.toDto(p);
     }
 
     @Transactional(readOnly = true)
     public Optional<ProcesoDto> obtener(Long id) {
-        return repo.findById(id).map(this::toDto);
+        return repo.findById(id).map(mapper::toDto);
     }
 
     @Transactional(readOnly = true)
-    public List<ProcesoDto> listar(Long orgId, ProcessStatus status) {
-        List<Proceso> base = (orgId!=null)? repo.findAllByOrganization_Id(orgId) : repo.findAll();
-        if (status != null) base = base.stream().filter(p -> p.getStatus()==status).collect(Collectors.toList());
-        return base.stream().map(this::toDto).collect(Collectors.toList());
+    public Optional<Versioned<ProcesoDto>> obtenerVersionado(Long id) {
+        return repo.findById(id).map(e -> new Versioned<>(mapper.toDto(e), e.getVersion()));
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<Long> version(Long id) {
+        return repo.findVersionById(id);
+    }
+
+    // Paginación por keyset (id > cursor): el costo de cada página no depende de cuántas filas quedaron atrás
+    @Transactional(readOnly = true)
+    public ProcesoPageDto listar(Long orgId, ProcessStatus status, String category, String cursor, Integer size) {
+        int limit = (size==null || size<=0)? DEFAULT_PAGE_SIZE : Math.min(size, MAX_PAGE_SIZE);
+        Long afterId = decodeCursor(cursor);
+
+        List<Proceso> rows = repo.findBy(ProcesoSpecs.filtros(orgId, status, category, afterId),
+                q -> q.sortBy(Sort.by("id")).limit(limit + 1).all());
+
+        boolean hasMore = rows.size() > limit;
+        List<Proceso> page = hasMore? rows.subList(0, limit) : rows;
+        String next = hasMore? encodeCursor(page.get(page.size()-1).getId()) : null;
+        List<RepoProceso.IdVersionRow> marcas = new ArrayList<>(page.size());
+        for (Proceso p : page) marcas.add(new RepoProceso.IdVersionRow(p.getId(), p.getVersion()));
+        return new ProcesoPageDto(toDtos(page), next, marca(marcas, hasMore));
+    }
+
+    // Marca de la misma página que devolvería listar, leyendo solo (id, versión) con los mismos filtros
+    // y tope: el controlador la compara con If-None-Match antes de cargar entidades y colecciones
+    @Transactional(readOnly = true)
+    public String marca(Long orgId, ProcessStatus status, String category, String cursor, Integer size) {
+        int limit = (size==null || size<=0)? DEFAULT_PAGE_SIZE : Math.min(size, MAX_PAGE_SIZE);
+        Long afterId = decodeCursor(cursor);
+
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<RepoProceso.IdVersionRow> q = cb.createQuery(RepoProceso.IdVersionRow.class);
+        Root<Proceso> root = q.from(Proceso.class);
+        q.select(cb.construct(RepoProceso.IdVersionRow.class, root.get("id"), root.get("version")))
+                .where(ProcesoSpecs.filtros(orgId, status, category, afterId).toPredicate(root, q, cb))
+                .orderBy(cb.asc(root.get("id")));
+        List<RepoProceso.IdVersionRow> rows = em.createQuery(q).setMaxResults(limit + 1).getResultList();
+
+        boolean hasMore = rows.size() > limit;
+        return marca(hasMore? rows.subList(0, limit) : rows, hasMore);
+    }
+
+    // Un alta, baja o cambio que afecte la página cambia un ID, una versión (sube con cada cambio,
+    // también de colecciones) o si hay siguiente
+    private static String marca(List<RepoProceso.IdVersionRow> page, boolean hasMore) {
+        long h = hasMore? 1 : 0;
+        for (RepoProceso.IdVersionRow r : page) h = 31 * (31 * h + r.id()) + r.version();
+        return page.size() + "." + Long.toHexString(h);
     }
 
     @Transactional
     public Optional<ProcesoDto> actualizar(Long id, ProcesoDto dto, String actorEmail) {
         return repo.findById(id).map(existing -> {
+            boolean publicando = dto.getStatus()==ProcessStatus.PUBLISHED && existing.getStatus()!=ProcessStatus.PUBLISHED;
+            ProcessSnapshot before = ProcessSnapshot.of(existing);
             if (dto.getName()!=null) existing.setName(dto.getName());
             if (dto.getDescription()!=null) existing.setDescription(dto.getDescription());
             if (dto.getCategory()!=null) existing.setCategory(dto.getCategory());
@@ -77,76 +181,193 @@ public class ProcesoService {
             if (dto.getGatewayIds()!=null) existing.setGateways(resolveGateways(dto.getGatewayIds()));
 
             Proceso saved = repo.save(existing);
+            if (dto.getActivityIds()!=null) viewport.invalidar(saved.getId());
+            if (publicando) exigirValido(saved.getId());
+            search.proceso(saved);
             addHistory(saved, actorEmail, "Actualización");
-            return toDto(saved);
+            versions.registrar(saved.getId(), before, ProcessSnapshot.of(saved), actorEmail);
+            return mapper.toDto(saved);
         });
     }
 
+    // Guarda el diagrama completo en una transacción (ver ProcessDiagramService); un proceso publicado
+    // debe seguir siendo válido después del cambio
+    public ProcessGraphSaveResultDto guardarGrafo(Long id, ProcessGraphDto dto, String actorEmail) {
+        // Los movimientos pendientes son anteriores a este guardado: van primero, antes de abrir la
+        // transacción, para no pisarlo después
+        positions.flush();
+        return tx.execute(status -> aplicarGrafo(id, dto, actorEmail));
+    }
+
+    private ProcessGraphSaveResultDto aplicarGrafo(Long id, ProcessGraphDto dto, String actorEmail) {
+        Proceso p = repo.findById(id).orElseThrow(() -> new NotFound("Proceso no encontrado"));
+        if (dto.getVersion()!=null && !dto.getVersion().equals(p.getVersion()))
+            throw new Conflict("El proceso cambió: versión actual " + p.getVersion() + ", recibida " + dto.getVersion());
+        ProcessSnapshot before = ProcessSnapshot.of(p);
+        ProcessGraphSaveResultDto result = diagrams.aplicar(p, dto);
+        if (p.getStatus()==ProcessStatus.PUBLISHED) exigirValido(p.getId());
+        if (result.getInserted() + result.getUpdated() + result.getDeleted() > 0) addHistory(p, actorEmail, "Diagrama");
+        versions.registrar(p.getId(), before, ProcessSnapshot.of(p), actorEmail);
+        return result;
+    }
+
     @Transactional
     public boolean eliminar(Long id, boolean hardDelete, String actorEmail) {
         return repo.findById(id).map(p -> {
             if (!hardDelete && p.getStatus()==ProcessStatus.PUBLISHED) {
+                ProcessSnapshot before = ProcessSnapshot.of(p);
                 p.setStatus(ProcessStatus.INACTIVE);
                 repo.save(p);
                 addHistory(p, actorEmail, "Soft delete (INACTIVE)");
+                versions.registrar(p.getId(), before, ProcessSnapshot.of(p), actorEmail);
             } else {
+                versions.eliminar(p.getId());
                 repo.delete(p);
+                viewport.invalidar(p.getId());
+                search.procesoEliminado(p.getId());
             }
             return true;
         }).orElse(false);
     }
 
+    public List<ActivityDto> actividadesEnVista(Long id, Integer minX, Integer minY, Integer maxX, Integer maxY) {
+        return viewport.enVista(id, minX, minY, maxX, maxY);
+    }
+
     @Transactional(readOnly = true)
-    public List<ProcessHistory> historial(Long procesoId) {
-        return repoHistory.findAllByProceso_IdOrderByCreatedAtDesc(procesoId);
+    public ValidationResultDto validar(Long id) {
+        return graphs.validar(id);
+    }
+
+    public SimulationResultDto simular(Long id, SimulationRequestDto req) {
+        return graphs.simular(id, req);
+    }
+
+    @Transactional(readOnly = true)
+    public ProcessRevisionPageDto versiones(Long procesoId, String cursor, Integer size) {
+        int limit = (size==null || size<=0)? DEFAULT_PAGE_SIZE : Math.min(size, MAX_PAGE_SIZE);
+        return versions.listar(procesoId, cursor, limit);
+    }
+
+    @Transactional(readOnly = true)
+    public ProcessVersionDto version(Long procesoId, int revision) {
+        return versions.reconstruir(procesoId, revision);
+    }
+
+    @Transactional(readOnly = true)
+    public ProcessDiffDto diff(Long procesoId, int from, int to) {
+        return versions.diff(procesoId, from, to);
+    }
+
+    // Más reciente primero, por keyset sobre (createdAt, id); from inclusivo, to exclusivo. Sin
+    // transacción propia: el flush del historial pide su conexión y no debe esperar teniendo otra
+    public ProcessHistoryPageDto historial(Long procesoId, Instant from, Instant to, String cursor, Integer size) {
+        int limit = (size==null || size<=0)? DEFAULT_PAGE_SIZE : Math.min(size, MAX_PAGE_SIZE);
+        if (from!=null && to!=null && !from.isBefore(to)) throw new BadRequest("from debe ser anterior a to");
+        HistoryCursor after = decodeHistoryCursor(cursor);
+        historyWriter.flush();
+
+        List<RepoProcessHistory.HistoryRow> rows = repoHistory.findPage(procesoId,
+                from!=null? from : HISTORY_MIN, to!=null? to : HISTORY_MAX,
+                after!=null? after.createdAt() : HISTORY_MAX, after!=null? after.id() : Long.MAX_VALUE,
+                Limit.of(limit + 1));
+
+        boolean hasMore = rows.size() > limit;
+        List<RepoProcessHistory.HistoryRow> page = hasMore? rows.subList(0, limit) : rows;
+        List<ProcessHistoryDto> items = new ArrayList<>(page.size());
+        for (RepoProcessHistory.HistoryRow r : page)
+            items.add(new ProcessHistoryDto(r.id(), r.procesoId(), r.changedBy(), r.status(),
+                    r.descriptionSnapshot(), r.createdAt().toEpochMilli()));
+        RepoProcessHistory.HistoryRow last = hasMore? page.get(page.size()-1) : null;
+        return new ProcessHistoryPageDto(items, last!=null? encodeHistoryCursor(last.createdAt(), last.id()) : null);
     }
 
 
     private List<Actividad> resolveActivities(List<Long> ids){
-        if (ids==null) return new ArrayList<>();
-        List<Actividad> out = new ArrayList<>(ids.size());
-        for (Long id: ids) {
-            out.add(repoActividad.findById(id).orElseThrow(() -> new NotFound("Actividad no existe: "+id)));
-        }
-        return out;
+        return IdResolver.resolveAll(repoActividad, ids, Actividad::getId, "Actividad");
     }
     private List<Arch> resolveArches(List<Long> ids){
-        if (ids==null) return new ArrayList<>();
-        List<Arch> out = new ArrayList<>(ids.size());
-        for (Long id: ids) {
-            out.add(repoArch.findById(id).orElseThrow(() -> new NotFound("Arch no existe: "+id)));
-        }
-        return out;
+        return IdResolver.resolveAll(repoArch, ids, Arch::getId, "Arch");
     }
     private List<Gateway> resolveGateways(List<Long> ids){
-        if (ids==null) return new ArrayList<>();
-        List<Gateway> out = new ArrayList<>(ids.size());
-        for (Long id: ids) {
-            out.add(repoGateway.findById(id).orElseThrow(() -> new NotFound("Gateway no existe: "+id)));
+        return IdResolver.resolveAll(repoGateway, ids, Gateway::getId, "Gateway");
+    }
+
+    private static String encodeCursor(Long lastId) {
+        return encodeText(String.valueOf(lastId));
+    }
+
+    private static Long decodeCursor(String cursor) {
+        if (cursor==null || cursor.isBlank()) return null;
+        try {
+            return Long.valueOf(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequest("Cursor inválido");
         }
-        return out;
     }
 
+    // Cursor del historial: instante exacto (segundos.nanos) e id de la última fila entregada
+    private record HistoryCursor(Instant createdAt, Long id) {}
+
+    private static String encodeHistoryCursor(Instant at, Long id) {
+        return encodeText(at.getEpochSecond() + "." + at.getNano() + ":" + id);
+    }
+
+    private static HistoryCursor decodeHistoryCursor(String cursor) {
+        if (cursor==null || cursor.isBlank()) return null;
+        try {
+            String text = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int dot = text.indexOf('.'), colon = text.indexOf(':');
+            Instant at = Instant.ofEpochSecond(Long.parseLong(text.substring(0, dot)), Long.parseLong(text.substring(dot + 1, colon)));
+            return new HistoryCursor(at, Long.valueOf(text.substring(colon + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | java.time.DateTimeException e) {
+            throw new BadRequest("Cursor inválido");
+        }
+    }
+
+    private static String encodeText(String text) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Antes de pasar a PUBLISHED: flush para validar el grafo tal como quedaría publicado;
+    // si tiene errores la excepción revierte toda la transacción
+    private void exigirValido(Long id) {
+        repo.flush();
+        ValidationResultDto result = graphs.validarSinCache(id);
+        if (!result.isValid()) throw new ProcessValidationException(result);
+    }
+
+    // Se escribe después del commit, en lote y fuera de esta transacción (ver ProcessHistoryWriter)
     private void addHistory(Proceso p, String actorEmail, String reason) {
-        ProcessHistory h = new ProcessHistory();
-        h.setProceso(p);
-        h.setChangedBy(actorEmail!=null? actorEmail : reason);
-        h.setStatus(p.getStatus());
-        h.setDescriptionSnapshot(p.getDescription());
-        repoHistory.save(h);
-    }
-
-    private ProcesoDto toDto(Proceso p){
-        ProcesoDto dto = new ProcesoDto();
-        dto.setId(p.getId());
-        dto.setName(p.getName());
-        dto.setDescription(p.getDescription());
-        dto.setCategory(p.getCategory());
-        dto.setStatus(p.getStatus());
-        dto.setOrganizationId(p.getOrganization()!=null? p.getOrganization().getId(): null);
-        dto.setActivityIds(p.getActivities().stream().map(Actividad::getId).collect(Collectors.toList()));
-        dto.setArchIds(p.getArchs().stream().map(Arch::getId).collect(Collectors.toList()));
-        dto.setGatewayIds(p.getGateways().stream().map(Gateway::getId).collect(Collectors.toList()));
-        return dto;
+        historyWriter.record(new ProcessHistoryWriter.Event(p.getId(), actorEmail!=null? actorEmail : reason,
+                p.getStatus(), p.getDescription(), Instant.now()));
+    }
+
+    // Versión por lotes de ProcesoMapper.toDto: los IDs hijos salen de las tablas intermedias en 3 consultas
+    // por bloque de procesos, en lugar de inicializar 3 colecciones lazy por cada fila.
+    private List<ProcesoDto> toDtos(List<Proceso> procesos){
+        List<ProcesoDto> out = new ArrayList<>(procesos.size());
+        for (int from = 0; from < procesos.size(); from += ID_BATCH_SIZE) {
+            List<Proceso> chunk = procesos.subList(from, Math.min(from + ID_BATCH_SIZE, procesos.size()));
+            List<Long> ids = chunk.stream().map(Proceso::getId).collect(Collectors.toList());
+            Map<Long, List<Long>> activityIds = groupByProceso(repo.findActivityIdsByProcesoIds(ids));
+            Map<Long, List<Long>> archIds = groupByProceso(repo.findArchIdsByProcesoIds(ids));
+            Map<Long, List<Long>> gatewayIds = groupByProceso(repo.findGatewayIdsByProcesoIds(ids));
+            for (Proceso p : chunk) {
+                ProcesoDto dto = mapper.toHeaderDto(p);
+                dto.setActivityIds(activityIds.getOrDefault(p.getId(), new ArrayList<>()));
+                dto.setArchIds(archIds.getOrDefault(p.getId(), new ArrayList<>()));
+                dto.setGatewayIds(gatewayIds.getOrDefault(p.getId(), new ArrayList<>()));
+                out.add(dto);
+            }
+        }
+        return out;
+    }
+
+    private Map<Long, List<Long>> groupByProceso(List<RepoProceso.ChildIdRow> rows){
+        Map<Long, List<Long>> out = new HashMap<>();
+        for (RepoProceso.ChildIdRow r : rows)
+            out.computeIfAbsent(r.procesoId(), k -> new ArrayList<>()).add(r.childId());
+        return out;
     }
 }
@@ -0,0 +1,235 @@
+package com.example.proyectoweb.Servicio;
+
+import com.example.proyectoweb.Dto.ActivityDto;
+import com.example.proyectoweb.Dto.ArchDto;
+import com.example.proyectoweb.Dto.GatewayDto;
+import com.example.proyectoweb.Dto.ProcessGraphDto;
+import com.example.proyectoweb.Dto.ProcessGraphSaveResultDto;
+import com.example.proyectoweb.Modelo.Actividad;
+import com.example.proyectoweb.Modelo.Arch;
+import com.example.proyectoweb.Modelo.Gateway;
+import com.example.proyectoweb.Modelo.Proceso;
+import com.example.proyectoweb.Repo.RepoProceso;
+import com.example.proyectoweb.condition.ConditionCache;
+import com.example.proyectoweb.condition.GatewayConditions;
+import com.example.proyectoweb.graph.ProcessGraphCache;
+import com.example.proyectoweb.search.SearchIndexer;
+import com.example.proyectoweb.spatial.ActivityViewportIndex;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+import java.util.function.Function;
+
+import static com.example.proyectoweb.common.DomainExceptions.BadRequest;
+
+/**
+ * Lleva el diagrama guardado de un proceso al que manda el modelador: compara contra lo que hay y solo
+ * inserta, actualiza o borra lo que cambió. Todo queda en la transacción de ProcesoService.guardarGrafo
+ * y sale en un único flush, donde Hibernate agrupa los INSERT/UPDATE/DELETE en lotes JDBC
+ * (actividades, arcos y gateways usan secuencias pooled, así que los nuevos tienen ID sin ir a la base).
+ */
+@Service
+@RequiredArgsConstructor
+public class ProcessDiagramService {
+
+    private static final int MAX_ELEMENTS = 20_000;
+
+    private final RepoProceso repo;
+    private final ProcessGraphCache graphCache;
+    private final ConditionCache conditionCache;
+    private final ActivityViewportIndex viewport;
+    private final SearchIndexer search;
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public ProcessGraphSaveResultDto aplicar(Proceso p, ProcessGraphDto dto) {
+        List<ActivityDto> activities = orEmpty(dto.getActivities(), "actividades");
+        List<ArchDto> archs = orEmpty(dto.getArchs(), "arcos");
+        List<GatewayDto> gateways = orEmpty(dto.getGateways(), "gateways");
+        Long versionInicial = p.getVersion();
+        Counts n = new Counts();
+
+        // ---- actividades ----
+        Map<Long, Actividad> actuales = porId(p.getActivities(), Actividad::getId);
+        Map<Long, Actividad> actividades = new LinkedHashMap<>(activities.size() * 2);
+        Map<Long, Long> activityIds = new LinkedHashMap<>();
+        for (ActivityDto a : activities) {
+            Long id = requireId(a.getId(), "actividad");
+            if (actividades.containsKey(id)) throw new BadRequest("Actividad repetida en el diagrama: " + id);
+            Actividad e;
+            if (id > 0) {
+                e = existente(actuales, id, "La actividad");
+                if (n.update(!Objects.equals(e.getName(), a.getName()) || !Objects.equals(e.getType(), a.getType())
+                        || !Objects.equals(e.getDescription(), a.getDescription())
+                        || !Objects.equals(e.getX(), a.getX()) || !Objects.equals(e.getY(), a.getY()))) {
+                    e.setName(a.getName());
+                    e.setType(a.getType());
+                    e.setDescription(a.getDescription());
+                    e.setX(a.getX());
+                    e.setY(a.getY());
+                    search.actividad(e);
+                }
+            } else {
+                e = new Actividad(null, a.getName(), a.getType(), a.getDescription(), a.getX(), a.getY());
+                em.persist(e);
+                search.actividad(e);
+                activityIds.put(id, e.getId());
+                n.inserted++;
+            }
+            actividades.put(id, e);
+        }
+
+        // ---- arcos ----
+        Map<Long, Arch> arcosActuales = porId(p.getArchs(), Arch::getId);
+        Map<Long, Arch> arcos = new LinkedHashMap<>(archs.size() * 2);
+        Map<Long, Long> archIds = new LinkedHashMap<>();
+        for (ArchDto a : archs) {
+            Long id = requireId(a.getId(), "arco");
+            if (arcos.containsKey(id)) throw new BadRequest("Arco repetido en el diagrama: " + id);
+            Actividad ai = referencia(actividades, a.getActividadI(), "Actividad origen");
+            Actividad ad = referencia(actividades, a.getActividadD(), "Actividad destino");
+            if (ai == ad) throw new BadRequest("Origen y destino no pueden ser iguales (arco " + id + ")");
+            Arch e;
+            if (id > 0) {
+                e = existente(arcosActuales, id, "El arco");
+                if (n.update(e.getActividadI() != ai || e.getActividadD() != ad)) {
+                    e.setActividadI(ai);
+                    e.setActividadD(ad);
+                }
+            } else {
+                e = new Arch(null, ai, ad);
+                em.persist(e);
+                archIds.put(id, e.getId());
+                n.inserted++;
+            }
+            arcos.put(id, e);
+        }
+
+        // ---- gateways ----
+        Map<Long, Gateway> gatewaysActuales = porId(p.getGateways(), Gateway::getId);
+        Map<Long, List<Long>> arcosDeGateway = new HashMap<>();
+        for (RepoProceso.GatewayArchRow r : repo.findGatewayArchesByProcesoId(p.getId()))
+            if (r.archId() != null) arcosDeGateway.computeIfAbsent(r.gatewayId(), k -> new ArrayList<>()).add(r.archId());
+        Map<Long, Gateway> gws = new LinkedHashMap<>(gateways.size() * 2);
+        Map<Long, Long> gatewayIds = new LinkedHashMap<>();
+        for (GatewayDto g : gateways) {
+            Long id = requireId(g.getId(), "gateway");
+            if (gws.containsKey(id)) throw new BadRequest("Gateway repetido en el diagrama: " + id);
+            if (g.getType() == null) throw new BadRequest("El gateway " + id + " requiere type");
+            List<Arch> suyos = new ArrayList<>();
+            if (g.getArchIds() != null) for (Long archId : g.getArchIds()) suyos.add(referencia(arcos, archId, "Arco"));
+            String conditions = GatewayConditions.remapArchIds(g.getConditionsJson(), archIds);
+            Gateway e;
+            if (id > 0) {
+                e = existente(gatewaysActuales, id, "El gateway");
+                boolean archsCambian = !idsOrdenados(suyos).equals(ordenados(arcosDeGateway.getOrDefault(id, List.of())));
+                if (n.update(e.getType() != g.getType() || !Objects.equals(e.getConditionsJson(), conditions) || archsCambian)) {
+                    e.setType(g.getType());
+                    e.setConditionsJson(conditions);
+                    // Reemplazar la colección no la inicializa: no hay un SELECT por gateway
+                    if (archsCambian) e.setArchs(suyos);
+                    GatewayService.validarCondiciones(e);
+                    conditionCache.invalidate(id);
+                }
+            } else {
+                e = new Gateway(null, g.getType(), suyos, conditions);
+                em.persist(e);
+                GatewayService.validarCondiciones(e);
+                gatewayIds.put(id, e.getId());
+                n.inserted++;
+            }
+            gws.put(id, e);
+        }
+
+        // ---- pertenencia y borrados ----
+        // Primero los gateways (sueltan gateway_arch), luego arcos y al final actividades, por las FK
+        for (Gateway g : sincronizar(p.getGateways(), gws.values(), gatewaysActuales.keySet(), Gateway::getId, n))
+            conditionCache.invalidate(g.getId());
+        sincronizar(p.getArchs(), arcos.values(), arcosActuales.keySet(), Arch::getId, n);
+        for (Actividad a : sincronizar(p.getActivities(), actividades.values(), actuales.keySet(), Actividad::getId, n))
+            search.actividadEliminada(a.getId());
+
+        em.flush();
+        boolean cambio = n.inserted + n.updated + n.deleted > 0;
+        if (cambio) {
+            // Mover una actividad no toca las tablas intermedias, así que no sube la versión por sí solo
+            if (Objects.equals(versionInicial, p.getVersion())) em.lock(p, LockModeType.PESSIMISTIC_FORCE_INCREMENT);
+            graphCache.invalidateAll();
+            viewport.invalidate(p.getId());
+        }
+        return new ProcessGraphSaveResultDto(p.getId(), p.getVersion(), activityIds, archIds, gatewayIds,
+                n.inserted, n.updated, n.deleted);
+    }
+
+    private static final class Counts {
+        int inserted, updated, deleted;
+
+        boolean update(boolean changed) {
+            if (changed) updated++;
+            return changed;
+        }
+    }
+
+    // Deja en la colección del proceso exactamente los elementos del diagrama y borra los que salieron
+    private <T> List<T> sincronizar(List<T> actuales, Collection<T> deseados, Set<Long> idsPrevios,
+                                 Function<T, Long> idOf, Counts n) {
+        Set<T> quedan = Collections.newSetFromMap(new IdentityHashMap<>());
+        quedan.addAll(deseados);
+        List<T> salen = new ArrayList<>();
+        for (T e : actuales) if (!quedan.contains(e)) salen.add(e);
+        if (!salen.isEmpty()) actuales.removeIf(e -> !quedan.contains(e));
+        for (T e : deseados) if (!idsPrevios.contains(idOf.apply(e))) actuales.add(e);
+        for (T e : salen) em.remove(e);
+        n.deleted += salen.size();
+        return salen;
+    }
+
+    private static <T> List<T> orEmpty(List<T> list, String nombre) {
+        if (list == null) return List.of();
+        if (list.size() > MAX_ELEMENTS) throw new BadRequest("El diagrama supera " + MAX_ELEMENTS + " " + nombre);
+        return list;
+    }
+
+    private static Long requireId(Long id, String nombre) {
+        if (id == null) throw new BadRequest("Cada " + nombre + " del diagrama requiere id (<= 0 para los nuevos)");
+        return id;
+    }
+
+    private static <T> Map<Long, T> porId(List<T> items, Function<T, Long> idOf) {
+        Map<Long, T> out = new HashMap<>(items.size() * 2);
+        for (T e : items) out.put(idOf.apply(e), e);
+        return out;
+    }
+
+    private static <T> T existente(Map<Long, T> actuales, Long id, String nombre) {
+        T e = actuales.get(id);
+        if (e == null) throw new BadRequest(nombre + " " + id + " no es del proceso");
+        return e;
+    }
+
+    private static <T> T referencia(Map<Long, T> delDiagrama, Long id, String nombre) {
+        T e = id != null ? delDiagrama.get(id) : null;
+        if (e == null) throw new BadRequest(nombre + " " + id + " no está en el diagrama");
+        return e;
+    }
+
+    private static List<Long> idsOrdenados(List<Arch> archs) {
+        List<Long> out = new ArrayList<>(archs.size());
+        for (Arch a : archs) out.add(a.getId());
+        return ordenados(out);
+    }
+
+    private static List<Long> ordenados(List<Long> ids) {
+        List<Long> out = new ArrayList<>(ids);
+        Collections.sort(out);
+        return out;
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.proyectoweb.Servicio;
+
+import com.example.proyectoweb.Dto.SimulationRequestDto;
+import com.example.proyectoweb.Dto.SimulationResultDto;
+import com.example.proyectoweb.Dto.ValidationResultDto;
+import com.example.proyectoweb.Repo.RepoProceso;
+import com.example.proyectoweb.condition.ConditionCache;
+import com.example.proyectoweb.condition.GatewayConditions;
+import com.example.proyectoweb.graph.CompiledGraph;
+import com.example.proyectoweb.graph.GraphValidator;
+import com.example.proyectoweb.graph.ProcessGraphCache;
+import com.example.proyectoweb.simulation.SimulationEngine;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.example.proyectoweb.common.DomainExceptions.NotFound;
+
+@Service
+@RequiredArgsConstructor
+public class ProcessGraphService {
+
+    private final RepoProceso repo;
+    private final ProcessGraphCache cache;
+    private final SimulationEngine simulator;
+    private final ConditionCache conditions;
+
+    // Una consulta de versión por llamada; con la versión en caché no se vuelve a leer el grafo
+    @Transactional(readOnly = true)
+    public CompiledGraph compilado(Long procesoId) {
+        return cache.get(key(procesoId), this::compilar);
+    }
+
+    @Transactional(readOnly = true)
+    public ValidationResultDto validar(Long procesoId) {
+        return GraphValidator.validate(compilado(procesoId));
+    }
+
+    // Para validar dentro de una transacción que todavía puede revertirse: el grafo se arma con
+    // los cambios sin confirmar, así que no debe quedar en la caché bajo esa versión
+    @Transactional(readOnly = true)
+    public ValidationResultDto validarSinCache(Long procesoId) {
+        return GraphValidator.validate(compilar(key(procesoId)));
+    }
+
+    // Sin transacción: el grafo sale de la caché (o de las consultas de compilado) y la simulación
+    // no retiene una conexión mientras corre
+    public SimulationResultDto simular(Long procesoId, SimulationRequestDto req) {
+        CompiledGraph g = compilado(procesoId);
+        Map<Long, GatewayConditions> porGateway = new HashMap<>();
+        for (RepoProceso.GatewayConditionsRow r : repo.findGatewayConditionsByProcesoId(procesoId))
+            if (!r.conditionsJson().isBlank())
+                porGateway.put(r.gatewayId(), conditions.get(new ConditionCache.Key(r.gatewayId(), r.version()), r.conditionsJson()));
+        return simulator.run(g, req, porGateway);
+    }
+
+    private ProcessGraphCache.Key key(Long procesoId) {
+        long version = repo.findVersionById(procesoId)
+                .orElseThrow(() -> new NotFound("Proceso no existe: " + procesoId));
+        return new ProcessGraphCache.Key(procesoId, version);
+    }
+
+    // Proyecciones de IDs directo de las tablas intermedias, sin hidratar entidades
+    private CompiledGraph compilar(ProcessGraphCache.Key key) {
+        CompiledGraph.Builder b = CompiledGraph.builder(key.procesoId(), key.version());
+        for (Long id : repo.findActivityIdsByProcesoId(key.procesoId())) b.activity(id);
+        for (RepoProceso.ArchEdgeRow r : repo.findArchEdgesByProcesoId(key.procesoId()))
+            b.arch(r.archId(), r.fromId(), r.toId());
+        for (RepoProceso.GatewayArchRow r : repo.findGatewayArchesByProcesoId(key.procesoId()))
+            b.gateway(r.gatewayId(), r.type(), r.archId());
+        return b.build();
+    }
+}
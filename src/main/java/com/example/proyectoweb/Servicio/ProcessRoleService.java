@@ -2,6 +2,7 @@ package com.example.proyectoweb.Servicio;
 
 import com.example.proyectoweb.Dto.ActivityRoleLinkDto;
 import com.example.proyectoweb.Dto.ProcessRoleDto;
+import com.example.proyectoweb.Mapper.ProcessRoleMapper;
 import com.example.proyectoweb.Modelo.*;
 import com.example.proyectoweb.Repo.*;
 import lombok.RequiredArgsConstructor;
@@ -21,6 +22,7 @@ public class ProcessRoleService {
     private final RepoActividad repoActividad;
     private final RepoActivityRoleLink repoLink;
     private final RepoProceso repoProceso;
+    private final ProcessRoleMapper mapper;
 
     @Transactional
     public ProcessRoleDto crear(ProcessRoleDto dto) {
@@ -32,16 +34,13 @@ public class ProcessRoleService {
                     .orElseThrow(() -> new NotFound("Organización no encontrada"));
             r.setOrganization(org);
         }
-        r = repoRole.save(r);
-        return new ProcessRoleDto(r.getId(), r.getName(),
-                r.getOrganization()!=null? r.getOrganization().getId(): null);
+        return mapper.toDto(repoRole.save(r));
     }
 
     @Transactional(readOnly = true)
     public List<ProcessRoleDto> listar(Long orgId) {
         return (orgId!=null? repoRole.findAllByOrganization_Id(orgId) : repoRole.findAll())
-                .stream().map(r -> new ProcessRoleDto(r.getId(), r.getName(),
-                        r.getOrganization()!=null? r.getOrganization().getId(): null))
+                .stream().map(mapper::toDto)
                 .collect(Collectors.toList());
     }
 
@@ -54,9 +53,7 @@ public class ProcessRoleService {
                         .orElseThrow(() -> new NotFound("Organización no encontrada"));
                 existing.setOrganization(org);
             }
-            ProcessRole saved = repoRole.save(existing);
-            return new ProcessRoleDto(saved.getId(), saved.getName(),
-                    saved.getOrganization()!=null? saved.getOrganization().getId(): null);
+            return mapper.toDto(repoRole.save(existing));
         });
     }
 
@@ -76,27 +73,19 @@ public class ProcessRoleService {
         ProcessRole role = repoRole.findById(roleId)
                 .orElseThrow(() -> new NotFound("Rol no encontrado"));
 
-        ActivityRoleLink link = new ActivityRoleLink(null, act, role);
-        link = repoLink.save(link);
-        return new ActivityRoleLinkDto(link.getId(), act.getId(), role.getId());
+        return mapper.toDto(repoLink.save(new ActivityRoleLink(null, act, role)));
     }
 
     @Transactional(readOnly = true)
     public Map<String, List<Long>> dondeSeUsa(Long roleId) {
         if (!repoRole.existsById(roleId)) throw new NotFound("Rol no encontrado");
-        List<ActivityRoleLink> links = repoLink.findAllByRole_Id(roleId);
-        List<Long> actividadIds = links.stream().map(l -> l.getActividad().getId()).collect(Collectors.toList());
+        // Consulta inversa sobre proceso_actividad (indexada por actividad_id) en lugar de recorrer todos los procesos
+        List<Long> actividadIds = repoLink.findActividadIdsByRole_Id(roleId);
+        List<Long> procesoIds = actividadIds.isEmpty()? new ArrayList<>() : repoProceso.findIdsUsingRole(roleId);
 
-        Set<Long> procesoIds = new HashSet<>();
-        for (Long aid: actividadIds) {
-            for (Proceso p : repoProceso.findAll()) {
-                boolean used = p.getActivities().stream().anyMatch(a -> a.getId().equals(aid));
-                if (used) procesoIds.add(p.getId());
-            }
-        }
         Map<String, List<Long>> out = new HashMap<>();
         out.put("actividades", actividadIds);
-        out.put("procesos", new ArrayList<>(procesoIds));
+        out.put("procesos", procesoIds);
         return out;
     }
 }
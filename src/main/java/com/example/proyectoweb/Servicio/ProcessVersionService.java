@@ -0,0 +1,138 @@
+package com.example.proyectoweb.Servicio;
+
+import com.example.proyectoweb.Dto.FieldChangeDto;
+import com.example.proyectoweb.Dto.ProcessDiffDto;
+import com.example.proyectoweb.Dto.ProcessRevisionDto;
+import com.example.proyectoweb.Dto.ProcessRevisionPageDto;
+import com.example.proyectoweb.Dto.ProcessVersionDto;
+import com.example.proyectoweb.Modelo.ProcessRevision;
+import com.example.proyectoweb.Repo.RepoProcessRevision;
+import com.example.proyectoweb.versioning.ProcessSnapshot;
+import com.example.proyectoweb.versioning.RevisionCodec;
+import com.example.proyectoweb.versioning.SnapshotDiff;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.*;
+
+import static com.example.proyectoweb.common.DomainExceptions.*;
+
+/**
+ * Revisiones numeradas (1, 2, ...) de cada proceso. Cada cambio guarda un delta contra la revisión
+ * anterior y cada {@code process-versions.checkpoint-every} revisiones un checkpoint completo, así
+ * que reconstruir cualquier revisión lee un checkpoint y a lo sumo checkpoint-every - 1 deltas.
+ */
+@Service
+@RequiredArgsConstructor
+public class ProcessVersionService {
+
+    private final RepoProcessRevision repo;
+
+    @Value("${process-versions.checkpoint-every:20}")
+    private int checkpointEvery = 20;
+
+    // Lo llama ProcesoService dentro de su transacción; el número de revisión queda protegido por el
+    // @Version de Proceso (dos escrituras concurrentes del mismo proceso no confirman las dos)
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrar(Long procesoId, ProcessSnapshot before, ProcessSnapshot after, String actor) {
+        int head = repo.findHeadRevision(procesoId).orElse(0);
+        if (head > 0 && before.sameAs(after)) return;
+        int revision = head + 1;
+        boolean checkpoint = head == 0 || (revision - 1) % checkpointEvery == 0;
+        byte[] payload = checkpoint ? RevisionCodec.checkpoint(after) : RevisionCodec.delta(before, after);
+        repo.save(new ProcessRevision(null, procesoId, revision, checkpoint, payload, actor, Instant.now()));
+    }
+
+    @Transactional(readOnly = true)
+    public ProcessVersionDto reconstruir(Long procesoId, int revision) {
+        return toDto(procesoId, revision, snapshot(procesoId, revision));
+    }
+
+    @Transactional(readOnly = true)
+    public ProcessSnapshot snapshot(Long procesoId, int revision) {
+        int checkpoint = repo.findCheckpointAtOrBefore(procesoId, revision)
+                .orElseThrow(() -> new NotFound("Revisión " + revision + " no encontrada"));
+        List<RepoProcessRevision.PayloadRow> rows = repo.findPayloads(procesoId, checkpoint, revision);
+        if (rows.isEmpty() || rows.get(rows.size() - 1).revision() != revision)
+            throw new NotFound("Revisión " + revision + " no encontrada");
+        ProcessSnapshot s = ProcessSnapshot.EMPTY;
+        for (RepoProcessRevision.PayloadRow r : rows) s = RevisionCodec.apply(s, r.payload());
+        return s;
+    }
+
+    /**
+     * Cambios de {@code from} a {@code to}. Si no hay un checkpoint entre las dos revisiones, {@code to}
+     * se obtiene aplicando sobre {@code from} los deltas intermedios en vez de reconstruirla desde cero.
+     */
+    @Transactional(readOnly = true)
+    public ProcessDiffDto diff(Long procesoId, int from, int to) {
+        ProcessSnapshot a = snapshot(procesoId, from);
+        ProcessSnapshot b = from == to ? a : from < to ? avanzar(procesoId, a, from, to) : snapshot(procesoId, to);
+
+        List<FieldChangeDto> fields = new ArrayList<>();
+        SnapshotDiff.fields(a, b, (field, before, after) -> fields.add(new FieldChangeDto(field, before, after)));
+        return new ProcessDiffDto(procesoId, from, to, fields,
+                toList(SnapshotDiff.addedActivities(a, b)), toList(SnapshotDiff.removedActivities(a, b)),
+                toList(SnapshotDiff.addedArchs(a, b)), toList(SnapshotDiff.removedArchs(a, b)),
+                toList(SnapshotDiff.addedGateways(a, b)), toList(SnapshotDiff.removedGateways(a, b)));
+    }
+
+    private ProcessSnapshot avanzar(Long procesoId, ProcessSnapshot base, int from, int to) {
+        int checkpoint = repo.findCheckpointAtOrBefore(procesoId, to).orElse(0);
+        if (checkpoint > from) return snapshot(procesoId, to);
+        List<RepoProcessRevision.PayloadRow> rows = repo.findPayloads(procesoId, from + 1, to);
+        if (rows.isEmpty() || rows.get(rows.size() - 1).revision() != to)
+            throw new NotFound("Revisión " + to + " no encontrada");
+        ProcessSnapshot s = base;
+        for (RepoProcessRevision.PayloadRow r : rows) s = RevisionCodec.apply(s, r.payload());
+        return s;
+    }
+
+    @Transactional(readOnly = true)
+    public ProcessRevisionPageDto listar(Long procesoId, String cursor, int limit) {
+        int before = decodeCursor(cursor);
+        List<RepoProcessRevision.InfoRow> rows = repo.findInfoPage(procesoId, before, Limit.of(limit + 1));
+        boolean hasMore = rows.size() > limit;
+        List<RepoProcessRevision.InfoRow> page = hasMore ? rows.subList(0, limit) : rows;
+        List<ProcessRevisionDto> items = new ArrayList<>(page.size());
+        for (RepoProcessRevision.InfoRow r : page)
+            items.add(new ProcessRevisionDto(r.revision(), r.checkpoint(), r.changedBy(), r.createdAt().toEpochMilli()));
+        return new ProcessRevisionPageDto(items, hasMore ? encodeCursor(page.get(page.size() - 1).revision()) : null);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void eliminar(Long procesoId) {
+        repo.deleteByProcesoId(procesoId);
+    }
+
+    private static ProcessVersionDto toDto(Long procesoId, int revision, ProcessSnapshot s) {
+        return new ProcessVersionDto(procesoId, revision, s.name(), s.description(), s.category(), s.status(),
+                s.organizationId(), toList(s.activityIds()), toList(s.archIds()), toList(s.gatewayIds()));
+    }
+
+    private static List<Long> toList(long[] ids) {
+        List<Long> out = new ArrayList<>(ids.length);
+        for (long id : ids) out.add(id);
+        return out;
+    }
+
+    private static String encodeCursor(int revision) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(String.valueOf(revision).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static int decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) return Integer.MAX_VALUE;
+        try {
+            return Integer.parseInt(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequest("Cursor inválido");
+        }
+    }
+}
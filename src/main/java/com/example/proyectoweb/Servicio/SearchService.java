@@ -0,0 +1,110 @@
+package com.example.proyectoweb.Servicio;
+
+import com.example.proyectoweb.Dto.SearchHitDto;
+import com.example.proyectoweb.Dto.SearchPageDto;
+import com.example.proyectoweb.Modelo.Actividad;
+import com.example.proyectoweb.Modelo.Proceso;
+import com.example.proyectoweb.Repo.RepoActividad;
+import com.example.proyectoweb.Repo.RepoProceso;
+import com.example.proyectoweb.common.SearchHitType;
+import com.example.proyectoweb.search.InvertedIndex;
+import com.example.proyectoweb.search.SearchIndexer;
+import com.example.proyectoweb.search.Tokenizer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.function.LongPredicate;
+
+import static com.example.proyectoweb.common.DomainExceptions.BadRequest;
+
+/**
+ * Búsqueda de texto sobre nombre, descripción y categoría de procesos y nombre y descripción de
+ * actividades. El ranking sale del índice en memoria (ver SearchIndexer); de la base se leen solo
+ * los resultados de la página.
+ */
+@Service
+@RequiredArgsConstructor
+public class SearchService {
+
+    static final int DEFAULT_PAGE_SIZE = 20;
+    static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_QUERY_LENGTH = 200;
+    private static final int MAX_QUERY_TERMS = 10;
+
+    private final SearchIndexer indexer;
+    private final RepoProceso repoProceso;
+    private final RepoActividad repoActividad;
+    private final TransactionTemplate tx;
+
+    // Si el texto no termina en espacio, la última palabra se busca como prefijo (búsqueda mientras se escribe).
+    // El cursor es el último resultado entregado (puntaje, documento), no una posición.
+    // Sin transacción alrededor: mientras carga el índice se espera sin tener tomada una conexión del pool.
+    public SearchPageDto buscar(String q, SearchHitType type, String cursor, Integer size) {
+        if (q==null || q.isBlank()) throw new BadRequest("q es obligatorio");
+        if (q.length() > MAX_QUERY_LENGTH) throw new BadRequest("q supera " + MAX_QUERY_LENGTH + " caracteres");
+        List<String> terms = Tokenizer.terms(q);
+        if (terms.size() > MAX_QUERY_TERMS) throw new BadRequest("q supera " + MAX_QUERY_TERMS + " términos");
+        int limit = (size==null || size<=0)? DEFAULT_PAGE_SIZE : Math.min(size, MAX_PAGE_SIZE);
+        InvertedIndex.Hit after = decodeCursor(cursor);
+        boolean prefix = Character.isLetterOrDigit(q.charAt(q.length() - 1));
+        LongPredicate filter = type==null? k -> true : k -> SearchIndexer.typeOf(k)==type;
+
+        List<InvertedIndex.Hit> hits = indexer.index().search(terms, prefix, filter, after, limit + 1);
+        boolean hasMore = hits.size() > limit;
+        List<InvertedIndex.Hit> page = hasMore? hits.subList(0, limit) : hits;
+        String next = hasMore? encodeCursor(page.get(page.size()-1)) : null;
+        return new SearchPageDto(tx.execute(s -> toDtos(page)), next);
+    }
+
+    private List<SearchHitDto> toDtos(List<InvertedIndex.Hit> hits) {
+        List<Long> procesoIds = new ArrayList<>(), actividadIds = new ArrayList<>();
+        for (InvertedIndex.Hit h : hits)
+            (SearchIndexer.typeOf(h.key())==SearchHitType.PROCESS? procesoIds : actividadIds).add(SearchIndexer.idOf(h.key()));
+
+        Map<Long, Proceso> procesos = new HashMap<>();
+        if (!procesoIds.isEmpty()) for (Proceso p : repoProceso.findAllById(procesoIds)) procesos.put(p.getId(), p);
+        Map<Long, Actividad> actividades = new HashMap<>();
+        Map<Long, Long> procesoDeActividad = new HashMap<>();
+        if (!actividadIds.isEmpty()) {
+            for (Actividad a : repoActividad.findAllById(actividadIds)) actividades.put(a.getId(), a);
+            for (RepoProceso.ChildIdRow r : repoProceso.findProcesoIdsByActivityIds(actividadIds))
+                procesoDeActividad.putIfAbsent(r.childId(), r.procesoId());
+        }
+
+        // Un documento borrado entre la búsqueda y esta lectura no sale
+        List<SearchHitDto> out = new ArrayList<>(hits.size());
+        for (InvertedIndex.Hit h : hits) {
+            long id = SearchIndexer.idOf(h.key());
+            if (SearchIndexer.typeOf(h.key())==SearchHitType.PROCESS) {
+                Proceso p = procesos.get(id);
+                if (p!=null) out.add(new SearchHitDto(SearchHitType.PROCESS, id, p.getName(), p.getDescription(),
+                        p.getCategory(), null, h.score()));
+            } else {
+                Actividad a = actividades.get(id);
+                if (a!=null) out.add(new SearchHitDto(SearchHitType.ACTIVITY, id, a.getName(), a.getDescription(),
+                        null, procesoDeActividad.get(id), h.score()));
+            }
+        }
+        return out;
+    }
+
+    private static String encodeCursor(InvertedIndex.Hit last) {
+        String text = Long.toHexString(Double.doubleToLongBits(last.score())) + ":" + last.key();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static InvertedIndex.Hit decodeCursor(String cursor) {
+        if (cursor==null || cursor.isBlank()) return null;
+        try {
+            String text = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int colon = text.indexOf(':');
+            return new InvertedIndex.Hit(Long.parseLong(text.substring(colon + 1)),
+                    Double.longBitsToDouble(Long.parseUnsignedLong(text.substring(0, colon), 16)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new BadRequest("Cursor inválido");
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.proyectoweb.common;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Corre una acción al confirmar la transacción actual, o ya si no hay una. Para cachés e índices en
+// memoria: si se invalidan antes del commit, otro hilo puede volver a cargarlos con los datos viejos.
+// Si la transacción se revierte la acción no corre.
+public final class AfterCommit {
+
+    private AfterCommit() {}
+
+    public static void run(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -10,4 +10,7 @@ public class DomainExceptions {
     public static class BadRequest extends RuntimeException {
         public BadRequest(String msg) { super(msg); }
     }
+    public static class Unavailable extends RuntimeException {
+        public Unavailable(String msg) { super(msg); }
+    }
 }
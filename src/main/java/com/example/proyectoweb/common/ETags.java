@@ -0,0 +1,59 @@
+package com.example.proyectoweb.common;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Optional;
+import java.util.function.LongFunction;
+import java.util.function.Supplier;
+
+// ETags fuertes armados con columnas @Version. Con If-None-Match primero se consulta solo la versión
+// (una columna de una fila) y si coincide se responde 304 sin cargar ni serializar la entidad.
+public final class ETags {
+
+    // Siempre revalidar; privado porque la respuesta es para un usuario autenticado
+    public static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+    private ETags() {}
+
+    public static String of(String tipo, Object... partes) {
+        StringBuilder sb = new StringBuilder("\"").append(tipo);
+        for (Object p : partes) sb.append('-').append(p);
+        return sb.append('"').toString();
+    }
+
+    // If-None-Match compara en forma débil: W/"x" coincide con "x"
+    public static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) return false;
+        for (String t : ifNoneMatch.split(",")) {
+            t = t.trim();
+            if (t.equals("*")) return true;
+            if (t.startsWith("W/")) t = t.substring(2);
+            if (t.equals(etag)) return true;
+        }
+        return false;
+    }
+
+    public static <T> ResponseEntity<T> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(REVALIDATE).build();
+    }
+
+    public static <T> ResponseEntity<T> ok(String etag, T body) {
+        return ResponseEntity.ok().eTag(etag).cacheControl(REVALIDATE).body(body);
+    }
+
+    // GET condicional de una entidad: 304 si la versión actual coincide, 404 si no existe
+    public static <T> ResponseEntity<T> conditionalGet(String ifNoneMatch, LongFunction<String> etagOf,
+                                                       Supplier<Optional<Long>> version,
+                                                       Supplier<Optional<Versioned<T>>> load) {
+        if (ifNoneMatch != null) {
+            Optional<Long> current = version.get();
+            if (current.isEmpty()) return ResponseEntity.notFound().build();
+            String etag = etagOf.apply(current.get());
+            if (matches(ifNoneMatch, etag)) return notModified(etag);
+        }
+        return load.get().map(v -> ok(etagOf.apply(v.version()), v.body()))
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.proyectoweb.common;
+
+import jakarta.persistence.EntityManager;
+
+import java.util.Iterator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+// Exportaciones por cursor: entrega cada fila mapeada al sink apenas se lee y limpia el contexto de
+// persistencia cada bloque, así la memoria no crece con el tamaño de la tabla. Cierra el stream.
+// Llamar dentro de una transacción de solo lectura (el cursor vive lo que dura la transacción).
+public final class EntityStreams {
+
+    private static final int CLEAR_EVERY = 500;
+
+    private EntityStreams() {}
+
+    public static <E, D> void export(Stream<E> rows, Function<E, D> toDto, Consumer<D> sink, EntityManager em) {
+        try (rows) {
+            int n = 0;
+            for (Iterator<E> it = rows.iterator(); it.hasNext(); ) {
+                sink.accept(toDto.apply(it.next()));
+                if (++n % CLEAR_EVERY == 0) em.clear();
+            }
+        }
+    }
+}
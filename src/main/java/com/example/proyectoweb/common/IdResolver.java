@@ -0,0 +1,40 @@
+package com.example.proyectoweb.common;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.*;
+import java.util.function.Function;
+
+import static com.example.proyectoweb.common.DomainExceptions.NotFound;
+
+// Resuelve listas de IDs con findAllById (un SELECT ... IN por bloque) en lugar de un findById por ID.
+// Respeta el orden y los duplicados de la entrada, y reporta todos los IDs faltantes en un solo NotFound.
+public final class IdResolver {
+
+    private static final int CHUNK_SIZE = 1000;
+
+    private IdResolver() {}
+
+    public static <T> List<T> resolveAll(JpaRepository<T, Long> repo, List<Long> ids,
+                                         Function<T, Long> idOf, String entidad) {
+        if (ids==null || ids.isEmpty()) return new ArrayList<>();
+
+        List<Long> unique = new ArrayList<>(new LinkedHashSet<>(ids));
+        unique.remove(null);
+        Map<Long, T> found = new HashMap<>(unique.size() * 2);
+        for (int from = 0; from < unique.size(); from += CHUNK_SIZE) {
+            List<Long> chunk = unique.subList(from, Math.min(from + CHUNK_SIZE, unique.size()));
+            for (T e : repo.findAllById(chunk)) found.put(idOf.apply(e), e);
+        }
+
+        List<T> out = new ArrayList<>(ids.size());
+        Set<Long> missing = new LinkedHashSet<>();
+        for (Long id : ids) {
+            T e = (id==null)? null : found.get(id);
+            if (e==null) missing.add(id);
+            else out.add(e);
+        }
+        if (!missing.isEmpty()) throw new NotFound(entidad + " no existe: " + missing);
+        return out;
+    }
+}
@@ -0,0 +1,5 @@
+package com.example.proyectoweb.common;
+
+public enum IssueSeverity {
+    ERROR, WARNING
+}
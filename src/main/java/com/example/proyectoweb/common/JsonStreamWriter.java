@@ -0,0 +1,56 @@
+package com.example.proyectoweb.common;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+// Escribe cada DTO en la respuesta apenas se produce, como arreglo JSON o NDJSON (uno por línea),
+// sin armar la lista completa en memoria. El productor recibe el sink y lo invoca por cada elemento.
+@Component
+@RequiredArgsConstructor
+public class JsonStreamWriter {
+
+    private final ObjectMapper objectMapper;
+
+    public static boolean wantsNdjson(String accept) {
+        if (accept == null || accept.isBlank()) return false;
+        return MediaType.parseMediaTypes(accept).stream()
+                .anyMatch(MediaType.APPLICATION_NDJSON::equalsTypeAndSubtype);
+    }
+
+    public <T> void write(HttpServletResponse response, boolean ndjson, Consumer<Consumer<T>> producer) throws IOException {
+        response.setContentType(ndjson ? MediaType.APPLICATION_NDJSON_VALUE : MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+
+        // El generador no cierra el stream del servlet; lo maneja el contenedor
+        try (JsonGenerator gen = objectMapper.getFactory()
+                .createGenerator(response.getOutputStream(), JsonEncoding.UTF8)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+            if (ndjson) gen.setRootValueSeparator(null);
+            else gen.writeStartArray();
+
+            try {
+                producer.accept(item -> {
+                    try {
+                        gen.writeObject(item);
+                        if (ndjson) gen.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+
+            if (!ndjson) gen.writeEndArray();
+        }
+    }
+}
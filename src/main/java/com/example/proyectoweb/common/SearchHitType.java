@@ -0,0 +1,5 @@
+package com.example.proyectoweb.common;
+
+public enum SearchHitType {
+    PROCESS, ACTIVITY
+}
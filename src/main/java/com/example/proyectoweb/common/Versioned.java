@@ -0,0 +1,4 @@
+package com.example.proyectoweb.common;
+
+// Un DTO junto con la @Version de la fila de la que salió, para armar su ETag
+public record Versioned<T>(T body, long version) {}
@@ -0,0 +1,41 @@
+package com.example.proyectoweb.condition;
+
+import com.example.proyectoweb.common.AfterCommit;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+// Condiciones compiladas por (gateway, versión), como ProcessGraphCache: cambiar las condiciones sube la
+// versión, así que una lectura vieja que se compile después del cambio queda bajo la versión vieja y no
+// se vuelve a usar. invalidate solo libera memoria al cambiar o borrar el gateway.
+@Component
+public class ConditionCache {
+
+    public record Key(long gatewayId, long version) {}
+
+    private final Cache<Key, GatewayConditions> cache;
+
+    public ConditionCache(@Value("${gateway-conditions.cache.max-size:10000}") long maxSize) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+    }
+
+    /** {@code conditionsJson} tiene que ser el de esa versión, leído en la misma consulta. */
+    public GatewayConditions get(Key key, String conditionsJson) {
+        return cache.get(key, k -> GatewayConditions.compile(k.gatewayId(), conditionsJson));
+    }
+
+    // Igual que ProcessGraphCache.invalidateAll: dentro de una transacción se invalida al confirmar
+    public void invalidate(Long gatewayId) {
+        if (gatewayId == null) return;
+        AfterCommit.run(() -> cache.asMap().keySet().removeIf(k -> k.gatewayId() == gatewayId));
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+}
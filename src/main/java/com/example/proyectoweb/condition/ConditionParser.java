@@ -0,0 +1,196 @@
+package com.example.proyectoweb.condition;
+
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+
+import static com.example.proyectoweb.common.DomainExceptions.BadRequest;
+
+/**
+ * Descenso recursivo sobre el texto de una condición:
+ * <pre>
+ * or      := and ('||' and)*
+ * and     := not ('&&' not)*
+ * not     := '!' not | cmp
+ * cmp     := sum (('=='|'!='|'<'|'<='|'>'|'>=') sum)?
+ * sum     := term (('+'|'-') term)*
+ * term    := unary (('*'|'/') unary)*
+ * unary   := '-' unary | primary
+ * primary := número | 'texto' | "texto" | true | false | variable | '(' or ')'
+ * </pre>
+ * Las variables se resuelven a una posición de {@code slots}; las subexpresiones constantes se pliegan.
+ * El largo y el anidamiento están acotados: cada nivel es un marco de la pila del hilo que guarda.
+ */
+final class ConditionParser {
+
+    static final int MAX_LENGTH = 2_000;
+    static final int MAX_DEPTH = 50;
+
+    private final String src;
+    private final List<String> slots;
+    private final ToDoubleFunction<String> symbols;
+    private int pos;
+    private int depth;
+
+    private ConditionParser(String src, List<String> slots, ToDoubleFunction<String> symbols) {
+        this.src = src;
+        this.slots = slots;
+        this.symbols = symbols;
+    }
+
+    /** Agrega a {@code slots} las variables nuevas que aparezcan; los textos toman su ID de {@code symbols}. */
+    static Expr parse(String src, List<String> slots, ToDoubleFunction<String> symbols) {
+        if (src == null || src.isBlank()) throw new BadRequest("Condición vacía");
+        if (src.length() > MAX_LENGTH) throw new BadRequest("La condición supera " + MAX_LENGTH + " caracteres");
+        ConditionParser p = new ConditionParser(src, slots, symbols);
+        Expr e = p.or();
+        p.skipSpaces();
+        if (p.pos < src.length()) throw p.error("texto sobrante");
+        return e;
+    }
+
+    private Expr or() {
+        Expr e = and();
+        while (accept("||")) e = fold(new Expr.Or(e, and()));
+        return e;
+    }
+
+    private Expr and() {
+        Expr e = not();
+        while (accept("&&")) e = fold(new Expr.And(e, not()));
+        return e;
+    }
+
+    private Expr not() {
+        if (peek('!') && !peekAt(1, '=')) {
+            pos++;
+            enter();
+            Expr e = fold(new Expr.Not(not()));
+            depth--;
+            return e;
+        }
+        return cmp();
+    }
+
+    private Expr cmp() {
+        Expr l = sum();
+        if (accept("==")) return fold(new Expr.Eq(l, sum()));
+        if (accept("!=")) return fold(new Expr.Ne(l, sum()));
+        if (accept("<=")) return fold(new Expr.Le(l, sum()));
+        if (accept(">=")) return fold(new Expr.Ge(l, sum()));
+        if (accept("<")) return fold(new Expr.Lt(l, sum()));
+        if (accept(">")) return fold(new Expr.Gt(l, sum()));
+        return l;
+    }
+
+    private Expr sum() {
+        Expr e = term();
+        while (true) {
+            if (accept("+")) e = fold(new Expr.Add(e, term()));
+            else if (accept("-")) e = fold(new Expr.Sub(e, term()));
+            else return e;
+        }
+    }
+
+    private Expr term() {
+        Expr e = unary();
+        while (true) {
+            if (accept("*")) e = fold(new Expr.Mul(e, unary()));
+            else if (accept("/")) e = fold(new Expr.Div(e, unary()));
+            else return e;
+        }
+    }
+
+    private Expr unary() {
+        if (!accept("-")) return primary();
+        enter();
+        Expr e = fold(new Expr.Neg(unary()));
+        depth--;
+        return e;
+    }
+
+    private Expr primary() {
+        skipSpaces();
+        if (pos >= src.length()) throw error("se esperaba un valor");
+        char c = src.charAt(pos);
+        if (c == '(') {
+            pos++;
+            enter();
+            Expr e = or();
+            if (!accept(")")) throw error("falta ')'");
+            depth--;
+            return e;
+        }
+        if (c == '\'' || c == '"') return new Expr.Const(symbols.applyAsDouble(string(c)));
+        if (Character.isDigit(c) || c == '.') return new Expr.Const(number());
+        if (Character.isLetter(c) || c == '_') {
+            String name = identifier();
+            if (name.equals("true")) return new Expr.Const(1);
+            if (name.equals("false")) return new Expr.Const(0);
+            int slot = slots.indexOf(name);
+            if (slot < 0) {
+                slot = slots.size();
+                slots.add(name);
+            }
+            return new Expr.Var(slot);
+        }
+        throw error("carácter inesperado '" + c + "'");
+    }
+
+    private String string(char quote) {
+        int start = ++pos;
+        while (pos < src.length() && src.charAt(pos) != quote) pos++;
+        if (pos >= src.length()) throw error("texto sin cerrar");
+        return src.substring(start, pos++);
+    }
+
+    private double number() {
+        int start = pos;
+        while (pos < src.length() && (Character.isDigit(src.charAt(pos)) || src.charAt(pos) == '.')) pos++;
+        try {
+            return Double.parseDouble(src.substring(start, pos));
+        } catch (NumberFormatException e) {
+            throw error("número inválido");
+        }
+    }
+
+    private String identifier() {
+        int start = pos;
+        while (pos < src.length() && (Character.isLetterOrDigit(src.charAt(pos)) || src.charAt(pos) == '_' || src.charAt(pos) == '.'))
+            pos++;
+        return src.substring(start, pos);
+    }
+
+    // Paréntesis, '!' y '-' anidados; sin tope, un texto como "((((...))))" desborda la pila
+    private void enter() {
+        if (++depth > MAX_DEPTH) throw error("más de " + MAX_DEPTH + " niveles de anidamiento");
+    }
+
+    // Si ambos lados son constantes, el nodo se reemplaza por su valor
+    private static Expr fold(Expr e) {
+        return e.constant() ? new Expr.Const(e.eval(null)) : e;
+    }
+
+    private boolean accept(String op) {
+        skipSpaces();
+        if (!src.startsWith(op, pos)) return false;
+        pos += op.length();
+        return true;
+    }
+
+    private boolean peek(char c) {
+        skipSpaces();
+        return pos < src.length() && src.charAt(pos) == c;
+    }
+
+    private boolean peekAt(int offset, char c) {
+        return pos + offset < src.length() && src.charAt(pos + offset) == c;
+    }
+
+    private void skipSpaces() {
+        while (pos < src.length() && Character.isWhitespace(src.charAt(pos))) pos++;
+    }
+
+    private BadRequest error(String msg) {
+        return new BadRequest("Condición inválida (" + msg + " en la posición " + pos + "): " + src);
+    }
+}
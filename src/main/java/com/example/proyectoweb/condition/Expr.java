@@ -0,0 +1,124 @@
+package com.example.proyectoweb.condition;
+
+/**
+ * Nodo de una condición compilada. Todo valor es un double: los booleanos son 1/0, los textos el
+ * ID que les da {@link Symbols} y una variable sin valor es NaN (toda comparación con ella da falso
+ * salvo !=). Evaluar no reserva memoria.
+ */
+public abstract class Expr {
+
+    public abstract double eval(double[] vars);
+
+    public final boolean test(double[] vars) {
+        return truthy(eval(vars));
+    }
+
+    /** Sin variables debajo: se puede reemplazar por su valor al compilar. */
+    boolean constant() {
+        return false;
+    }
+
+    static boolean truthy(double v) {
+        return v != 0 && !Double.isNaN(v);
+    }
+
+    static double bool(boolean b) {
+        return b ? 1 : 0;
+    }
+
+    abstract static class Unary extends Expr {
+        final Expr e;
+        Unary(Expr e) { this.e = e; }
+        @Override boolean constant() { return e.constant(); }
+    }
+
+    abstract static class Binary extends Expr {
+        final Expr l, r;
+        Binary(Expr l, Expr r) { this.l = l; this.r = r; }
+        @Override boolean constant() { return l.constant() && r.constant(); }
+    }
+
+    static final class Const extends Expr {
+        final double value;
+        Const(double value) { this.value = value; }
+        @Override public double eval(double[] vars) { return value; }
+        @Override boolean constant() { return true; }
+    }
+
+    static final class Var extends Expr {
+        final int slot;
+        Var(int slot) { this.slot = slot; }
+        @Override public double eval(double[] vars) { return vars[slot]; }
+    }
+
+    static final class Not extends Unary {
+        Not(Expr e) { super(e); }
+        @Override public double eval(double[] vars) { return bool(!truthy(e.eval(vars))); }
+    }
+
+    static final class And extends Binary {
+        And(Expr l, Expr r) { super(l, r); }
+        @Override public double eval(double[] vars) { return bool(truthy(l.eval(vars)) && truthy(r.eval(vars))); }
+    }
+
+    static final class Or extends Binary {
+        Or(Expr l, Expr r) { super(l, r); }
+        @Override public double eval(double[] vars) { return bool(truthy(l.eval(vars)) || truthy(r.eval(vars))); }
+    }
+
+    static final class Neg extends Unary {
+        Neg(Expr e) { super(e); }
+        @Override public double eval(double[] vars) { return -e.eval(vars); }
+    }
+
+    // Un nodo por operador en lugar de un switch: cada eval es una llamada directa
+    static final class Eq extends Binary {
+        Eq(Expr l, Expr r) { super(l, r); }
+        @Override public double eval(double[] vars) { return bool(l.eval(vars) == r.eval(vars)); }
+    }
+
+    static final class Ne extends Binary {
+        Ne(Expr l, Expr r) { super(l, r); }
+        @Override public double eval(double[] vars) { return bool(l.eval(vars) != r.eval(vars)); }
+    }
+
+    static final class Lt extends Binary {
+        Lt(Expr l, Expr r) { super(l, r); }
+        @Override public double eval(double[] vars) { return bool(l.eval(vars) < r.eval(vars)); }
+    }
+
+    static final class Le extends Binary {
+        Le(Expr l, Expr r) { super(l, r); }
+        @Override public double eval(double[] vars) { return bool(l.eval(vars) <= r.eval(vars)); }
+    }
+
+    static final class Gt extends Binary {
+        Gt(Expr l, Expr r) { super(l, r); }
+        @Override public double eval(double[] vars) { return bool(l.eval(vars) > r.eval(vars)); }
+    }
+
+    static final class Ge extends Binary {
+        Ge(Expr l, Expr r) { super(l, r); }
+        @Override public double eval(double[] vars) { return bool(l.eval(vars) >= r.eval(vars)); }
+    }
+
+    static final class Add extends Binary {
+        Add(Expr l, Expr r) { super(l, r); }
+        @Override public double eval(double[] vars) { return l.eval(vars) + r.eval(vars); }
+    }
+
+    static final class Sub extends Binary {
+        Sub(Expr l, Expr r) { super(l, r); }
+        @Override public double eval(double[] vars) { return l.eval(vars) - r.eval(vars); }
+    }
+
+    static final class Mul extends Binary {
+        Mul(Expr l, Expr r) { super(l, r); }
+        @Override public double eval(double[] vars) { return l.eval(vars) * r.eval(vars); }
+    }
+
+    static final class Div extends Binary {
+        Div(Expr l, Expr r) { super(l, r); }
+        @Override public double eval(double[] vars) { return l.eval(vars) / r.eval(vars); }
+    }
+}
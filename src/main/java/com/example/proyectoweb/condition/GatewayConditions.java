@@ -0,0 +1,154 @@
+package com.example.proyectoweb.condition;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.*;
+import java.util.function.ToDoubleFunction;
+
+import static com.example.proyectoweb.common.DomainExceptions.BadRequest;
+
+/**
+ * Condiciones de un gateway compiladas una sola vez desde {@code conditionsJson}:
+ * <pre>
+ * {"branches": [{"archId": 12, "when": "monto > 1000 && prioridad == 'ALTA'"},
+ *               {"archId": 13, "when": "monto <= 1000"}],
+ *  "default": 14}
+ * </pre>
+ * Cada variable recibe una posición fija; el llamador arma una vez el arreglo de valores
+ * ({@link #bind}) y después {@link #firstMatch}/{@link #test} no reservan memoria.
+ */
+public final class GatewayConditions {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final long gatewayId;
+    private final long[] branchArchIds;
+    private final Expr[] when;
+    private final Long defaultArchId;
+    private final String[] variables;
+
+    private GatewayConditions(long gatewayId, long[] branchArchIds, Expr[] when, Long defaultArchId, String[] variables) {
+        this.gatewayId = gatewayId;
+        this.branchArchIds = branchArchIds;
+        this.when = when;
+        this.defaultArchId = defaultArchId;
+        this.variables = variables;
+    }
+
+    /** Para evaluar condiciones guardadas: registra sus textos en {@link Symbols}. */
+    public static GatewayConditions compile(long gatewayId, String conditionsJson) {
+        return compile(gatewayId, conditionsJson, Symbols::intern);
+    }
+
+    /**
+     * Solo valida: los textos toman IDs propios y no quedan registrados, así una condición rechazada
+     * o que nunca se guarda no agranda {@link Symbols}. El resultado no sirve para {@link #bind}.
+     */
+    public static GatewayConditions check(long gatewayId, String conditionsJson) {
+        return compile(gatewayId, conditionsJson, Symbols.scratch());
+    }
+
+    private static GatewayConditions compile(long gatewayId, String conditionsJson, ToDoubleFunction<String> symbols) {
+        JsonNode root;
+        try {
+            root = JSON.readTree(conditionsJson);
+        } catch (JsonProcessingException e) {
+            throw new BadRequest("conditionsJson del gateway " + gatewayId + " no es JSON válido");
+        }
+        if (root == null || !root.isObject()) throw new BadRequest("conditionsJson del gateway " + gatewayId + " debe ser un objeto");
+
+        JsonNode branches = root.path("branches");
+        if (!branches.isMissingNode() && !branches.isArray())
+            throw new BadRequest("conditionsJson.branches del gateway " + gatewayId + " debe ser una lista");
+
+        List<String> slots = new ArrayList<>();
+        int n = branches.size();
+        long[] archIds = new long[n];
+        Expr[] exprs = new Expr[n];
+        for (int i = 0; i < n; i++) {
+            JsonNode b = branches.get(i);
+            if (!b.path("archId").canConvertToLong() || !b.path("when").isTextual())
+                throw new BadRequest("Cada rama del gateway " + gatewayId + " requiere archId y when");
+            archIds[i] = b.get("archId").asLong();
+            exprs[i] = ConditionParser.parse(b.get("when").asText(), slots, symbols);
+        }
+
+        JsonNode def = root.path("default");
+        Long defaultArchId = null;
+        if (!def.isMissingNode() && !def.isNull()) {
+            if (!def.canConvertToLong()) throw new BadRequest("conditionsJson.default del gateway " + gatewayId + " debe ser un archId");
+            defaultArchId = def.asLong();
+        }
+        return new GatewayConditions(gatewayId, archIds, exprs, defaultArchId, slots.toArray(String[]::new));
+    }
+
+    public long gatewayId() { return gatewayId; }
+    public int branchCount() { return branchArchIds.length; }
+    public long branchArchId(int branch) { return branchArchIds[branch]; }
+    public Long defaultArchId() { return defaultArchId; }
+
+    /** Nombres de variable en el orden de sus posiciones en el arreglo de valores. */
+    public List<String> variables() { return List.of(variables); }
+
+    /** Arcos nombrados en las ramas y en el default, para validar contra los arcos del gateway. */
+    public Set<Long> referencedArchIds() {
+        Set<Long> out = new LinkedHashSet<>();
+        for (long a : branchArchIds) out.add(a);
+        if (defaultArchId != null) out.add(defaultArchId);
+        return out;
+    }
+
+    /**
+     * Reescribe los archId de las ramas y del default según {@code ids} (los que no aparecen quedan
+     * igual). Sirve para pasar de IDs temporales del cliente a los IDs asignados al guardar.
+     */
+    public static String remapArchIds(String conditionsJson, Map<Long, Long> ids) {
+        if (conditionsJson == null || conditionsJson.isBlank() || ids.isEmpty()) return conditionsJson;
+        JsonNode root;
+        try {
+            root = JSON.readTree(conditionsJson);
+        } catch (JsonProcessingException e) {
+            throw new BadRequest("conditionsJson no es JSON válido");
+        }
+        if (root == null || !root.isObject()) return conditionsJson;
+        ObjectNode obj = (ObjectNode) root;
+        for (JsonNode b : obj.path("branches")) {
+            if (b.isObject() && b.path("archId").canConvertToLong()) {
+                Long real = ids.get(b.get("archId").asLong());
+                if (real != null) ((ObjectNode) b).put("archId", real);
+            }
+        }
+        if (obj.path("default").canConvertToLong()) {
+            Long real = ids.get(obj.get("default").asLong());
+            if (real != null) obj.put("default", real);
+        }
+        return obj.toString();
+    }
+
+    public boolean test(int branch, double[] vars) {
+        return when[branch].test(vars);
+    }
+
+    /** Primera rama (en orden de declaración) cuya condición se cumple, o -1. */
+    public int firstMatch(double[] vars) {
+        for (int i = 0; i < when.length; i++) if (when[i].test(vars)) return i;
+        return -1;
+    }
+
+    /** Arreglo de valores para estas condiciones; las variables ausentes quedan en NaN. */
+    public double[] bind(Map<String, ?> values) {
+        double[] out = new double[variables.length];
+        for (int i = 0; i < variables.length; i++) out[i] = toValue(values != null ? values.get(variables[i]) : null);
+        return out;
+    }
+
+    public static double toValue(Object v) {
+        if (v instanceof Number num) return num.doubleValue();
+        if (v instanceof Boolean b) return b ? 1 : 0;
+        if (v instanceof CharSequence s) return Symbols.valueOf(s.toString());
+        return Double.NaN;
+    }
+}
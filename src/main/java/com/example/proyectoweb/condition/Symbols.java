@@ -0,0 +1,39 @@
+package com.example.proyectoweb.condition;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * IDs numéricos para los textos de las condiciones, compartidos por todos los gateways, para que
+ * una comparación de textos sea una comparación de doubles. Solo se registran los literales de
+ * condiciones guardadas (las que compila ConditionCache); validar una condición todavía sin guardar
+ * usa {@link #scratch()} y no deja nada. Un valor que no aparece en ninguna condición no puede
+ * igualar a ninguno y se traduce a NaN sin registrarse.
+ */
+public final class Symbols {
+
+    private static final ConcurrentHashMap<String, Integer> IDS = new ConcurrentHashMap<>();
+    private static final AtomicInteger NEXT = new AtomicInteger(1);
+    // Los IDs arrancan en 2^52 para no coincidir con los números que usan las condiciones
+    private static final double BASE = 0x1p52;
+
+    private Symbols() {}
+
+    static double intern(String literal) {
+        return BASE + IDS.computeIfAbsent(literal, k -> NEXT.getAndIncrement());
+    }
+
+    /** IDs propios de una sola compilación; sirven para validar y plegar, no para evaluar con valores. */
+    static ToDoubleFunction<String> scratch() {
+        Map<String, Integer> ids = new HashMap<>();
+        return literal -> BASE + ids.computeIfAbsent(literal, k -> ids.size() + 1);
+    }
+
+    public static double valueOf(String text) {
+        Integer id = IDS.get(text);
+        return id != null ? BASE + id : Double.NaN;
+    }
+}
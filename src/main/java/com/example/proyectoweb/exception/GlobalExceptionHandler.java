@@ -4,6 +4,9 @@ import java.time.Instant;
 import java.util.HashMap;
 import java.util.Map;
 
+import com.example.proyectoweb.common.DomainExceptions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -16,6 +19,8 @@ import jakarta.servlet.http.HttpServletRequest;
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
+    private static final Logger log = LoggerFactory.getLogger(GlobalExceptionHandler.class);
+
     private ResponseEntity<Map<String, Object>> buildResponse(
             HttpStatus status,
             String errorCode,
@@ -72,6 +77,77 @@ public class GlobalExceptionHandler {
         );
     }
 
+    // ============ DOMINIO ============
+
+    @ExceptionHandler(DomainExceptions.NotFound.class)
+    public ResponseEntity<Map<String, Object>> handleNotFound(
+            DomainExceptions.NotFound ex,
+            HttpServletRequest request
+    ) {
+        return buildResponse(
+                HttpStatus.NOT_FOUND,
+                "NOT_FOUND",
+                ex.getMessage(),
+                request
+        );
+    }
+
+    @ExceptionHandler(DomainExceptions.Conflict.class)
+    public ResponseEntity<Map<String, Object>> handleConflict(
+            DomainExceptions.Conflict ex,
+            HttpServletRequest request
+    ) {
+        return buildResponse(
+                HttpStatus.CONFLICT,
+                "CONFLICT",
+                ex.getMessage(),
+                request
+        );
+    }
+
+    @ExceptionHandler(DomainExceptions.BadRequest.class)
+    public ResponseEntity<Map<String, Object>> handleBadRequest(
+            DomainExceptions.BadRequest ex,
+            HttpServletRequest request
+    ) {
+        return buildResponse(
+                HttpStatus.BAD_REQUEST,
+                "BAD_REQUEST",
+                ex.getMessage(),
+                request
+        );
+    }
+
+    @ExceptionHandler(DomainExceptions.Unavailable.class)
+    public ResponseEntity<Map<String, Object>> handleUnavailable(
+            DomainExceptions.Unavailable ex,
+            HttpServletRequest request
+    ) {
+        return buildResponse(
+                HttpStatus.SERVICE_UNAVAILABLE,
+                "UNAVAILABLE",
+                ex.getMessage(),
+                request
+        );
+    }
+
+    // ============ PROCESOS ============
+
+    @ExceptionHandler(ProcessValidationException.class)
+    public ResponseEntity<Map<String, Object>> handleInvalidProcess(
+            ProcessValidationException ex,
+            HttpServletRequest request
+    ) {
+        ResponseEntity<Map<String, Object>> response = buildResponse(
+                HttpStatus.UNPROCESSABLE_ENTITY,
+                "INVALID_PROCESS",
+                ex.getMessage(),
+                request
+        );
+        response.getBody().put("issues", ex.getResult().getIssues());
+        return response;
+    }
+
     // ============ GENÉRICO (fallback) ============
 
     @ExceptionHandler(Exception.class)
@@ -79,7 +155,7 @@ public class GlobalExceptionHandler {
             Exception ex,
             HttpServletRequest request
     ) {
-        ex.printStackTrace(); // para ver en consola qué pasó en dev
+        log.error("Error no controlado en {} {}", request.getMethod(), request.getRequestURI(), ex);
 
         return buildResponse(
                 HttpStatus.INTERNAL_SERVER_ERROR,
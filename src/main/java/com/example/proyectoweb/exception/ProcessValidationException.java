@@ -0,0 +1,17 @@
+package com.example.proyectoweb.exception;
+
+import com.example.proyectoweb.Dto.ValidationResultDto;
+
+public class ProcessValidationException extends RuntimeException {
+
+    private final ValidationResultDto result;
+
+    public ProcessValidationException(ValidationResultDto result) {
+        super("El proceso " + result.getProcesoId() + " no es válido");
+        this.result = result;
+    }
+
+    public ValidationResultDto getResult() {
+        return result;
+    }
+}
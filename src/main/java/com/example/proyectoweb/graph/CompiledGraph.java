@@ -0,0 +1,316 @@
+package com.example.proyectoweb.graph;
+
+import com.example.proyectoweb.common.GatewayType;
+
+import java.util.*;
+
+/**
+ * Grafo inmutable de un proceso: las actividades son nodos (índices 0..n-1, ordenados por ID) y los
+ * arcos son aristas en formato CSR (offsets + destinos en arreglos de int). Los gateways se guardan
+ * como grupos de arcos. Se arma una vez por versión del proceso y se consulta sin tocar JPA.
+ *
+ * Un arco cuyo origen o destino no pertenece al proceso queda fuera de la adyacencia y se reporta
+ * en {@link #danglingArchIds()}; su índice de arco sigue existiendo con extremo -1.
+ */
+public final class CompiledGraph {
+
+    private final long procesoId;
+    private final long version;
+
+    private final long[] nodeIds;
+
+    private final long[] archIds;
+    private final int[] archFrom;
+    private final int[] archTo;
+
+    // CSR: sucesores de n en outAdj[outStart[n] .. outStart[n+1]); outArch trae el arco de cada entrada
+    private final int[] outStart, outAdj, outArch;
+    private final int[] inStart, inAdj, inArch;
+
+    private final long[] gatewayIds;
+    private final GatewayType[] gatewayTypes;
+    // Arcos de cada gateway: gwArch = índice de arco (-1 si el arco no está en el proceso)
+    private final int[] gwStart, gwArch;
+    private final long[] gwArchIds;
+    // Gateway bien formado que divide/une en cada nodo (índice de gateway o -1)
+    private final int[] splitAt, joinAt;
+
+    // Kahn: más corto que nodeCount() si hay ciclos
+    private final int[] topo;
+
+    private CompiledGraph(Builder b) {
+        this.procesoId = b.procesoId;
+        this.version = b.version;
+
+        this.nodeIds = b.activityIds.stream().mapToLong(Long::longValue).sorted().distinct().toArray();
+        int n = nodeIds.length;
+
+        int m = b.archs.size();
+        this.archIds = new long[m];
+        this.archFrom = new int[m];
+        this.archTo = new int[m];
+        int[] outDeg = new int[n], inDeg = new int[n];
+        for (int a = 0; a < m; a++) {
+            long[] r = b.archs.get(a);
+            archIds[a] = r[0];
+            archFrom[a] = indexOf(r[1]);
+            archTo[a] = indexOf(r[2]);
+            if (archFrom[a] >= 0 && archTo[a] >= 0) {
+                outDeg[archFrom[a]]++;
+                inDeg[archTo[a]]++;
+            }
+        }
+
+        this.outStart = prefix(outDeg);
+        this.inStart = prefix(inDeg);
+        this.outAdj = new int[outStart[n]];
+        this.outArch = new int[outStart[n]];
+        this.inAdj = new int[inStart[n]];
+        this.inArch = new int[inStart[n]];
+        int[] outPos = Arrays.copyOf(outStart, n), inPos = Arrays.copyOf(inStart, n);
+        for (int a = 0; a < m; a++) {
+            int f = archFrom[a], t = archTo[a];
+            if (f < 0 || t < 0) continue;
+            outAdj[outPos[f]] = t;
+            outArch[outPos[f]++] = a;
+            inAdj[inPos[t]] = f;
+            inArch[inPos[t]++] = a;
+        }
+
+        int g = b.gateways.size();
+        this.gatewayIds = new long[g];
+        this.gatewayTypes = new GatewayType[g];
+        this.gwStart = new int[g + 1];
+        int total = 0;
+        for (Builder.GatewayEntry e : b.gateways.values()) total += e.archIds.size();
+        this.gwArch = new int[total];
+        this.gwArchIds = new long[total];
+        Map<Long, Integer> archIndex = new HashMap<>(m * 2);
+        for (int a = 0; a < m; a++) archIndex.putIfAbsent(archIds[a], a);
+        int k = 0, pos = 0;
+        for (Map.Entry<Long, Builder.GatewayEntry> e : b.gateways.entrySet()) {
+            gatewayIds[k] = e.getKey();
+            gatewayTypes[k] = e.getValue().type;
+            gwStart[k] = pos;
+            for (Long archId : e.getValue().archIds) {
+                gwArchIds[pos] = archId;
+                gwArch[pos++] = archIndex.getOrDefault(archId, -1);
+            }
+            k++;
+        }
+        gwStart[g] = pos;
+
+        this.splitAt = new int[n];
+        this.joinAt = new int[n];
+        Arrays.fill(splitAt, -1);
+        Arrays.fill(joinAt, -1);
+        for (int gw = 0; gw < g; gw++) classifyGateway(gw);
+
+        this.topo = kahn(inDeg);
+    }
+
+    public static Builder builder(long procesoId, long version) {
+        return new Builder(procesoId, version);
+    }
+
+    // ================== NODOS ==================
+
+    public long procesoId() { return procesoId; }
+    public long version() { return version; }
+
+    public int nodeCount() { return nodeIds.length; }
+
+    /** Índice del nodo de la actividad, o -1 si no pertenece al proceso. */
+    public int indexOf(long activityId) {
+        int i = Arrays.binarySearch(nodeIds, activityId);
+        return i >= 0 ? i : -1;
+    }
+
+    public long activityId(int node) { return nodeIds[node]; }
+
+    public int outDegree(int node) { return outStart[node + 1] - outStart[node]; }
+    public int successor(int node, int k) { return outAdj[outStart[node] + k]; }
+    public int outArch(int node, int k) { return outArch[outStart[node] + k]; }
+    public int[] successors(int node) { return Arrays.copyOfRange(outAdj, outStart[node], outStart[node + 1]); }
+
+    public int inDegree(int node) { return inStart[node + 1] - inStart[node]; }
+    public int predecessor(int node, int k) { return inAdj[inStart[node] + k]; }
+    public int inArch(int node, int k) { return inArch[inStart[node] + k]; }
+    public int[] predecessors(int node) { return Arrays.copyOfRange(inAdj, inStart[node], inStart[node + 1]); }
+
+    /** Nodos sin arcos de entrada (inicios). */
+    public int[] sources() {
+        return filterNodes(inStart);
+    }
+
+    /** Nodos sin arcos de salida (finales). */
+    public int[] sinks() {
+        return filterNodes(outStart);
+    }
+
+    // ================== ARCOS ==================
+
+    public int archCount() { return archIds.length; }
+    /** Arcos con ambos extremos dentro del proceso. */
+    public int edgeCount() { return outAdj.length; }
+    public long archId(int arch) { return archIds[arch]; }
+    public int archSource(int arch) { return archFrom[arch]; }
+    public int archTarget(int arch) { return archTo[arch]; }
+
+    public long[] danglingArchIds() {
+        long[] out = new long[archIds.length];
+        int k = 0;
+        for (int a = 0; a < archIds.length; a++)
+            if (archFrom[a] < 0 || archTo[a] < 0) out[k++] = archIds[a];
+        return Arrays.copyOf(out, k);
+    }
+
+    // ================== GATEWAYS ==================
+
+    public int gatewayCount() { return gatewayIds.length; }
+    public long gatewayId(int gw) { return gatewayIds[gw]; }
+    public GatewayType gatewayType(int gw) { return gatewayTypes[gw]; }
+    public int gatewayArchCount(int gw) { return gwStart[gw + 1] - gwStart[gw]; }
+    /** Índice del k-ésimo arco del gateway, o -1 si ese arco no pertenece al proceso. */
+    public int gatewayArch(int gw, int k) { return gwArch[gwStart[gw] + k]; }
+    public long gatewayArchId(int gw, int k) { return gwArchIds[gwStart[gw] + k]; }
+
+    /** Gateway que divide las salidas del nodo (todas, con 2 o más arcos), o -1. */
+    public int splitGatewayOf(int node) { return splitAt[node]; }
+
+    /** Gateway que une las entradas del nodo (todas, con 2 o más arcos), o -1. */
+    public int joinGatewayOf(int node) { return joinAt[node]; }
+
+    // ================== RECORRIDOS ==================
+
+    public boolean isAcyclic() { return topo.length == nodeIds.length; }
+
+    /** Orden topológico; si hay ciclos solo incluye los nodos que no dependen de ninguno. */
+    public int[] topologicalOrder() { return topo.clone(); }
+
+    public BitSet reachableFrom(int... starts) {
+        BitSet seen = new BitSet(nodeIds.length);
+        int[] queue = new int[nodeIds.length];
+        int head = 0, tail = 0;
+        for (int s : starts) {
+            if (!seen.get(s)) { seen.set(s); queue[tail++] = s; }
+        }
+        while (head < tail) {
+            int u = queue[head++];
+            for (int i = outStart[u]; i < outStart[u + 1]; i++) {
+                int v = outAdj[i];
+                if (!seen.get(v)) { seen.set(v); queue[tail++] = v; }
+            }
+        }
+        return seen;
+    }
+
+    /** Nodos desde los que se llega a alguno de los destinos (BFS sobre los predecesores). */
+    public BitSet reachingTo(int... targets) {
+        BitSet seen = new BitSet(nodeIds.length);
+        int[] queue = new int[nodeIds.length];
+        int head = 0, tail = 0;
+        for (int t : targets) {
+            if (!seen.get(t)) { seen.set(t); queue[tail++] = t; }
+        }
+        while (head < tail) {
+            int u = queue[head++];
+            for (int i = inStart[u]; i < inStart[u + 1]; i++) {
+                int v = inAdj[i];
+                if (!seen.get(v)) { seen.set(v); queue[tail++] = v; }
+            }
+        }
+        return seen;
+    }
+
+    public boolean reaches(int from, int to) {
+        return reachableFrom(from).get(to);
+    }
+
+    // División: todos los arcos salen del mismo nodo y cubren todas sus salidas; unión: lo mismo
+    // con el destino. Un gateway que no encaja queda sin rol (GraphValidator lo reporta).
+    private void classifyGateway(int gw) {
+        int count = gwStart[gw + 1] - gwStart[gw];
+        if (count < 2) return;
+        int source = -1, target = -1;
+        boolean commonSource = true, commonTarget = true;
+        for (int i = gwStart[gw]; i < gwStart[gw + 1]; i++) {
+            int a = gwArch[i];
+            if (a < 0 || archFrom[a] < 0 || archTo[a] < 0) return;
+            if (i == gwStart[gw]) { source = archFrom[a]; target = archTo[a]; continue; }
+            if (archFrom[a] != source) commonSource = false;
+            if (archTo[a] != target) commonTarget = false;
+        }
+        if (commonSource && count == outDegree(source) && splitAt[source] < 0) splitAt[source] = gw;
+        else if (commonTarget && count == inDegree(target) && joinAt[target] < 0) joinAt[target] = gw;
+    }
+
+    private int[] kahn(int[] inDeg) {
+        int n = nodeIds.length;
+        int[] pending = inDeg.clone();
+        int[] order = new int[n];
+        int head = 0, tail = 0;
+        for (int v = 0; v < n; v++) if (pending[v] == 0) order[tail++] = v;
+        while (head < tail) {
+            int u = order[head++];
+            for (int i = outStart[u]; i < outStart[u + 1]; i++)
+                if (--pending[outAdj[i]] == 0) order[tail++] = outAdj[i];
+        }
+        return tail == n ? order : Arrays.copyOf(order, tail);
+    }
+
+    private int[] filterNodes(int[] start) {
+        int n = nodeIds.length;
+        int[] out = new int[n];
+        int k = 0;
+        for (int v = 0; v < n; v++) if (start[v + 1] == start[v]) out[k++] = v;
+        return Arrays.copyOf(out, k);
+    }
+
+    private static int[] prefix(int[] deg) {
+        int[] start = new int[deg.length + 1];
+        for (int i = 0; i < deg.length; i++) start[i + 1] = start[i] + deg[i];
+        return start;
+    }
+
+    /** Acumula las filas leídas de las tablas intermedias; no es thread-safe ni reutilizable. */
+    public static final class Builder {
+        private final long procesoId;
+        private final long version;
+        private final List<Long> activityIds = new ArrayList<>();
+        private final List<long[]> archs = new ArrayList<>();
+        private final Map<Long, GatewayEntry> gateways = new TreeMap<>();
+
+        private Builder(long procesoId, long version) {
+            this.procesoId = procesoId;
+            this.version = version;
+        }
+
+        public Builder activity(long activityId) {
+            activityIds.add(activityId);
+            return this;
+        }
+
+        public Builder arch(long archId, long fromActivityId, long toActivityId) {
+            archs.add(new long[]{archId, fromActivityId, toActivityId});
+            return this;
+        }
+
+        /** archId puede ser null para un gateway sin arcos. */
+        public Builder gateway(long gatewayId, GatewayType type, Long archId) {
+            GatewayEntry e = gateways.computeIfAbsent(gatewayId, k -> new GatewayEntry(type));
+            if (archId != null) e.archIds.add(archId);
+            return this;
+        }
+
+        public CompiledGraph build() {
+            return new CompiledGraph(this);
+        }
+
+        private static final class GatewayEntry {
+            final GatewayType type;
+            final List<Long> archIds = new ArrayList<>();
+            GatewayEntry(GatewayType type) { this.type = type; }
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.example.proyectoweb.graph;
+
+import com.example.proyectoweb.Dto.ValidationIssueDto;
+import com.example.proyectoweb.Dto.ValidationResultDto;
+import com.example.proyectoweb.common.GatewayType;
+import com.example.proyectoweb.common.IssueSeverity;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+import static com.example.proyectoweb.common.IssueSeverity.ERROR;
+import static com.example.proyectoweb.common.IssueSeverity.WARNING;
+
+/**
+ * Chequeos estructurales sobre un {@link CompiledGraph}, todos en O(V+E):
+ * arcos colgantes, inicio/fin, actividades inalcanzables o sin salida, ciclos y
+ * la forma de cada gateway (división con un origen común o unión con un destino común).
+ *
+ * Los ciclos son advertencia: un bucle de retrabajo detrás de un EXCLUSIVE es válido.
+ */
+public final class GraphValidator {
+
+    private GraphValidator() {}
+
+    public static ValidationResultDto validate(CompiledGraph g) {
+        List<ValidationIssueDto> issues = new ArrayList<>();
+
+        long[] dangling = g.danglingArchIds();
+        if (dangling.length > 0)
+            issues.add(issue("DANGLING_ARCH", ERROR, "Arcos con origen o destino fuera del proceso",
+                    List.of(), toList(dangling), null));
+
+        int n = g.nodeCount();
+        if (n == 0) {
+            issues.add(issue("EMPTY_PROCESS", ERROR, "El proceso no tiene actividades", List.of(), List.of(), null));
+        } else {
+            checkFlow(g, issues);
+        }
+        checkGateways(g, issues);
+
+        boolean valid = issues.stream().noneMatch(i -> i.getSeverity() == ERROR);
+        return new ValidationResultDto(g.procesoId(), valid, issues);
+    }
+
+    private static void checkFlow(CompiledGraph g, List<ValidationIssueDto> issues) {
+        int n = g.nodeCount();
+        int[] sources = g.sources();
+        int[] sinks = g.sinks();
+
+        if (sources.length == 0) {
+            issues.add(issue("NO_START", ERROR, "Ninguna actividad carece de arcos de entrada", List.of(), List.of(), null));
+        } else {
+            BitSet reached = g.reachableFrom(sources);
+            if (reached.cardinality() < n)
+                issues.add(issue("UNREACHABLE", ERROR, "Actividades inalcanzables desde el inicio",
+                        nodesNotIn(g, reached), List.of(), null));
+        }
+
+        if (sinks.length == 0) {
+            issues.add(issue("NO_END", ERROR, "Ninguna actividad carece de arcos de salida", List.of(), List.of(), null));
+        } else {
+            BitSet finishing = g.reachingTo(sinks);
+            if (finishing.cardinality() < n)
+                issues.add(issue("DEAD_END", ERROR, "Actividades desde las que no se llega a ningún fin",
+                        nodesNotIn(g, finishing), List.of(), null));
+        }
+
+        if (!g.isAcyclic())
+            issues.add(issue("CYCLE", WARNING, "Actividades involucradas en ciclos",
+                    nodesNotIn(g, outsideCycles(g)), List.of(), null));
+    }
+
+    /**
+     * Nodos que Kahn saca en alguna de las dos direcciones: no están en un ciclo ni entre dos.
+     * El resto (los que quedan bloqueados en ambos sentidos) son los del ciclo.
+     */
+    private static BitSet outsideCycles(CompiledGraph g) {
+        int n = g.nodeCount();
+        BitSet out = new BitSet(n);
+        for (int v : g.topologicalOrder()) out.set(v);
+
+        int[] pending = new int[n];
+        int[] queue = new int[n];
+        int head = 0, tail = 0;
+        for (int v = 0; v < n; v++) {
+            pending[v] = g.outDegree(v);
+            if (pending[v] == 0) queue[tail++] = v;
+        }
+        while (head < tail) {
+            int u = queue[head++];
+            out.set(u);
+            for (int k = 0; k < g.inDegree(u); k++) {
+                int p = g.predecessor(u, k);
+                if (--pending[p] == 0) queue[tail++] = p;
+            }
+        }
+        return out;
+    }
+
+    private static void checkGateways(CompiledGraph g, List<ValidationIssueDto> issues) {
+        int n = g.nodeCount();
+        BitSet splitCovered = new BitSet(n);
+        BitSet joinCovered = new BitSet(n);
+
+        for (int gw = 0; gw < g.gatewayCount(); gw++) {
+            long gwId = g.gatewayId(gw);
+            GatewayType type = g.gatewayType(gw);
+            int count = g.gatewayArchCount(gw);
+            if (count == 0) {
+                issues.add(issue("GATEWAY_EMPTY", ERROR, "Gateway " + type + " sin arcos", List.of(), List.of(), gwId));
+                continue;
+            }
+
+            List<Long> outside = new ArrayList<>();
+            int valid = 0, source = -2, target = -2;
+            boolean commonSource = true, commonTarget = true;
+            for (int k = 0; k < count; k++) {
+                int a = g.gatewayArch(gw, k);
+                if (a < 0 || g.archSource(a) < 0 || g.archTarget(a) < 0) {
+                    outside.add(g.gatewayArchId(gw, k));
+                    continue;
+                }
+                valid++;
+                if (source == -2) source = g.archSource(a); else if (source != g.archSource(a)) commonSource = false;
+                if (target == -2) target = g.archTarget(a); else if (target != g.archTarget(a)) commonTarget = false;
+            }
+            if (!outside.isEmpty())
+                issues.add(issue("GATEWAY_ARCH_OUTSIDE", ERROR, "Gateway con arcos que no pertenecen al grafo del proceso",
+                        List.of(), outside, gwId));
+            if (valid == 0) continue;
+
+            if (valid < 2) {
+                issues.add(issue("GATEWAY_SINGLE_ARCH", ERROR, "Gateway " + type + " con un solo arco",
+                        List.of(), gatewayArchIds(g, gw), gwId));
+            } else if (commonSource) {
+                splitCovered.set(source);
+                if (valid < g.outDegree(source))
+                    issues.add(issue("GATEWAY_PARTIAL_FANOUT", ERROR,
+                            "Gateway " + type + " de división que no cubre todas las salidas de su actividad",
+                            List.of(g.activityId(source)), gatewayArchIds(g, gw), gwId));
+            } else if (commonTarget) {
+                joinCovered.set(target);
+                if (valid < g.inDegree(target))
+                    issues.add(issue("GATEWAY_PARTIAL_FANIN", ERROR,
+                            "Gateway " + type + " de unión que no cubre todas las entradas de su actividad",
+                            List.of(g.activityId(target)), gatewayArchIds(g, gw), gwId));
+            } else {
+                issues.add(issue("GATEWAY_MIXED", ERROR,
+                        "Los arcos del gateway " + type + " no comparten origen (división) ni destino (unión)",
+                        List.of(), gatewayArchIds(g, gw), gwId));
+            }
+        }
+
+        List<Long> implicitSplits = new ArrayList<>();
+        List<Long> implicitJoins = new ArrayList<>();
+        for (int v = 0; v < n; v++) {
+            if (g.outDegree(v) > 1 && !splitCovered.get(v)) implicitSplits.add(g.activityId(v));
+            if (g.inDegree(v) > 1 && !joinCovered.get(v)) implicitJoins.add(g.activityId(v));
+        }
+        if (!implicitSplits.isEmpty())
+            issues.add(issue("IMPLICIT_SPLIT", WARNING, "Actividades con varias salidas sin gateway de división",
+                    implicitSplits, List.of(), null));
+        if (!implicitJoins.isEmpty())
+            issues.add(issue("IMPLICIT_JOIN", WARNING, "Actividades con varias entradas sin gateway de unión",
+                    implicitJoins, List.of(), null));
+    }
+
+    private static List<Long> nodesNotIn(CompiledGraph g, BitSet set) {
+        List<Long> out = new ArrayList<>();
+        for (int v = set.nextClearBit(0); v < g.nodeCount(); v = set.nextClearBit(v + 1)) out.add(g.activityId(v));
+        return out;
+    }
+
+    private static List<Long> gatewayArchIds(CompiledGraph g, int gw) {
+        List<Long> out = new ArrayList<>(g.gatewayArchCount(gw));
+        for (int k = 0; k < g.gatewayArchCount(gw); k++) out.add(g.gatewayArchId(gw, k));
+        return out;
+    }
+
+    private static List<Long> toList(long[] ids) {
+        List<Long> out = new ArrayList<>(ids.length);
+        for (long id : ids) out.add(id);
+        return out;
+    }
+
+    private static ValidationIssueDto issue(String code, IssueSeverity severity, String message,
+                                            List<Long> activityIds, List<Long> archIds, Long gatewayId) {
+        return new ValidationIssueDto(code, severity, message, activityIds, archIds, gatewayId);
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.proyectoweb.graph;
+
+import com.example.proyectoweb.common.AfterCommit;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Function;
+
+// Grafos compilados por (proceso, versión). Un cambio del proceso sube su versión y deja la entrada
+// vieja sin uso; los cambios en Arch/Gateway no tocan la versión, así que esos servicios llaman a
+// invalidateAll().
+@Component
+public class ProcessGraphCache {
+
+    public record Key(long procesoId, long version) {}
+
+    private final Cache<Key, CompiledGraph> cache;
+
+    public ProcessGraphCache(@Value("${process-graph.cache.max-size:1000}") long maxSize) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+    }
+
+    public CompiledGraph get(Key key, Function<Key, CompiledGraph> compiler) {
+        return cache.get(key, compiler);
+    }
+
+    // Dentro de una transacción se invalida al confirmar; antes, otro hilo podría recompilar con datos viejos
+    public void invalidateAll() {
+        AfterCommit.run(cache::invalidateAll);
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+}
@@ -0,0 +1,206 @@
+package com.example.proyectoweb.history;
+
+import com.example.proyectoweb.common.AfterCommit;
+import com.example.proyectoweb.common.ProcessStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Escribe el historial de procesos fuera de la transacción que lo origina. El evento entra a una
+ * cola acotada al confirmar (un rollback no deja historial, igual que antes) y un hilo propio lo
+ * inserta en lotes JDBC. Con la cola llena el llamador espera {@code offer-timeout-ms} y, si sigue
+ * llena, escribe él mismo: el historial no se pierde, solo se frena a quien escribe.
+ * Si un lote falla por algo que no es una restricción de la base (sin conexión, timeout) no se
+ * descarta: queda tomado y el hilo lo reintenta con espera creciente hasta {@code max-backoff-ms}.
+ * Al cerrar el contexto se vacía la cola antes de soltar el DataSource.
+ */
+@Component
+public class ProcessHistoryWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(ProcessHistoryWriter.class);
+
+    static final String INSERT = "insert into process_history " +
+            "(proceso_id, changed_by, status, description_snapshot, created_at) values (?, ?, ?, ?, ?)";
+
+    public record Event(Long procesoId, String changedBy, ProcessStatus status, String descriptionSnapshot, Instant createdAt) {}
+
+    // Despierta al hilo escritor para que salga sin esperar el poll
+    private static final Event STOP = new Event(null, null, null, null, null);
+
+    private final JdbcTemplate jdbc;
+    // Cada lote en su propia transacción: en afterCommit la conexión de la transacción original
+    // sigue ligada al hilo y un INSERT sin REQUIRES_NEW quedaría sin confirmar
+    private final TransactionTemplate tx;
+    private final BlockingQueue<Event> queue;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final long offerTimeoutMs;
+    private final long maxBackoffMs;
+    // Un lote a la vez: flush() espera al lote en curso del hilo escritor
+    private final ReentrantLock writing = new ReentrantLock();
+    // Lote sacado de la cola y todavía sin escribir (con writing tomado); si falla queda para el reintento
+    private final List<Event> batch;
+    private final Thread worker;
+    private final Counter written, overflow, dropped;
+    private volatile boolean running = true;
+
+    public ProcessHistoryWriter(JdbcTemplate jdbc, PlatformTransactionManager txManager, MeterRegistry registry,
+                                @Value("${process-history.queue-capacity:10000}") int capacity,
+                                @Value("${process-history.batch-size:500}") int batchSize,
+                                @Value("${process-history.flush-interval-ms:200}") long flushIntervalMs,
+                                @Value("${process-history.offer-timeout-ms:50}") long offerTimeoutMs,
+                                @Value("${process-history.max-backoff-ms:5000}") long maxBackoffMs) {
+        this.jdbc = jdbc;
+        this.tx = new TransactionTemplate(txManager);
+        this.tx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.offerTimeoutMs = offerTimeoutMs;
+        this.maxBackoffMs = maxBackoffMs;
+        this.batch = new ArrayList<>(batchSize);
+        Gauge.builder("process.history.queue", queue, BlockingQueue::size).register(registry);
+        this.written = registry.counter("process.history.written");
+        this.overflow = registry.counter("process.history.overflow");
+        this.dropped = registry.counter("process.history.dropped");
+        this.worker = new Thread(this::loop, "process-history-writer");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /** Encola el evento al confirmar la transacción actual (o ya, si no hay una). */
+    public void record(Event e) {
+        AfterCommit.run(() -> enqueue(e));
+    }
+
+    /** Deja escrito todo lo encolado hasta ahora; para leer el historial justo después de escribirlo. */
+    public void flush() {
+        writing.lock();
+        try {
+            // Primero el lote que esté esperando reintento, para no cambiar el orden
+            while (!batch.isEmpty() || queue.drainTo(batch, batchSize) > 0) {
+                batch.remove(STOP);
+                write(batch);
+                batch.clear();
+            }
+        } finally {
+            writing.unlock();
+        }
+    }
+
+    public int pending() {
+        return queue.size();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        // No se interrumpe al hilo para no cortar un lote a medias; si la cola está llena, sale al ver running=false
+        running = false;
+        queue.offer(STOP);
+        worker.join(flushIntervalMs + TimeUnit.SECONDS.toMillis(10));
+        queue.remove(STOP);
+        flush();
+    }
+
+    private void enqueue(Event e) {
+        try {
+            if (running && queue.offer(e, offerTimeoutMs, TimeUnit.MILLISECONDS)) return;
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        }
+        // Cola llena o escritor detenido: escribe el llamador
+        overflow.increment();
+        writing.lock();
+        try {
+            write(List.of(e));
+        } finally {
+            writing.unlock();
+        }
+    }
+
+    private void loop() {
+        long backoffMs = 0;
+        while (running) {
+            try {
+                if (backoffMs > 0) {
+                    TimeUnit.MILLISECONDS.sleep(backoffMs);
+                } else {
+                    Event first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                    if (first == null) continue;
+                    if (first == STOP) return;
+                    writing.lock();
+                    try {
+                        batch.add(first);
+                        queue.drainTo(batch, batchSize - batch.size());
+                        if (batch.remove(STOP)) running = false;
+                    } finally {
+                        writing.unlock();
+                    }
+                }
+                writing.lock();
+                try {
+                    // flush() pudo haberlo escrito mientras se esperaba
+                    if (!batch.isEmpty()) write(batch);
+                    batch.clear();
+                    backoffMs = 0;
+                } catch (RuntimeException ex) {
+                    // Cualquier excepción que saliera de acá mataría al hilo escritor
+                    backoffMs = Math.min(backoffMs > 0 ? backoffMs * 2 : flushIntervalMs, maxBackoffMs);
+                    log.error("Falló la escritura de {} eventos del historial de procesos; se reintenta en {} ms",
+                            batch.size(), backoffMs, ex);
+                } finally {
+                    writing.unlock();
+                }
+            } catch (InterruptedException ie) {
+                return;
+            }
+        }
+    }
+
+    private void write(List<Event> batch) {
+        try {
+            tx.executeWithoutResult(status -> jdbc.batchUpdate(INSERT, batch, batch.size(), (ps, e) -> {
+                ps.setLong(1, e.procesoId());
+                ps.setString(2, e.changedBy());
+                ps.setString(3, e.status().name());
+                ps.setString(4, e.descriptionSnapshot());
+                ps.setTimestamp(5, Timestamp.from(e.createdAt()));
+            }));
+            written.increment(batch.size());
+        } catch (DataIntegrityViolationException ex) {
+            if (batch.size() == 1) {
+                // Por ejemplo, el proceso se borró antes de que llegara su historial
+                dropped.increment();
+                log.warn("Se descarta el historial del proceso {}: {}", batch.get(0).procesoId(), ex.getMessage());
+                return;
+            }
+            // Un evento inválido no debe tirar todo el lote: se reintenta de a uno. Los escritos salen
+            // del lote, así un fallo a mitad de camino no los repite en el reintento
+            for (Iterator<Event> it = batch.iterator(); it.hasNext(); ) {
+                write(List.of(it.next()));
+                it.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.proyectoweb.metrics;
+
+import com.example.proyectoweb.Config.SecondLevelCacheStats;
+import com.example.proyectoweb.condition.ConditionCache;
+import com.example.proyectoweb.graph.ProcessGraphCache;
+import com.example.proyectoweb.security.JwtUtil;
+import com.example.proyectoweb.security.PrincipalCache;
+import com.example.proyectoweb.spatial.ActivityViewportIndex;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Aciertos, fallos, desalojos y tasa de acierto de los cachés propios y de cada región del caché
+ * de segundo nivel, con los nombres de {@code CaffeineCacheMetrics} ({@code cache.gets},
+ * {@code cache.evictions}) más {@code cache.hit.ratio}. Se leen de {@code stats()} en cada scrape.
+ */
+@Configuration
+public class CacheMetricsConfig {
+
+    @Bean
+    public MeterBinder applicationCacheMetrics(PrincipalCache principals, JwtUtil jwt,
+                                               ProcessGraphCache graphs, ConditionCache conditions,
+                                               ActivityViewportIndex viewport) {
+        return registry -> {
+            bind(registry, "principal", principals::stats);
+            bind(registry, "jwt.verified", jwt::verifiedCacheStats);
+            bind(registry, "process-graph", graphs::stats);
+            bind(registry, "gateway-conditions", conditions::stats);
+            bind(registry, "activity-viewport", viewport::stats);
+        };
+    }
+
+    @Bean
+    public MeterBinder secondLevelCacheMetrics(SecondLevelCacheStats l2) {
+        return registry -> {
+            for (String region : l2.stats().keySet())
+                bind(registry, "l2." + region, () -> l2.stats(region));
+        };
+    }
+
+    static void bind(MeterRegistry registry, String cache, Supplier<CacheStats> stats) {
+        counter(registry, "cache.gets", cache, "hit", stats, s -> s.hitCount());
+        counter(registry, "cache.gets", cache, "miss", stats, s -> s.missCount());
+        FunctionCounter.builder("cache.evictions", stats, s -> s.get().evictionCount())
+                .tag("cache", cache)
+                .register(registry);
+        Gauge.builder("cache.hit.ratio", stats, s -> s.get().hitRate())
+                .tag("cache", cache)
+                .register(registry);
+    }
+
+    private static void counter(MeterRegistry registry, String name, String cache, String result,
+                                Supplier<CacheStats> stats, ToDoubleFunction<CacheStats> value) {
+        FunctionCounter.builder(name, stats, s -> value.applyAsDouble(s.get()))
+                .tag("cache", cache)
+                .tag("result", result)
+                .register(registry);
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.proyectoweb.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+/**
+ * Timer {@code service.method} (class, method, exception) sobre cada método público de los
+ * servicios en {@code Servicio}. El conteo y la tasa de errores salen del mismo timer; las rutas
+ * HTTP ya las mide Actuator en {@code http.server.requests}.
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class ServiceMetricsAspect {
+
+    public static final String METRIC = "service.method";
+
+    private final MeterRegistry registry;
+
+    @Around("within(com.example.proyectoweb.Servicio..*) && execution(public * *(..))")
+    public Object timed(ProceedingJoinPoint pjp) throws Throwable {
+        Timer.Sample sample = Timer.start(registry);
+        String exception = "none";
+        try {
+            return pjp.proceed();
+        } catch (Throwable t) {
+            exception = t.getClass().getSimpleName();
+            throw t;
+        } finally {
+            sample.stop(Timer.builder(METRIC)
+                    .tag("class", pjp.getSignature().getDeclaringType().getSimpleName())
+                    .tag("method", pjp.getSignature().getName())
+                    .tag("exception", exception)
+                    .register(registry));
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.example.proyectoweb.positions;
+
+import com.example.proyectoweb.Modelo.Actividad;
+import com.example.proyectoweb.spatial.ActivityViewportIndex;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Posiciones de actividades escritas en diferido. Cada movimiento pisa al anterior de la misma
+ * actividad en un mapa, y cada {@code flush-interval-ms} se escribe solo la última posición de cada
+ * una con un UPDATE por lotes JDBC. Arrastrar una figura manda decenas de movimientos por segundo
+ * y a la base llega uno por intervalo.
+ * <p>
+ * Las lecturas no escriben: superponen en memoria la posición pendiente ({@link #pending(long)}) y
+ * suman a la versión los movimientos juntados, igual que el UPDATE que los escribe, así el ETag cambia
+ * con cada movimiento y nunca repite uno anterior. Las escrituras de actividades llaman a
+ * {@link #flush(Collection)} con sus IDs antes de abrir su transacción, para que un movimiento
+ * anterior no pise el guardado después; nunca desde una transacción abierta, porque cada lote pide
+ * su propia conexión.
+ */
+@Component
+public class ActivityPositionWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(ActivityPositionWriter.class);
+
+    /** Última posición pendiente y cuántos movimientos juntó desde la última escritura. */
+    public record Pending(int x, int y, int moves) {}
+
+    // La versión sube una vez por movimiento juntado (ver pending)
+    static final String UPDATE = "update activity set x = ?, y = ?, version = version + ? where id = ?";
+
+    private record Row(long id, Pending p) {}
+
+    // Una lectura que se cruza con una escritura en vuelo se repite; pasado este tope se entrega igual
+    private static final int MAX_READ_ATTEMPTS = 100;
+
+    private final JdbcTemplate jdbc;
+    // Como en ProcessHistoryWriter: el lote en su propia transacción aunque el llamador tenga una abierta
+    private final TransactionTemplate tx;
+    private final EntityManagerFactory emf;
+    private final ActivityViewportIndex viewport;
+    private final ConcurrentHashMap<Long, Pending> pending = new ConcurrentHashMap<>();
+    private final int batchSize;
+    private final int maxPending;
+    private final ReentrantLock writing = new ReentrantLock();
+    // Impar mientras un lote salió del mapa y todavía no está confirmado en la base (ver read)
+    private final AtomicLong generation = new AtomicLong();
+    private final ScheduledExecutorService scheduler;
+    private final Counter written, coalesced, missing;
+
+    public ActivityPositionWriter(JdbcTemplate jdbc, PlatformTransactionManager txManager, EntityManagerFactory emf,
+                                  ActivityViewportIndex viewport, MeterRegistry registry,
+                                  @Value("${activity-positions.flush-interval-ms:250}") long flushIntervalMs,
+                                  @Value("${activity-positions.batch-size:500}") int batchSize,
+                                  @Value("${activity-positions.max-pending:100000}") int maxPending) {
+        this.jdbc = jdbc;
+        this.tx = new TransactionTemplate(txManager);
+        this.tx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.emf = emf;
+        this.viewport = viewport;
+        this.batchSize = batchSize;
+        this.maxPending = maxPending;
+        Gauge.builder("activity.positions.pending", pending, Map::size).register(registry);
+        this.written = registry.counter("activity.positions.written");
+        this.coalesced = registry.counter("activity.positions.coalesced");
+        this.missing = registry.counter("activity.positions.missing");
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "activity-position-writer");
+            t.setDaemon(true);
+            return t;
+        });
+        this.scheduler.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    public void record(long activityId, int x, int y) {
+        Pending p = pending.merge(activityId, new Pending(x, y, 1),
+                (old, nuevo) -> new Pending(nuevo.x(), nuevo.y(), old.moves() + 1));
+        if (p.moves() > 1) coalesced.increment();
+        // La grilla del visor muestra la posición nueva desde ya, como las lecturas
+        viewport.moved(activityId, x, y);
+        // Demasiadas actividades distintas pendientes: escribe el llamador
+        if (pending.size() > maxPending) flush();
+    }
+
+    /** Movimiento todavía sin escribir de la actividad, o null. */
+    public Pending pending(long activityId) {
+        return pending.get(activityId);
+    }
+
+    /**
+     * Lee una actividad de la base junto con su movimiento pendiente sin cruzarse con una escritura:
+     * mientras un lote está en vuelo el pendiente ya salió del mapa pero la fila todavía no cambió.
+     * Si en el medio hubo una escritura o un movimiento nuevo se repite; read no debe dejar la
+     * entidad en el contexto de persistencia, o la repetición no vuelve a la base.
+     */
+    public <T> T read(long activityId, Function<Pending, T> read) {
+        for (int attempt = 1; ; attempt++) {
+            long g = generation.get();
+            Pending p = pending.get(activityId);
+            boolean quiet = (g & 1) == 0;
+            if (quiet || attempt >= MAX_READ_ATTEMPTS) {
+                T out = read.apply(p);
+                if (attempt >= MAX_READ_ATTEMPTS || generation.get() == g && pending.get(activityId) == p) return out;
+            }
+            Thread.yield();
+        }
+    }
+
+    /** Escribe ya todas las posiciones pendientes; no hace nada si no hay. */
+    public void flush() {
+        flush(null);
+    }
+
+    /** Escribe ya las posiciones pendientes de esas actividades (todas si ids es null). */
+    public void flush(Collection<Long> ids) {
+        if (pending.isEmpty()) return;
+        writing.lock();
+        // Desde que un pendiente sale del mapa hasta que su fila está confirmada las lecturas esperan
+        generation.incrementAndGet();
+        try {
+            List<Row> batch = new ArrayList<>(Math.min(pending.size(), batchSize));
+            for (Long id : ids != null ? ids : pending.keySet()) {
+                Pending p = pending.remove(id);
+                if (p == null) continue;
+                batch.add(new Row(id, p));
+                if (batch.size() == batchSize) {
+                    write(batch);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) write(batch);
+        } finally {
+            generation.incrementAndGet();
+            writing.unlock();
+        }
+    }
+
+    public int pending() {
+        return pending.size();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        scheduler.shutdown();
+        scheduler.awaitTermination(10, TimeUnit.SECONDS);
+        flush();
+    }
+
+    // Cualquier excepción que saliera de acá cancelaría la tarea programada para siempre
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException ex) {
+            log.error("Falló la escritura de posiciones de actividades", ex);
+        }
+    }
+
+    private void write(List<Row> batch) {
+        int[][] counts;
+        try {
+            counts = tx.execute(status -> jdbc.batchUpdate(UPDATE, batch, batch.size(), (ps, row) -> {
+                ps.setInt(1, row.p().x());
+                ps.setInt(2, row.p().y());
+                ps.setInt(3, row.p().moves());
+                ps.setLong(4, row.id());
+            }));
+        } catch (RuntimeException ex) {
+            // No solo DataAccessException: sin conexión sale CannotCreateTransactionException.
+            // Vuelven a la cola; si ya llegó una posición más nueva gana esa, pero los movimientos se suman
+            for (Row row : batch)
+                pending.merge(row.id(), row.p(), (nuevo, viejo) -> new Pending(nuevo.x(), nuevo.y(), nuevo.moves() + viejo.moves()));
+            throw ex;
+        }
+        int n = 0, i = 0;
+        for (int[] chunk : counts)
+            for (int c : chunk) {
+                Row row = batch.get(i++);
+                if (c == 0) continue;
+                n++;
+                // Una grilla armada desde la base mientras el lote estaba en vuelo no vio ni la fila nueva ni
+                // el pendiente; se vuelve a avisar con la posición más nueva que haya
+                Pending latest = pending.get(row.id());
+                Pending p = latest != null ? latest : row.p();
+                viewport.moved(row.id(), p.x(), p.y());
+            }
+        written.increment(n);
+        // Actividades borradas mientras su movimiento esperaba
+        missing.increment(batch.size() - n);
+        // El UPDATE no pasa por Hibernate: la copia en la caché de segundo nivel quedó vieja
+        for (Row row : batch) emf.getCache().evict(Actividad.class, row.id());
+    }
+}
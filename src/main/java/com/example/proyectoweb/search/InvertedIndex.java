@@ -0,0 +1,237 @@
+package com.example.proyectoweb.search;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongPredicate;
+
+/**
+ * Índice invertido en memoria: término -> documentos que lo contienen, con un peso por documento
+ * (ya ponderado por campo). Los documentos son claves long positivas; el que indexa decide qué
+ * significan.
+ * <p>
+ * Reemplazar o quitar un documento no busca sus entradas viejas: cada entrada lleva la generación
+ * del documento y las que no coinciden con la vigente se saltean al buscar. Cuando una lista junta
+ * demasiadas entradas muertas se compacta.
+ * <p>
+ * Una búsqueda exige todos los términos; el puntaje suma peso x idf de cada uno. El último término
+ * puede ser un prefijo (lo que el usuario todavía está escribiendo).
+ */
+public final class InvertedIndex {
+
+    public record Hit(long key, double score) {}
+
+    // Orden de resultados: mayor puntaje primero, a igual puntaje menor clave primero
+    public static final Comparator<Hit> RANKING =
+            Comparator.comparingDouble(Hit::score).reversed().thenComparingLong(Hit::key);
+
+    static final int MAX_PREFIX_EXPANSION = 64;
+
+    private record Doc(int gen, String[] terms) {}
+
+    private final TreeMap<String, Postings> terms = new TreeMap<>();
+    private final HashMap<Long, Doc> docs = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private int generation;
+
+    /** Agrega o reemplaza el documento; sin términos equivale a quitarlo. */
+    public void put(long key, Map<String, Integer> weights) {
+        if (key <= 0) throw new IllegalArgumentException("La clave debe ser positiva");
+        lock.writeLock().lock();
+        try {
+            removeLocked(key);
+            if (weights.isEmpty()) return;
+            int gen = ++generation;
+            String[] ts = weights.keySet().toArray(new String[0]);
+            for (String t : ts) terms.computeIfAbsent(t, k -> new Postings()).add(key, gen, weights.get(t));
+            docs.put(key, new Doc(gen, ts));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long key) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(key);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docs.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Hasta {@code limit} resultados en orden de {@link #RANKING}, solo los que pasan {@code filter}
+     * y, si hay {@code after}, solo los que vienen después de él en ese orden.
+     */
+    public List<Hit> search(List<String> query, boolean lastIsPrefix, LongPredicate filter, Hit after, int limit) {
+        if (query.isEmpty() || limit <= 0) return List.of();
+        lock.readLock().lock();
+        try {
+            List<List<Postings>> groups = new ArrayList<>(query.size());
+            for (int i = 0; i < query.size(); i++) {
+                List<Postings> g = lastIsPrefix && i == query.size() - 1 ? prefix(query.get(i)) : exact(query.get(i));
+                if (g.isEmpty()) return List.of();
+                groups.add(g);
+            }
+            // La lista más corta fija los candidatos; las demás solo los confirman
+            groups.sort(Comparator.comparingLong(InvertedIndex::live));
+
+            ScoreMap acc = new ScoreMap((int) Math.min(live(groups.get(0)), Integer.MAX_VALUE / 4));
+            for (int gi = 0; gi < groups.size(); gi++)
+                for (Postings p : groups.get(gi)) {
+                    double idf = Math.log(1 + (double) docs.size() / Math.max(1, p.n - p.dead));
+                    boolean checkLive = p.dead > 0;
+                    for (int i = 0; i < p.n; i++) {
+                        if (checkLive && !isLive(p.keys[i], p.gens[i])) continue;
+                        double s = p.weights[i] * idf;
+                        if (gi == 0) acc.seed(p.keys[i], s);
+                        else acc.match(p.keys[i], gi, s);
+                    }
+                }
+
+            // Los peores primero, para descartarlos al pasar de limit
+            PriorityQueue<Hit> top = new PriorityQueue<>(limit + 1, RANKING.reversed());
+            int required = groups.size();
+            for (int slot = 0; slot < acc.keys.length; slot++) {
+                long key = acc.keys[slot];
+                if (key == 0 || acc.hits[slot] != required || !filter.test(key)) continue;
+                Hit h = new Hit(key, acc.scores[slot]);
+                if (after != null && RANKING.compare(h, after) <= 0) continue;
+                if (top.size() < limit) top.add(h);
+                else if (RANKING.compare(h, top.peek()) < 0) {
+                    top.poll();
+                    top.add(h);
+                }
+            }
+            List<Hit> out = new ArrayList<>(top);
+            out.sort(RANKING);
+            return out;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<Postings> exact(String term) {
+        Postings p = terms.get(term);
+        return p != null ? List.of(p) : List.of();
+    }
+
+    // Las expansiones más cortas primero ("apro" -> "aprobar" antes que "aprobaciones")
+    private List<Postings> prefix(String prefix) {
+        List<String> matches = new ArrayList<>();
+        for (String t : terms.subMap(prefix, true, prefix + Character.MAX_VALUE, false).keySet()) matches.add(t);
+        if (matches.size() > MAX_PREFIX_EXPANSION) {
+            matches.sort(Comparator.comparingInt(String::length).thenComparing(Comparator.naturalOrder()));
+            matches = matches.subList(0, MAX_PREFIX_EXPANSION);
+        }
+        List<Postings> out = new ArrayList<>(matches.size());
+        for (String t : matches) out.add(terms.get(t));
+        return out;
+    }
+
+    private static long live(List<Postings> group) {
+        long n = 0;
+        for (Postings p : group) n += p.n - p.dead;
+        return n;
+    }
+
+    private boolean isLive(long key, int gen) {
+        Doc d = docs.get(key);
+        return d != null && d.gen == gen;
+    }
+
+    private void removeLocked(long key) {
+        Doc old = docs.remove(key);
+        if (old == null) return;
+        for (String t : old.terms) {
+            Postings p = terms.get(t);
+            p.dead++;
+            // Compactar recién con un octavo muerto deja las búsquedas casi siempre sin chequeo de generación
+            if (p.dead == p.n) terms.remove(t);
+            else if (p.dead > 8 && p.dead * 8 > p.n) compact(p);
+        }
+    }
+
+    private void compact(Postings p) {
+        int w = 0;
+        for (int i = 0; i < p.n; i++) {
+            if (!isLive(p.keys[i], p.gens[i])) continue;
+            p.keys[w] = p.keys[i];
+            p.gens[w] = p.gens[i];
+            p.weights[w] = p.weights[i];
+            w++;
+        }
+        p.n = w;
+        p.dead = 0;
+    }
+
+    private static final class Postings {
+        long[] keys = new long[2];
+        int[] gens = new int[2];
+        int[] weights = new int[2];
+        int n, dead;
+
+        void add(long key, int gen, int weight) {
+            if (n == keys.length) {
+                int cap = n * 2;
+                keys = Arrays.copyOf(keys, cap);
+                gens = Arrays.copyOf(gens, cap);
+                weights = Arrays.copyOf(weights, cap);
+            }
+            keys[n] = key;
+            gens[n] = gen;
+            weights[n] = weight;
+            n++;
+        }
+    }
+
+    // Mapa clave -> (puntaje, grupos que la contienen) con direccionamiento abierto; 0 marca vacío
+    private static final class ScoreMap {
+        final long[] keys;
+        final double[] scores;
+        final int[] hits;
+        final int mask;
+
+        ScoreMap(int expected) {
+            int cap = Integer.highestOneBit(Math.max(16, expected * 2 - 1)) << 1;
+            keys = new long[cap];
+            scores = new double[cap];
+            hits = new int[cap];
+            mask = cap - 1;
+        }
+
+        // Primer grupo: la clave entra, o suma si llegó por otra expansión del mismo prefijo
+        void seed(long key, double score) {
+            int slot = slot(key);
+            if (keys[slot] == 0) {
+                keys[slot] = key;
+                hits[slot] = 1;
+            }
+            scores[slot] += score;
+        }
+
+        // Grupo gi: solo suma a las claves que estaban en todos los grupos anteriores
+        void match(long key, int gi, double score) {
+            int slot = slot(key);
+            if (keys[slot] == 0) return;
+            if (hits[slot] == gi) hits[slot] = gi + 1;
+            else if (hits[slot] != gi + 1) return;
+            scores[slot] += score;
+        }
+
+        private int slot(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            int i = (int) (h ^ (h >>> 32)) & mask;
+            while (keys[i] != 0 && keys[i] != key) i = (i + 1) & mask;
+            return i;
+        }
+    }
+}
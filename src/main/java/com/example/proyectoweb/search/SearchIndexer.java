@@ -0,0 +1,200 @@
+package com.example.proyectoweb.search;
+
+import com.example.proyectoweb.Modelo.Actividad;
+import com.example.proyectoweb.Modelo.Proceso;
+import com.example.proyectoweb.Repo.RepoActividad;
+import com.example.proyectoweb.Repo.RepoProceso;
+import com.example.proyectoweb.common.AfterCommit;
+import com.example.proyectoweb.common.SearchHitType;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.proyectoweb.common.DomainExceptions.Unavailable;
+
+/**
+ * Mantiene el {@link InvertedIndex} de procesos y actividades. Al arrancar lo llena desde la base en un
+ * hilo propio, por bloques de keyset; después lo actualizan los servicios con cada alta, cambio o baja,
+ * al confirmar la transacción (un rollback no toca el índice).
+ * <p>
+ * Una escritura que llega durante la carga inicial gana: la fila que la carga haya leído antes
+ * queda descartada. Si la carga falla (base caída, pool agotado) se reintenta con espera creciente
+ * desde la última fila leída; mientras tanto las búsquedas esperan hasta {@code search.load-wait-ms}
+ * y después responden 503 en vez de resultados incompletos.
+ */
+@Component
+public class SearchIndexer {
+
+    private static final Logger log = LoggerFactory.getLogger(SearchIndexer.class);
+
+    // Peso de cada aparición de un término según el campo
+    static final int NAME_WEIGHT = 4, CATEGORY_WEIGHT = 2, DESCRIPTION_WEIGHT = 1;
+    private static final long FIRST_BACKOFF_MS = 500;
+
+    private final InvertedIndex index = new InvertedIndex();
+    private final RepoProceso repoProceso;
+    private final RepoActividad repoActividad;
+    private final TransactionTemplate tx;
+    private final int loadBatchSize;
+    private final long loadWaitMs;
+    private final long loadMaxBackoffMs;
+    // Última fila leída por la carga inicial; un reintento sigue desde ahí (solo los usa el hilo de carga)
+    private long procesosAfter, actividadesAfter;
+    private final CountDownLatch loaded = new CountDownLatch(1);
+    // Claves escritas por los servicios mientras corre la carga inicial
+    private final Set<Long> touched = ConcurrentHashMap.newKeySet();
+    private volatile boolean loading = true;
+
+    public SearchIndexer(RepoProceso repoProceso, RepoActividad repoActividad, PlatformTransactionManager txManager,
+                         MeterRegistry registry, @Value("${search.load-batch-size:5000}") int loadBatchSize,
+                         @Value("${search.load-wait-ms:10000}") long loadWaitMs,
+                         @Value("${search.load-max-backoff-ms:30000}") long loadMaxBackoffMs) {
+        this.repoProceso = repoProceso;
+        this.repoActividad = repoActividad;
+        this.tx = new TransactionTemplate(txManager);
+        this.tx.setReadOnly(true);
+        this.loadBatchSize = loadBatchSize;
+        this.loadWaitMs = loadWaitMs;
+        this.loadMaxBackoffMs = loadMaxBackoffMs;
+        Gauge.builder("search.index.documents", index, InvertedIndex::size).register(registry);
+    }
+
+    public static long key(SearchHitType type, long id) {
+        return id * 2 + (type == SearchHitType.ACTIVITY ? 1 : 0);
+    }
+
+    public static SearchHitType typeOf(long key) {
+        return (key & 1) == 1 ? SearchHitType.ACTIVITY : SearchHitType.PROCESS;
+    }
+
+    public static long idOf(long key) {
+        return key >>> 1;
+    }
+
+    /** Índice listo para buscar: espera a que termine la carga inicial. No llamar con una transacción abierta. */
+    public InvertedIndex index() {
+        try {
+            if (loaded.await(loadWaitMs, TimeUnit.MILLISECONDS)) return index;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        throw new Unavailable("El índice de búsqueda todavía se está cargando");
+    }
+
+    public void proceso(Proceso p) {
+        Map<String, Integer> w = weights(p.getName(), p.getCategory(), p.getDescription());
+        long key = key(SearchHitType.PROCESS, p.getId());
+        afterCommit(key, () -> index.put(key, w));
+    }
+
+    public void actividad(Actividad a) {
+        Map<String, Integer> w = weights(a.getName(), null, a.getDescription());
+        long key = key(SearchHitType.ACTIVITY, a.getId());
+        afterCommit(key, () -> index.put(key, w));
+    }
+
+    public void procesoEliminado(Long id) {
+        long key = key(SearchHitType.PROCESS, id);
+        afterCommit(key, () -> index.remove(key));
+    }
+
+    public void actividadEliminada(Long id) {
+        long key = key(SearchHitType.ACTIVITY, id);
+        afterCommit(key, () -> index.remove(key));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void cargar() {
+        Thread t = new Thread(this::load, "search-index-loader");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    private void load() {
+        long start = System.nanoTime();
+        long backoffMs = FIRST_BACKOFF_MS;
+        while (true) {
+            try {
+                loadProcesos();
+                loadActividades();
+                break;
+            } catch (RuntimeException ex) {
+                // Lo ya cargado queda y el reintento sigue desde la última fila leída
+                log.error("Falló la carga del índice de búsqueda; se reintenta en {} ms", backoffMs, ex);
+                try {
+                    TimeUnit.MILLISECONDS.sleep(backoffMs);
+                } catch (InterruptedException ie) {
+                    return;
+                }
+                backoffMs = Math.min(backoffMs * 2, loadMaxBackoffMs);
+            }
+        }
+        log.info("Índice de búsqueda cargado: {} documentos en {} ms", index.size(), (System.nanoTime() - start) / 1_000_000);
+        synchronized (this) {
+            loading = false;
+            touched.clear();
+        }
+        loaded.countDown();
+    }
+
+    private void loadProcesos() {
+        List<RepoProceso.SearchRow> procesos;
+        do {
+            long from = procesosAfter;
+            procesos = tx.execute(s -> repoProceso.findSearchRowsAfter(from, Limit.of(loadBatchSize)));
+            synchronized (this) {
+                for (RepoProceso.SearchRow r : procesos) {
+                    long key = key(SearchHitType.PROCESS, r.id());
+                    if (!touched.contains(key)) index.put(key, weights(r.name(), r.category(), r.description()));
+                    procesosAfter = r.id();
+                }
+            }
+        } while (procesos.size() == loadBatchSize);
+    }
+
+    private void loadActividades() {
+        List<RepoActividad.SearchRow> actividades;
+        do {
+            long from = actividadesAfter;
+            actividades = tx.execute(s -> repoActividad.findSearchRowsAfter(from, Limit.of(loadBatchSize)));
+            synchronized (this) {
+                for (RepoActividad.SearchRow r : actividades) {
+                    long key = key(SearchHitType.ACTIVITY, r.id());
+                    if (!touched.contains(key)) index.put(key, weights(r.name(), null, r.description()));
+                    actividadesAfter = r.id();
+                }
+            }
+        } while (actividades.size() == loadBatchSize);
+    }
+
+    private void afterCommit(long key, Runnable change) {
+        Runnable apply = () -> {
+            synchronized (this) {
+                if (loading) touched.add(key);
+                change.run();
+            }
+        };
+        AfterCommit.run(apply);
+    }
+
+    static Map<String, Integer> weights(String name, String category, String description) {
+        Map<String, Integer> w = new HashMap<>();
+        for (String t : Tokenizer.terms(name)) w.merge(t, NAME_WEIGHT, Integer::sum);
+        for (String t : Tokenizer.terms(category)) w.merge(t, CATEGORY_WEIGHT, Integer::sum);
+        for (String t : Tokenizer.terms(description)) w.merge(t, DESCRIPTION_WEIGHT, Integer::sum);
+        return w;
+    }
+}
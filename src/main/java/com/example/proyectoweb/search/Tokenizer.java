@@ -0,0 +1,41 @@
+package com.example.proyectoweb.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Parte un texto en términos: minúsculas, sin tildes ("Aprobación" y "aprobacion" son el mismo
+ * término), cortado en todo lo que no sea letra o dígito y sin las palabras vacías más comunes.
+ */
+public final class Tokenizer {
+
+    static final int MAX_TERM_LENGTH = 40;
+
+    private static final Set<String> STOPWORDS = Set.of(
+            "de", "del", "la", "las", "el", "los", "un", "una", "y", "o", "en", "a", "al", "con", "por", "para",
+            "que", "se", "su", "sus", "the", "of", "and", "or", "to", "in", "for", "on", "an", "is");
+
+    private Tokenizer() {}
+
+    public static List<String> terms(String text) {
+        List<String> out = new ArrayList<>();
+        if (text == null || text.isEmpty()) return out;
+        String plain = Normalizer.normalize(text, Normalizer.Form.NFD).toLowerCase(Locale.ROOT);
+        StringBuilder term = new StringBuilder();
+        for (int i = 0; i <= plain.length(); i++) {
+            char c = i < plain.length() ? plain.charAt(i) : ' ';
+            if (Character.getType(c) == Character.NON_SPACING_MARK) continue;
+            if (Character.isLetterOrDigit(c)) {
+                if (term.length() < MAX_TERM_LENGTH) term.append(c);
+            } else if (term.length() > 0) {
+                String t = term.toString();
+                if (!STOPWORDS.contains(t)) out.add(t);
+                term.setLength(0);
+            }
+        }
+        return out;
+    }
+}
@@ -12,6 +12,10 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import com.example.proyectoweb.exception.InvalidTokenException;
 
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -26,6 +30,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private CustomUserDetailsService userDetailsService;
 
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request,
                                     HttpServletResponse response,
@@ -34,25 +44,33 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         String header = request.getHeader("Authorization");
 
-        String token = null;
+        Claims claims = null;
         String username = null;
 
         // ================== 1. EXTRAER TOKEN ==================
+        // Se verifica la firma una sola vez; los claims se reutilizan en la validación
         if (header != null && header.startsWith("Bearer ")) {
-            token = header.substring(7);
+            String token = header.substring(7);
+            // security.jwt.validation: latencia de verificar el token (incluye los aciertos del caché)
+            Timer.Sample sample = Timer.start(meterRegistry);
+            String result = "valid";
             try {
-                username = jwtUtil.extractUsername(token);
+                claims = jwtUtil.parseClaims(token);
+                username = claims.getSubject();
             } catch (Exception e) {
+                result = "invalid";
                 throw new InvalidTokenException("JWT inválido o expirado");
+            } finally {
+                sample.stop(meterRegistry.timer("security.jwt.validation", "result", result));
             }
         }
 
         // ================== 2. VALIDAR Y CARGAR USER ==================
         if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
 
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            UserDetails userDetails = principalCache.get(username, userDetailsService::loadUserByUsername);
 
-            if (jwtUtil.isTokenValid(token, userDetails)) {
+            if (jwtUtil.isTokenValid(claims, userDetails)) {
 
                 UsernamePasswordAuthenticationToken auth =
                         new UsernamePasswordAuthenticationToken(
@@ -2,14 +2,24 @@ package com.example.proyectoweb.security;
 
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
@@ -17,11 +27,29 @@ import io.jsonwebtoken.security.Keys;
 @Component
 public class JwtUtil {
 
-    @Value("${security.jwt.secret}")
-    private String secret;
-
-    @Value("${security.jwt.expiration-ms:3600000}")
-    private long expirationMs;
+    private final long expirationMs;
+
+    // La clave y el parser se derivan una sola vez; ambos son inmutables y thread-safe
+    private final Key signingKey;
+    private final JwtParser parser;
+
+    // hash(token) -> claims ya verificados; cada entrada vence junto con su token
+    private final Cache<String, Claims> verified;
+
+    public JwtUtil(@Value("${security.jwt.secret}") String secret,
+                   @Value("${security.jwt.expiration-ms:3600000}") long expirationMs,
+                   @Value("${security.jwt.verified-cache-size:10000}") long verifiedCacheSize) {
+        this.expirationMs = expirationMs;
+        this.signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+        this.verified = verifiedCacheSize > 0
+                ? Caffeine.newBuilder()
+                    .maximumSize(verifiedCacheSize)
+                    .expireAfter(new UntilTokenExpiry())
+                    .recordStats()
+                    .build()
+                : null;
+    }
 
     // ================== GENERACIÓN ==================
 
@@ -33,12 +61,28 @@ public class JwtUtil {
                 .setSubject(userDetails.getUsername())   // email
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
     // ================== EXTRACCIÓN ==================
 
+    /**
+     * Verifica firma y expiración una sola vez y devuelve los claims.
+     * Lanza JwtException si el token es inválido o ya expiró.
+     */
+    public Claims parseClaims(String token) {
+        if (verified == null) return parser.parseClaimsJws(token).getBody();
+
+        String key = hash(token);
+        Claims claims = verified.getIfPresent(key);
+        if (claims != null && !isExpired(claims)) return claims;
+
+        claims = parser.parseClaimsJws(token).getBody();
+        verified.put(key, claims);
+        return claims;
+    }
+
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
@@ -48,34 +92,56 @@ public class JwtUtil {
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> resolver) {
-        final Claims claims = extractAllClaims(token);
-        return resolver.apply(claims);
-    }
-
-    private Claims extractAllClaims(String token) {
-        return Jwts
-                .parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return resolver.apply(parseClaims(token));
     }
 
     // ================== VALIDACIÓN ==================
 
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return username.equalsIgnoreCase(userDetails.getUsername()) && !isTokenExpired(token);
+        return isTokenValid(parseClaims(token), userDetails);
+    }
+
+    public boolean isTokenValid(Claims claims, UserDetails userDetails) {
+        String username = claims.getSubject();
+        return username != null && username.equalsIgnoreCase(userDetails.getUsername()) && !isExpired(claims);
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    public CacheStats verifiedCacheStats() {
+        return verified != null ? verified.stats() : CacheStats.empty();
     }
 
-    // ================== KEY ==================
+    private static boolean isExpired(Claims claims) {
+        Date exp = claims.getExpiration();
+        return exp != null && exp.before(new Date());
+    }
+
+    // ================== CACHÉ ==================
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
 
-    private Key getSigningKey() {
-        byte[] keyBytes = secret.getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes);
+    private static class UntilTokenExpiry implements Expiry<String, Claims> {
+        @Override
+        public long expireAfterCreate(String key, Claims claims, long currentTime) {
+            Date exp = claims.getExpiration();
+            if (exp == null) return TimeUnit.MINUTES.toNanos(5);
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, exp.getTime() - System.currentTimeMillis()));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,58 @@
+package com.example.proyectoweb.security;
+
+import com.example.proyectoweb.common.AfterCommit;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+// Caché de principals autenticados por email, para que el filtro JWT no consulte Persona en cada request.
+// Acotada por tamaño y con TTL; PersonaService la invalida cuando cambia o se borra una persona.
+@Component
+public class PrincipalCache {
+
+    private final Cache<String, UserDetails> cache;
+
+    public PrincipalCache(@Value("${security.principal-cache.max-size:10000}") long maxSize,
+                          @Value("${security.principal-cache.ttl-seconds:300}") long ttlSeconds) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+    }
+
+    public UserDetails get(String email, Function<String, UserDetails> loader) {
+        // El hash del password no hace falta en el filtro: no lo guardamos en memoria
+        return cache.get(key(email), k -> withoutPassword(loader.apply(email)));
+    }
+
+    // Al confirmar, como ProcessGraphCache: un request que cargue el principal antes del commit lee la
+    // persona vieja y, si se invalidara antes, la dejaría en la caché hasta el TTL
+    public void invalidate(String email) {
+        if (email == null) return;
+        String key = key(email);
+        AfterCommit.run(() -> cache.invalidate(key));
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    private static String key(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+
+    private static UserDetails withoutPassword(UserDetails u) {
+        return new User(u.getUsername(), "", u.isEnabled(), u.isAccountNonExpired(),
+                u.isCredentialsNonExpired(), u.isAccountNonLocked(), u.getAuthorities());
+    }
+}
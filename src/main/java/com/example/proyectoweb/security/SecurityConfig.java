@@ -1,5 +1,7 @@
 package com.example.proyectoweb.security;
 
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.boot.web.context.WebServerApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -14,6 +16,7 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.web.context.support.WebApplicationContextUtils;
 
 import lombok.RequiredArgsConstructor;
 
@@ -35,6 +38,11 @@ public class SecurityConfig {
                 .requestMatchers(
                         "/api/auth/**"
                 ).permitAll()
+                // Actuator en management.server.port (sin publicar) queda abierto para el scrape de
+                // Prometheus. En el puerto de la API solo la sonda es pública: /actuator/prometheus
+                // expone rutas, usuarios y volumen de datos
+                .requestMatchers(SecurityConfig::enPuertoDeGestion).permitAll()
+                .requestMatchers("/actuator/health").permitAll()
                 // Todo lo demás protegido
                 .anyRequest().authenticated()
             )
@@ -46,6 +54,12 @@ public class SecurityConfig {
         return http.build();
     }
 
+    // El contexto hijo de actuator, que solo existe cuando management.server.port es otro puerto
+    private static boolean enPuertoDeGestion(HttpServletRequest request) {
+        return WebServerApplicationContext.hasServerNamespace(
+                WebApplicationContextUtils.getWebApplicationContext(request.getServletContext()), "management");
+    }
+
     @Bean
     public UserDetailsService userDetailsService() {
         // Exponemos el CustomUserDetailsService como bean estándar
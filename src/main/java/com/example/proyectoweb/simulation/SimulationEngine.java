@@ -0,0 +1,131 @@
+package com.example.proyectoweb.simulation;
+
+import com.example.proyectoweb.Dto.PathFrequencyDto;
+import com.example.proyectoweb.Dto.SimulationRequestDto;
+import com.example.proyectoweb.Dto.SimulationResultDto;
+import com.example.proyectoweb.condition.GatewayConditions;
+import com.example.proyectoweb.graph.CompiledGraph;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static com.example.proyectoweb.common.DomainExceptions.BadRequest;
+
+/**
+ * Simula instancias de un proceso sobre su {@link CompiledGraph}. Las instancias se reparten en
+ * tramos sobre un ForkJoinPool propio (work-stealing, JDK 17); cada tramo corre en un
+ * {@link SimulationWorker} con sus propios contadores, que se suman al unir las tareas.
+ */
+@Component
+public class SimulationEngine {
+
+    // Instancias por tarea hoja: suficiente para amortizar el fork, chico para repartir bien
+    private static final int CHUNK = 4096;
+    private static final int TOP_PATHS = 20;
+
+    private final ForkJoinPool pool;
+    private final long maxInstances;
+    private final int maxStepsPerInstance;
+    private final int maxPaths;
+
+    public SimulationEngine(@Value("${simulation.parallelism:0}") int parallelism,
+                            @Value("${simulation.max-instances:10000000}") long maxInstances,
+                            @Value("${simulation.max-steps-per-instance:10000}") int maxStepsPerInstance,
+                            @Value("${simulation.max-distinct-paths:10000}") int maxPaths) {
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.maxInstances = maxInstances;
+        this.maxStepsPerInstance = maxStepsPerInstance;
+        this.maxPaths = maxPaths;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    public SimulationResultDto run(CompiledGraph g, SimulationRequestDto req) {
+        return run(g, req, Map.of());
+    }
+
+    /** {@code conditions}: gatewayId -> condiciones compiladas; esos gateways rutean por condición y no por peso. */
+    public SimulationResultDto run(CompiledGraph g, SimulationRequestDto req, Map<Long, GatewayConditions> conditions) {
+        long instances = req.getInstances() != null ? req.getInstances() : 0;
+        if (instances <= 0 || instances > maxInstances)
+            throw new BadRequest("instances debe estar entre 1 y " + maxInstances);
+        if (g.nodeCount() == 0 || g.sources().length == 0)
+            throw new BadRequest("El proceso no tiene actividad inicial");
+        // El configurado es a la vez el valor por defecto y el máximo: cada paso es trabajo del pool compartido
+        Integer steps = req.getMaxStepsPerInstance();
+        if (steps != null && (steps <= 0 || steps > maxStepsPerInstance))
+            throw new BadRequest("maxStepsPerInstance debe estar entre 1 y " + maxStepsPerInstance);
+        int maxSteps = steps != null ? steps : maxStepsPerInstance;
+        long seed = req.getSeed() != null ? req.getSeed() : ThreadLocalRandom.current().nextLong();
+
+        SimulationPlan plan = new SimulationPlan(g, req.getBranchProbabilities(), maxSteps, conditions, req.getVariables());
+        long t0 = System.nanoTime();
+        SimulationTally tally = pool.invoke(new Chunk(plan, seed, maxPaths, 0, instances));
+        long elapsedNanos = Math.max(1, System.nanoTime() - t0);
+
+        return toDto(g, tally, elapsedNanos);
+    }
+
+    private static SimulationResultDto toDto(CompiledGraph g, SimulationTally t, long elapsedNanos) {
+        Map<Long, Long> visits = new LinkedHashMap<>();
+        Map<Long, Long> ends = new LinkedHashMap<>();
+        for (int v = 0; v < g.nodeCount(); v++) {
+            if (t.visits[v] > 0) visits.put(g.activityId(v), t.visits[v]);
+            if (t.ends[v] > 0) ends.put(g.activityId(v), t.ends[v]);
+        }
+
+        List<PathFrequencyDto> top = t.paths.values().stream()
+                .sorted(Comparator.comparingLong((SimulationTally.PathStat s) -> s.count).reversed())
+                .limit(TOP_PATHS)
+                .map(s -> {
+                    List<Long> ids = new ArrayList<>(s.path.length);
+                    for (int v : s.path) ids.add(g.activityId(v));
+                    return new PathFrequencyDto(ids, s.count);
+                })
+                .toList();
+
+        return new SimulationResultDto(
+                g.procesoId(), t.instances, t.completed, t.deadlocked, t.truncated, t.noBranch,
+                elapsedNanos / 1_000_000,
+                t.instances * 1e9 / elapsedNanos,
+                (double) t.steps / t.instances,
+                visits, ends, top, t.untrackedPaths);
+    }
+
+    private static final class Chunk extends RecursiveTask<SimulationTally> {
+        private final SimulationPlan plan;
+        private final long seed;
+        private final int maxPaths;
+        private final long from, to;
+
+        Chunk(SimulationPlan plan, long seed, int maxPaths, long from, long to) {
+            this.plan = plan;
+            this.seed = seed;
+            this.maxPaths = maxPaths;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected SimulationTally compute() {
+            if (to - from <= CHUNK) {
+                SimulationWorker w = new SimulationWorker(plan, seed, maxPaths);
+                for (long i = from; i < to; i++) w.run(i);
+                return w.tally();
+            }
+            long mid = (from + to) >>> 1;
+            Chunk left = new Chunk(plan, seed, maxPaths, from, mid);
+            left.fork();
+            SimulationTally right = new Chunk(plan, seed, maxPaths, mid, to).compute();
+            return left.join().merge(right);
+        }
+    }
+}
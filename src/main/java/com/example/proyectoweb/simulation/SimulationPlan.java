@@ -0,0 +1,159 @@
+package com.example.proyectoweb.simulation;
+
+import com.example.proyectoweb.common.GatewayType;
+import com.example.proyectoweb.condition.GatewayConditions;
+import com.example.proyectoweb.graph.CompiledGraph;
+
+import java.util.*;
+
+// Ruteo precalculado por nodo a partir del grafo compilado y de los pesos pedidos, en arreglos
+// planos para que el bucle de tokens no toque mapas ni objetos. Inmutable y compartido entre hilos.
+final class SimulationPlan {
+
+    static final byte ROUTE_END = 0, ROUTE_SINGLE = 1, ROUTE_ALL = 2, ROUTE_EXCLUSIVE = 3, ROUTE_INCLUSIVE = 4;
+    static final byte JOIN_PASS = 0, JOIN_PARALLEL = 1, JOIN_INCLUSIVE = 2;
+
+    static final double DEFAULT_INCLUSIVE_PROBABILITY = 0.5;
+
+    final CompiledGraph graph;
+    final int nodes;
+    final int arches;
+    final byte[] route;
+    final byte[] join;
+    final int[] outStart, outTarget, outArch;
+    // EXCLUSIVE: probabilidad acumulada normalizada; INCLUSIVE: probabilidad de cada arco
+    final double[] outWeight;
+    final int[] inStart, inArch;
+    // Prioridad para disparar uniones INCLUSIVE pendientes (orden topológico; los nodos en ciclos al final)
+    final int[] rank;
+    final int[] starts;
+    final int maxSteps;
+
+    // Gateways con condiciones: por nodo, las condiciones compiladas, la posición de salida de cada
+    // rama y del default (-1 si no hay) y, por cada variable de la condición, su índice global
+    final GatewayConditions[] conditions;
+    final int[][] branchOut;
+    final int[] defaultOut;
+    final int[][] slotVar;
+    // Valores posibles de cada variable global; con más de uno se sortea uno por instancia
+    final double[][] varChoices;
+
+    SimulationPlan(CompiledGraph g, Map<Long, Double> weights, int maxSteps) {
+        this(g, weights, maxSteps, Map.of(), Map.of());
+    }
+
+    SimulationPlan(CompiledGraph g, Map<Long, Double> weights, int maxSteps,
+                   Map<Long, GatewayConditions> byGateway, Map<String, Object> variables) {
+        this.graph = g;
+        this.nodes = g.nodeCount();
+        this.arches = g.archCount();
+        this.maxSteps = maxSteps;
+        this.route = new byte[nodes];
+        this.join = new byte[nodes];
+        this.outStart = new int[nodes + 1];
+        this.inStart = new int[nodes + 1];
+        for (int v = 0; v < nodes; v++) {
+            outStart[v + 1] = outStart[v] + g.outDegree(v);
+            inStart[v + 1] = inStart[v] + g.inDegree(v);
+        }
+        this.outTarget = new int[outStart[nodes]];
+        this.outArch = new int[outStart[nodes]];
+        this.outWeight = new double[outStart[nodes]];
+        this.inArch = new int[inStart[nodes]];
+
+        for (int v = 0; v < nodes; v++) {
+            for (int k = 0; k < g.outDegree(v); k++) {
+                outTarget[outStart[v] + k] = g.successor(v, k);
+                outArch[outStart[v] + k] = g.outArch(v, k);
+            }
+            for (int k = 0; k < g.inDegree(v); k++) inArch[inStart[v] + k] = g.inArch(v, k);
+
+            route[v] = routeOf(g, v);
+            if (route[v] == ROUTE_EXCLUSIVE) cumulativeWeights(g, v, weights);
+            if (route[v] == ROUTE_INCLUSIVE) inclusiveWeights(g, v, weights);
+
+            int jg = g.joinGatewayOf(v);
+            GatewayType jt = jg >= 0 ? g.gatewayType(jg) : null;
+            join[v] = jt == GatewayType.PARALLEL ? JOIN_PARALLEL
+                    : jt == GatewayType.INCLUSIVE ? JOIN_INCLUSIVE
+                    : JOIN_PASS;
+        }
+
+        this.rank = new int[nodes];
+        Arrays.fill(rank, Integer.MAX_VALUE);
+        int[] topo = g.topologicalOrder();
+        for (int i = 0; i < topo.length; i++) rank[topo[i]] = i;
+        this.starts = g.sources();
+
+        this.conditions = new GatewayConditions[nodes];
+        this.branchOut = new int[nodes][];
+        this.defaultOut = new int[nodes];
+        this.slotVar = new int[nodes][];
+        Arrays.fill(defaultOut, -1);
+        Map<String, Integer> globals = new LinkedHashMap<>();
+        for (int v = 0; v < nodes; v++) {
+            if (route[v] != ROUTE_EXCLUSIVE && route[v] != ROUTE_INCLUSIVE) continue;
+            GatewayConditions c = byGateway.get(g.gatewayId(g.splitGatewayOf(v)));
+            if (c == null) continue;
+            conditions[v] = c;
+            branchOut[v] = new int[c.branchCount()];
+            for (int b = 0; b < c.branchCount(); b++) branchOut[v][b] = outPosition(g, v, c.branchArchId(b));
+            if (c.defaultArchId() != null) defaultOut[v] = outPosition(g, v, c.defaultArchId());
+            List<String> names = c.variables();
+            slotVar[v] = new int[names.size()];
+            for (int s = 0; s < names.size(); s++) slotVar[v][s] = globals.computeIfAbsent(names.get(s), k -> globals.size());
+        }
+        this.varChoices = new double[globals.size()][];
+        for (Map.Entry<String, Integer> e : globals.entrySet())
+            varChoices[e.getValue()] = choices(variables != null ? variables.get(e.getKey()) : null);
+    }
+
+    private int outPosition(CompiledGraph g, int v, long archId) {
+        for (int i = outStart[v]; i < outStart[v + 1]; i++) if (g.archId(outArch[i]) == archId) return i;
+        return -1;
+    }
+
+    private static double[] choices(Object value) {
+        if (!(value instanceof Collection<?> list)) return new double[]{GatewayConditions.toValue(value)};
+        if (list.isEmpty()) return new double[]{Double.NaN};
+        double[] out = new double[list.size()];
+        int i = 0;
+        for (Object o : list) out[i++] = GatewayConditions.toValue(o);
+        return out;
+    }
+
+    private static byte routeOf(CompiledGraph g, int v) {
+        int out = g.outDegree(v);
+        if (out == 0) return ROUTE_END;
+        if (out == 1) return ROUTE_SINGLE;
+        int sg = g.splitGatewayOf(v);
+        // Sin gateway, varias salidas = división implícita (paralela, como en BPMN)
+        if (sg < 0) return ROUTE_ALL;
+        return switch (g.gatewayType(sg)) {
+            case PARALLEL -> ROUTE_ALL;
+            case EXCLUSIVE -> ROUTE_EXCLUSIVE;
+            case INCLUSIVE -> ROUTE_INCLUSIVE;
+        };
+    }
+
+    private void cumulativeWeights(CompiledGraph g, int v, Map<Long, Double> weights) {
+        double total = 0;
+        for (int i = outStart[v]; i < outStart[v + 1]; i++) {
+            total += Math.max(0, weight(weights, g.archId(outArch[i]), 1.0));
+            outWeight[i] = total;
+        }
+        for (int i = outStart[v]; i < outStart[v + 1]; i++)
+            outWeight[i] = total > 0 ? outWeight[i] / total : (double) (i - outStart[v] + 1) / (outStart[v + 1] - outStart[v]);
+    }
+
+    private void inclusiveWeights(CompiledGraph g, int v, Map<Long, Double> weights) {
+        for (int i = outStart[v]; i < outStart[v + 1]; i++)
+            outWeight[i] = Math.min(1, Math.max(0, weight(weights, g.archId(outArch[i]), DEFAULT_INCLUSIVE_PROBABILITY)));
+    }
+
+    private static double weight(Map<Long, Double> weights, long archId, double fallback) {
+        if (weights == null) return fallback;
+        Double w = weights.get(archId);
+        return w != null ? w : fallback;
+    }
+}
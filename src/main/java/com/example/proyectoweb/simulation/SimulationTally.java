@@ -0,0 +1,60 @@
+package com.example.proyectoweb.simulation;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+// Contadores de un tramo de instancias; cada tarea del pool tiene los suyos y se suman al unir
+final class SimulationTally {
+
+    static final class PathStat {
+        final int[] path;
+        long count;
+
+        PathStat(int[] path) { this.path = path; }
+    }
+
+    private final int maxPaths;
+
+    long instances, completed, deadlocked, truncated, noBranch, steps, untrackedPaths;
+    final long[] visits;
+    final long[] ends;
+    final Map<Long, PathStat> paths = new HashMap<>();
+
+    SimulationTally(int nodes, int maxPaths) {
+        this.visits = new long[nodes];
+        this.ends = new long[nodes];
+        this.maxPaths = maxPaths;
+    }
+
+    void path(long hash, int[] buf, int len) {
+        PathStat s = paths.get(hash);
+        if (s == null) {
+            if (paths.size() >= maxPaths) { untrackedPaths++; return; }
+            s = new PathStat(Arrays.copyOf(buf, len));
+            paths.put(hash, s);
+        }
+        s.count++;
+    }
+
+    SimulationTally merge(SimulationTally o) {
+        instances += o.instances;
+        completed += o.completed;
+        deadlocked += o.deadlocked;
+        truncated += o.truncated;
+        noBranch += o.noBranch;
+        steps += o.steps;
+        untrackedPaths += o.untrackedPaths;
+        for (int v = 0; v < visits.length; v++) {
+            visits[v] += o.visits[v];
+            ends[v] += o.ends[v];
+        }
+        for (Map.Entry<Long, PathStat> e : o.paths.entrySet()) {
+            PathStat mine = paths.get(e.getKey());
+            if (mine != null) mine.count += e.getValue().count;
+            else if (paths.size() < maxPaths) paths.put(e.getKey(), e.getValue());
+            else untrackedPaths += e.getValue().count;
+        }
+        return this;
+    }
+}
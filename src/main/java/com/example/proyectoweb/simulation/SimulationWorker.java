@@ -0,0 +1,241 @@
+package com.example.proyectoweb.simulation;
+
+import com.example.proyectoweb.condition.GatewayConditions;
+
+import java.util.Arrays;
+
+import static com.example.proyectoweb.simulation.SimulationPlan.*;
+
+/**
+ * Ejecuta instancias una tras otra sobre un {@link SimulationPlan}. El estado por instancia
+ * (cola de tokens, contadores de uniones, camino) vive en arreglos que se reutilizan, así que
+ * una instancia no reserva memoria. Un worker por tarea del pool; no es thread-safe.
+ *
+ * Semántica de tokens: una unión PARALLEL consume un token de cada arco de entrada; una unión
+ * INCLUSIVE espera a que no quede ningún token activo y dispara una vez; cualquier otro nodo
+ * dispara una vez por token recibido.
+ *
+ * Un gateway con condiciones rutea por ellas (EXCLUSIVE: la primera que se cumple; INCLUSIVE:
+ * todas) y cae al default si ninguna se cumple; sin default el token se pierde y la instancia
+ * cuenta como noBranch.
+ */
+final class SimulationWorker {
+
+    private static final long GOLDEN = 0x9E3779B97F4A7C15L;
+    static final int MAX_PATH = 256;
+
+    private final SimulationPlan p;
+    private final long seed;
+    private final SimulationTally tally;
+
+    private int[] queue = new int[64];
+    private int head, tail;
+
+    private final int[] archTokens;
+    private final int[] satisfied;
+    private int[] touched = new int[16];
+    private int touchedLen;
+
+    private final int[] parked;
+    private int[] parkedNodes = new int[8];
+    private int parkedLen;
+
+    private final int[] pathBuf = new int[MAX_PATH];
+    private int pathLen;
+    private long pathHash;
+
+    private long rng;
+
+    // Valor de cada variable global en la instancia actual y, por nodo con condiciones, su arreglo de slots
+    private final double[] globals;
+    private final double[][] slots;
+    private boolean noBranch;
+
+    SimulationWorker(SimulationPlan plan, long seed, int maxPaths) {
+        this.p = plan;
+        this.seed = seed;
+        this.tally = new SimulationTally(plan.nodes, maxPaths);
+        this.archTokens = new int[plan.arches];
+        this.satisfied = new int[plan.nodes];
+        this.parked = new int[plan.nodes];
+        this.globals = new double[plan.varChoices.length];
+        this.slots = new double[plan.nodes][];
+        for (int v = 0; v < plan.nodes; v++)
+            if (plan.conditions[v] != null) slots[v] = new double[plan.slotVar[v].length];
+    }
+
+    SimulationTally tally() {
+        return tally;
+    }
+
+    void run(long instance) {
+        // Semilla por instancia: el resultado no depende de cómo el pool reparta los tramos
+        rng = mix(seed + instance * GOLDEN);
+        head = tail = 0;
+        pathLen = 0;
+        pathHash = 0xcbf29ce484222325L;
+        tally.instances++;
+        noBranch = false;
+        for (int i = 0; i < globals.length; i++) {
+            double[] c = p.varChoices[i];
+            globals[i] = c.length == 1 ? c[0] : c[(int) (nextDouble() * c.length)];
+        }
+
+        for (int s : p.starts) enqueue(s);
+
+        int steps = 0;
+        boolean truncated = false;
+        while (true) {
+            while (head < tail) {
+                if (++steps > p.maxSteps) { truncated = true; break; }
+                fire(queue[head++]);
+            }
+            if (truncated || parkedLen == 0) break;
+            if (++steps > p.maxSteps) { truncated = true; break; }
+            fire(unparkFirst());
+        }
+        tally.steps += Math.min(steps, p.maxSteps);
+
+        boolean deadlocked = false;
+        for (int i = 0; i < touchedLen; i++) {
+            int a = touched[i];
+            if (archTokens[a] > 0) deadlocked = true;
+            archTokens[a] = 0;
+            satisfied[p.graph.archTarget(a)] = 0;
+        }
+        touchedLen = 0;
+        for (int i = 0; i < parkedLen; i++) parked[parkedNodes[i]] = 0;
+        parkedLen = 0;
+
+        if (truncated) tally.truncated++;
+        else if (noBranch) tally.noBranch++;
+        else if (deadlocked) tally.deadlocked++;
+        else tally.completed++;
+        tally.path(pathHash, pathBuf, pathLen);
+    }
+
+    private void fire(int v) {
+        tally.visits[v]++;
+        pathHash = (pathHash ^ (v + 1)) * 0x100000001b3L;
+        if (pathLen < MAX_PATH) pathBuf[pathLen++] = v;
+
+        int from = p.outStart[v], to = p.outStart[v + 1];
+        if (p.conditions[v] != null) {
+            routeByConditions(v);
+            return;
+        }
+        switch (p.route[v]) {
+            case ROUTE_END -> tally.ends[v]++;
+            case ROUTE_SINGLE -> arrive(p.outTarget[from], p.outArch[from]);
+            case ROUTE_ALL -> {
+                for (int i = from; i < to; i++) arrive(p.outTarget[i], p.outArch[i]);
+            }
+            case ROUTE_EXCLUSIVE -> {
+                double r = nextDouble();
+                int i = from;
+                while (i < to - 1 && r >= p.outWeight[i]) i++;
+                arrive(p.outTarget[i], p.outArch[i]);
+            }
+            case ROUTE_INCLUSIVE -> {
+                boolean any = false;
+                int best = from;
+                for (int i = from; i < to; i++) {
+                    if (p.outWeight[i] > p.outWeight[best]) best = i;
+                    if (nextDouble() < p.outWeight[i]) { arrive(p.outTarget[i], p.outArch[i]); any = true; }
+                }
+                // Un INCLUSIVE siempre deja pasar al menos una rama: la más probable
+                if (!any) arrive(p.outTarget[best], p.outArch[best]);
+            }
+            default -> throw new IllegalStateException("Ruta desconocida " + p.route[v]);
+        }
+    }
+
+    private void routeByConditions(int v) {
+        GatewayConditions c = p.conditions[v];
+        double[] vars = slots[v];
+        int[] slotVar = p.slotVar[v];
+        for (int s = 0; s < vars.length; s++) vars[s] = globals[slotVar[s]];
+
+        int[] branchOut = p.branchOut[v];
+        boolean any = false;
+        if (p.route[v] == ROUTE_EXCLUSIVE) {
+            int b = c.firstMatch(vars);
+            if (b >= 0 && branchOut[b] >= 0) { take(branchOut[b]); any = true; }
+        } else {
+            for (int b = 0; b < branchOut.length; b++)
+                if (branchOut[b] >= 0 && c.test(b, vars)) { take(branchOut[b]); any = true; }
+        }
+        if (any) return;
+        if (p.defaultOut[v] >= 0) take(p.defaultOut[v]);
+        else noBranch = true;
+    }
+
+    private void take(int out) {
+        arrive(p.outTarget[out], p.outArch[out]);
+    }
+
+    private void arrive(int t, int arch) {
+        switch (p.join[t]) {
+            case JOIN_PARALLEL -> {
+                if (archTokens[arch]++ == 0) {
+                    touch(arch);
+                    int needed = p.inStart[t + 1] - p.inStart[t];
+                    ++satisfied[t];
+                    // Puede disparar más de una vez si algún arco traía tokens acumulados
+                    while (satisfied[t] == needed) {
+                        for (int i = p.inStart[t]; i < p.inStart[t + 1]; i++)
+                            if (--archTokens[p.inArch[i]] == 0) satisfied[t]--;
+                        enqueue(t);
+                    }
+                }
+            }
+            case JOIN_INCLUSIVE -> {
+                if (parked[t]++ == 0) {
+                    if (parkedLen == parkedNodes.length) parkedNodes = Arrays.copyOf(parkedNodes, parkedLen * 2);
+                    parkedNodes[parkedLen++] = t;
+                }
+            }
+            default -> enqueue(t);
+        }
+    }
+
+    // La unión pendiente más temprana en orden topológico: ninguna otra pendiente puede alimentarla
+    private int unparkFirst() {
+        int best = 0;
+        for (int i = 1; i < parkedLen; i++)
+            if (p.rank[parkedNodes[i]] < p.rank[parkedNodes[best]]) best = i;
+        int v = parkedNodes[best];
+        parkedNodes[best] = parkedNodes[--parkedLen];
+        parked[v] = 0;
+        return v;
+    }
+
+    private void enqueue(int v) {
+        if (tail == queue.length) {
+            if (head > 0) {
+                System.arraycopy(queue, head, queue, 0, tail - head);
+                tail -= head;
+                head = 0;
+            } else {
+                queue = Arrays.copyOf(queue, queue.length * 2);
+            }
+        }
+        queue[tail++] = v;
+    }
+
+    private void touch(int arch) {
+        if (touchedLen == touched.length) touched = Arrays.copyOf(touched, touchedLen * 2);
+        touched[touchedLen++] = arch;
+    }
+
+    // SplitMix64
+    private double nextDouble() {
+        return (mix(rng += GOLDEN) >>> 11) * 0x1.0p-53;
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
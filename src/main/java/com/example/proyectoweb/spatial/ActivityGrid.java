@@ -0,0 +1,153 @@
+package com.example.proyectoweb.spatial;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongConsumer;
+
+/**
+ * Grilla uniforme con las posiciones de las actividades de un proceso. Cada celda de
+ * {@code cellSize x cellSize} guarda los IDs cuya esquina (x, y) cae en ella, así que un rectángulo
+ * visita solo las celdas que toca. Mover una actividad la cambia de celda sin reconstruir nada.
+ */
+public final class ActivityGrid {
+
+    private final long procesoId;
+    private final int cellSize;
+    // id -> (x << 32 | y)
+    private final Map<Long, Long> positions;
+    // (cx << 32 | cy) -> IDs de la celda
+    private final Map<Long, Bucket> cells = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public ActivityGrid(long procesoId, int cellSize, long[] ids, int[] xs, int[] ys) {
+        if (cellSize <= 0) throw new IllegalArgumentException("cellSize debe ser positivo");
+        this.procesoId = procesoId;
+        this.cellSize = cellSize;
+        this.positions = new HashMap<>(ids.length * 2);
+        for (int i = 0; i < ids.length; i++) {
+            positions.put(ids[i], pack(xs[i], ys[i]));
+            cells.computeIfAbsent(cell(xs[i], ys[i]), k -> new Bucket()).add(ids[i]);
+        }
+    }
+
+    public long procesoId() {
+        return procesoId;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return positions.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Actualiza la posición; no hace nada si la actividad no es de este proceso. */
+    public void move(long id, int x, int y) {
+        lock.writeLock().lock();
+        try {
+            Long old = positions.get(id);
+            if (old == null) return;
+            long from = cell((int) (old >> 32), (int) (long) old), to = cell(x, y);
+            if (from != to) {
+                Bucket b = cells.get(from);
+                if (b.remove(id)) cells.remove(from);
+                cells.computeIfAbsent(to, k -> new Bucket()).add(id);
+            }
+            positions.put(id, pack(x, y));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** IDs (ordenados) con la esquina dentro del rectángulo, bordes incluidos. */
+    public long[] query(int minX, int minY, int maxX, int maxY) {
+        long cx0 = Math.floorDiv(minX, cellSize), cx1 = Math.floorDiv(maxX, cellSize);
+        long cy0 = Math.floorDiv(minY, cellSize), cy1 = Math.floorDiv(maxY, cellSize);
+        Hits hits = new Hits();
+        lock.readLock().lock();
+        try {
+            // Un rectángulo que cubre más celdas de las que están ocupadas recorre las ocupadas
+            if ((double) (cx1 - cx0 + 1) * (cy1 - cy0 + 1) > cells.size()) {
+                for (Map.Entry<Long, Bucket> e : cells.entrySet()) {
+                    long cx = e.getKey() >> 32, cy = (int) (long) e.getKey();
+                    if (cx >= cx0 && cx <= cx1 && cy >= cy0 && cy <= cy1) collect(e.getValue(), minX, minY, maxX, maxY, hits);
+                }
+            } else {
+                for (long cx = cx0; cx <= cx1; cx++)
+                    for (long cy = cy0; cy <= cy1; cy++) {
+                        Bucket b = cells.get(key(cx, cy));
+                        if (b != null) collect(b, minX, minY, maxX, maxY, hits);
+                    }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        long[] out = Arrays.copyOf(hits.ids, hits.n);
+        Arrays.sort(out);
+        return out;
+    }
+
+    void forEachId(LongConsumer action) {
+        lock.readLock().lock();
+        try {
+            for (Long id : positions.keySet()) action.accept(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void collect(Bucket b, int minX, int minY, int maxX, int maxY, Hits hits) {
+        for (int i = 0; i < b.n; i++) {
+            long xy = positions.get(b.ids[i]);
+            int x = (int) (xy >> 32), y = (int) xy;
+            if (x >= minX && x <= maxX && y >= minY && y <= maxY) hits.add(b.ids[i]);
+        }
+    }
+
+    private long cell(int x, int y) {
+        return key(Math.floorDiv(x, cellSize), Math.floorDiv(y, cellSize));
+    }
+
+    private static long key(long cx, long cy) {
+        return (cx << 32) | (cy & 0xFFFFFFFFL);
+    }
+
+    private static long pack(int x, int y) {
+        return ((long) x << 32) | (y & 0xFFFFFFFFL);
+    }
+
+    // IDs de una celda; pocas por celda, así que quitar es una búsqueda lineal
+    private static final class Bucket {
+        long[] ids = new long[4];
+        int n;
+
+        void add(long id) {
+            if (n == ids.length) ids = Arrays.copyOf(ids, n * 2);
+            ids[n++] = id;
+        }
+
+        // true si la celda quedó vacía
+        boolean remove(long id) {
+            for (int i = 0; i < n; i++)
+                if (ids[i] == id) {
+                    ids[i] = ids[--n];
+                    break;
+                }
+            return n == 0;
+        }
+    }
+
+    private static final class Hits {
+        long[] ids = new long[16];
+        int n;
+
+        void add(long id) {
+            if (n == ids.length) ids = Arrays.copyOf(ids, n * 2);
+            ids[n++] = id;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.proyectoweb.spatial;
+
+import com.example.proyectoweb.common.AfterCommit;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Una {@link ActivityGrid} por proceso, construida la primera vez que se pide un rectángulo y
+ * mantenida al día por las escrituras: los movimientos se aplican sobre la grilla y los cambios de
+ * estructura (actividades que entran o salen del proceso) la descartan. El tope es por cantidad de
+ * actividades, no de procesos, para que un proceso enorme no cuente como uno chico.
+ */
+@Component
+public class ActivityViewportIndex {
+
+    /** Posiciones de las actividades de un proceso, tal como salen de la base. */
+    public record Positions(long[] ids, int[] xs, int[] ys) {}
+
+    private final Cache<Long, ActivityGrid> grids;
+    private final int cellSize;
+    // actividad -> grilla que la contiene; solo de grillas en el caché
+    private final ConcurrentHashMap<Long, ActivityGrid> owners = new ConcurrentHashMap<>();
+    // Cambios de actividades sin grilla conocida. Si alguno llega mientras se construye una grilla,
+    // podría ser de ese proceso y haberse leído viejo, así que esa grilla no se guarda.
+    private final AtomicLong untracked = new AtomicLong();
+
+    public ActivityViewportIndex(@Value("${activity-viewport.cache.max-activities:500000}") long maxActivities,
+                                 @Value("${activity-viewport.cell-size:256}") int cellSize) {
+        this.cellSize = cellSize;
+        this.grids = Caffeine.newBuilder()
+                .maximumWeight(maxActivities)
+                .weigher((Long procesoId, ActivityGrid g) -> g.size() + 1)
+                .removalListener((Long procesoId, ActivityGrid g, RemovalCause cause) -> {
+                    if (g != null) g.forEachId(id -> owners.remove(id, g));
+                })
+                .recordStats()
+                .build();
+    }
+
+    /** IDs ordenados de las actividades del proceso con la esquina dentro del rectángulo. */
+    public long[] query(long procesoId, int minX, int minY, int maxX, int maxY, Supplier<Positions> loader) {
+        ActivityGrid g = grids.get(procesoId, id -> build(id, loader, 2));
+        // Construcciones que se cruzaron con cambios sin dueño: esta consulta usa una grilla propia
+        if (g == null) g = build(procesoId, loader, 0);
+        return g.query(minX, minY, maxX, maxY);
+    }
+
+    /** Lo llama ActivityPositionWriter con cada movimiento, antes de escribirlo: la grilla va con las lecturas. */
+    public void moved(long activityId, int x, int y) {
+        ActivityGrid g = owners.get(activityId);
+        if (g != null) g.move(activityId, x, y);
+        // Sin grilla, o con una que todavía no entró al caché o que ya salió y espera al removalListener
+        if (g == null || grids.asMap().get(g.procesoId()) != g) untracked.incrementAndGet();
+    }
+
+    /** Descarta la grilla del proceso al confirmar la transacción en curso. */
+    public void invalidate(long procesoId) {
+        AfterCommit.run(() -> grids.invalidate(procesoId));
+    }
+
+    /** Descarta la grilla del proceso que contiene la actividad, al confirmar la transacción en curso. */
+    public void invalidateActivity(long activityId) {
+        AfterCommit.run(() -> {
+            ActivityGrid g = owners.get(activityId);
+            if (g != null) grids.asMap().remove(g.procesoId(), g);
+            else untracked.incrementAndGet();
+        });
+    }
+
+    public CacheStats stats() {
+        return grids.stats();
+    }
+
+    // null si después de los reintentos sigue sin poder garantizar que la grilla está al día
+    private ActivityGrid build(long procesoId, Supplier<Positions> loader, int retries) {
+        while (true) {
+            long stamp = untracked.get();
+            Positions p = loader.get();
+            ActivityGrid g = new ActivityGrid(procesoId, cellSize, p.ids(), p.xs(), p.ys());
+            if (retries == 0) return g;
+            // Desde acá los movimientos de estas actividades llegan a la grilla
+            for (long id : p.ids()) owners.put(id, g);
+            if (untracked.get() == stamp) return g;
+            for (long id : p.ids()) owners.remove(id, g);
+            if (--retries == 0) return null;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.proyectoweb.versioning;
+
+import com.example.proyectoweb.Modelo.Actividad;
+import com.example.proyectoweb.Modelo.Arch;
+import com.example.proyectoweb.Modelo.Gateway;
+import com.example.proyectoweb.Modelo.Proceso;
+import com.example.proyectoweb.common.ProcessStatus;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.function.ToLongFunction;
+
+/**
+ * Estado versionado de un proceso: sus campos y los conjuntos de IDs de actividades, arcos y
+ * gateways, ordenados y sin repetidos. Inmutable; los arreglos no se exponen.
+ */
+public final class ProcessSnapshot {
+
+    public static final ProcessSnapshot EMPTY =
+            new ProcessSnapshot(null, null, null, null, null, new long[0], new long[0], new long[0]);
+
+    final String name;
+    final String description;
+    final String category;
+    final ProcessStatus status;
+    final Long organizationId;
+    final long[] activityIds;
+    final long[] archIds;
+    final long[] gatewayIds;
+
+    ProcessSnapshot(String name, String description, String category, ProcessStatus status, Long organizationId,
+                    long[] activityIds, long[] archIds, long[] gatewayIds) {
+        this.name = name;
+        this.description = description;
+        this.category = category;
+        this.status = status;
+        this.organizationId = organizationId;
+        this.activityIds = activityIds;
+        this.archIds = archIds;
+        this.gatewayIds = gatewayIds;
+    }
+
+    public static ProcessSnapshot of(Proceso p) {
+        return new ProcessSnapshot(p.getName(), p.getDescription(), p.getCategory(), p.getStatus(),
+                p.getOrganization() != null ? p.getOrganization().getId() : null,
+                ids(p.getActivities(), Actividad::getId), ids(p.getArchs(), Arch::getId), ids(p.getGateways(), Gateway::getId));
+    }
+
+    private static <T> long[] ids(Collection<T> items, ToLongFunction<T> id) {
+        if (items == null) return new long[0];
+        return items.stream().mapToLong(id).sorted().distinct().toArray();
+    }
+
+    public String name() { return name; }
+    public String description() { return description; }
+    public String category() { return category; }
+    public ProcessStatus status() { return status; }
+    public Long organizationId() { return organizationId; }
+    public long[] activityIds() { return activityIds.clone(); }
+    public long[] archIds() { return archIds.clone(); }
+    public long[] gatewayIds() { return gatewayIds.clone(); }
+
+    public boolean sameAs(ProcessSnapshot o) {
+        return Objects.equals(name, o.name) && Objects.equals(description, o.description)
+                && Objects.equals(category, o.category) && status == o.status
+                && Objects.equals(organizationId, o.organizationId)
+                && Arrays.equals(activityIds, o.activityIds) && Arrays.equals(archIds, o.archIds)
+                && Arrays.equals(gatewayIds, o.gatewayIds);
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.proyectoweb.versioning;
+
+import com.example.proyectoweb.common.ProcessStatus;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Codifica el paso de un {@link ProcessSnapshot} a otro en bytes: solo los campos que cambiaron y,
+ * por cada conjunto de IDs, los agregados y los quitados. Un checkpoint es el delta desde
+ * {@link ProcessSnapshot#EMPTY}, así que reconstruir es aplicar un checkpoint y los deltas que lo siguen.
+ * <pre>
+ * formato(1) flags(1) [name] [description] [category] [status] [organizationId]
+ * (agregados, quitados) × {actividades, arcos, gateways}
+ * </pre>
+ * Textos: varint(largo+1) y UTF-8 (0 = null). Listas de IDs: varint(cantidad), el primero en
+ * zigzag y el resto como diferencia con el anterior (ordenadas, así que son positivas y chicas).
+ */
+public final class RevisionCodec {
+
+    private static final byte FORMAT = 1;
+    private static final int NAME = 1, DESCRIPTION = 2, CATEGORY = 4, STATUS = 8, ORGANIZATION = 16;
+    private static final ProcessStatus[] STATUSES = ProcessStatus.values();
+
+    private RevisionCodec() {}
+
+    public static byte[] delta(ProcessSnapshot from, ProcessSnapshot to) {
+        Out out = new Out();
+        out.b(FORMAT);
+        int flags = 0;
+        if (!Objects.equals(from.name, to.name)) flags |= NAME;
+        if (!Objects.equals(from.description, to.description)) flags |= DESCRIPTION;
+        if (!Objects.equals(from.category, to.category)) flags |= CATEGORY;
+        if (from.status != to.status) flags |= STATUS;
+        if (!Objects.equals(from.organizationId, to.organizationId)) flags |= ORGANIZATION;
+        out.b(flags);
+        if ((flags & NAME) != 0) out.str(to.name);
+        if ((flags & DESCRIPTION) != 0) out.str(to.description);
+        if ((flags & CATEGORY) != 0) out.str(to.category);
+        if ((flags & STATUS) != 0) out.varint(to.status != null ? to.status.ordinal() + 1 : 0);
+        if ((flags & ORGANIZATION) != 0) out.varint(to.organizationId != null ? zigzag(to.organizationId) + 1 : 0);
+        setDelta(out, from.activityIds, to.activityIds);
+        setDelta(out, from.archIds, to.archIds);
+        setDelta(out, from.gatewayIds, to.gatewayIds);
+        return out.toArray();
+    }
+
+    public static byte[] checkpoint(ProcessSnapshot s) {
+        return delta(ProcessSnapshot.EMPTY, s);
+    }
+
+    public static ProcessSnapshot apply(ProcessSnapshot base, byte[] delta) {
+        In in = new In(delta);
+        if (in.b() != FORMAT) throw new IllegalStateException("Formato de revisión desconocido");
+        int flags = in.b();
+        String name = (flags & NAME) != 0 ? in.str() : base.name;
+        String description = (flags & DESCRIPTION) != 0 ? in.str() : base.description;
+        String category = (flags & CATEGORY) != 0 ? in.str() : base.category;
+        ProcessStatus status = base.status;
+        if ((flags & STATUS) != 0) {
+            int s = (int) in.varint();
+            status = s == 0 ? null : STATUSES[s - 1];
+        }
+        Long org = base.organizationId;
+        if ((flags & ORGANIZATION) != 0) {
+            long o = in.varint();
+            org = o == 0 ? null : unzigzag(o - 1);
+        }
+        long[] activities = applySet(in, base.activityIds);
+        long[] archs = applySet(in, base.archIds);
+        long[] gateways = applySet(in, base.gatewayIds);
+        return new ProcessSnapshot(name, description, category, status, org, activities, archs, gateways);
+    }
+
+    // ---- conjuntos ordenados ----
+
+    private static void setDelta(Out out, long[] from, long[] to) {
+        long[] added = new long[to.length];
+        long[] removed = new long[from.length];
+        int na = 0, nr = 0, i = 0, j = 0;
+        while (i < from.length || j < to.length) {
+            if (j == to.length || (i < from.length && from[i] < to[j])) removed[nr++] = from[i++];
+            else if (i == from.length || to[j] < from[i]) added[na++] = to[j++];
+            else { i++; j++; }
+        }
+        out.ids(added, na);
+        out.ids(removed, nr);
+    }
+
+    private static long[] applySet(In in, long[] base) {
+        long[] added = in.ids();
+        long[] removed = in.ids();
+        if (added.length == 0 && removed.length == 0) return base;
+        long[] out = new long[base.length + added.length];
+        int n = 0, i = 0, j = 0, r = 0;
+        while (i < base.length || j < added.length) {
+            long v = (j == added.length || (i < base.length && base[i] < added[j])) ? base[i++] : added[j++];
+            while (r < removed.length && removed[r] < v) r++;
+            if (r < removed.length && removed[r] == v) continue;
+            out[n++] = v;
+        }
+        return n == out.length ? out : Arrays.copyOf(out, n);
+    }
+
+    private static long zigzag(long v) { return (v << 1) ^ (v >> 63); }
+    private static long unzigzag(long v) { return (v >>> 1) ^ -(v & 1); }
+
+    // ---- buffers ----
+
+    private static final class Out {
+        private byte[] buf = new byte[64];
+        private int len;
+
+        void b(int v) {
+            if (len == buf.length) buf = Arrays.copyOf(buf, len * 2);
+            buf[len++] = (byte) v;
+        }
+
+        void varint(long v) {
+            while ((v & ~0x7FL) != 0) {
+                b((int) ((v & 0x7F) | 0x80));
+                v >>>= 7;
+            }
+            b((int) v);
+        }
+
+        void str(String s) {
+            if (s == null) { varint(0); return; }
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            varint(bytes.length + 1L);
+            for (byte x : bytes) b(x);
+        }
+
+        void ids(long[] ids, int n) {
+            varint(n);
+            long prev = 0;
+            for (int k = 0; k < n; k++) {
+                varint(k == 0 ? zigzag(ids[0]) : ids[k] - prev);
+                prev = ids[k];
+            }
+        }
+
+        byte[] toArray() { return Arrays.copyOf(buf, len); }
+    }
+
+    private static final class In {
+        private final byte[] buf;
+        private int pos;
+
+        In(byte[] buf) { this.buf = buf; }
+
+        int b() { return buf[pos++] & 0xFF; }
+
+        long varint() {
+            long v = 0;
+            for (int shift = 0; ; shift += 7) {
+                int x = b();
+                v |= (long) (x & 0x7F) << shift;
+                if ((x & 0x80) == 0) return v;
+            }
+        }
+
+        String str() {
+            int n = (int) varint();
+            if (n == 0) return null;
+            String s = new String(buf, pos, n - 1, StandardCharsets.UTF_8);
+            pos += n - 1;
+            return s;
+        }
+
+        long[] ids() {
+            int n = (int) varint();
+            long[] out = new long[n];
+            for (int k = 0; k < n; k++) out[k] = k == 0 ? unzigzag(varint()) : out[k - 1] + varint();
+            return out;
+        }
+    }
+}
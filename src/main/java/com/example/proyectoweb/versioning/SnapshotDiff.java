@@ -0,0 +1,49 @@
+package com.example.proyectoweb.versioning;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Diferencia entre dos {@link ProcessSnapshot}. Los conjuntos de IDs ya están ordenados, así que
+ * agregados y quitados salen de una sola pasada de mezcla: O(n + m) sin armar tablas hash.
+ */
+public final class SnapshotDiff {
+
+    @FunctionalInterface
+    public interface FieldChange {
+        void accept(String field, Object from, Object to);
+    }
+
+    private SnapshotDiff() {}
+
+    /** IDs de {@code to} que no están en {@code from}. */
+    public static long[] added(long[] from, long[] to) {
+        long[] out = new long[to.length];
+        int n = 0, i = 0;
+        for (long v : to) {
+            while (i < from.length && from[i] < v) i++;
+            if (i == from.length || from[i] != v) out[n++] = v;
+        }
+        return n == out.length ? out : Arrays.copyOf(out, n);
+    }
+
+    public static long[] addedActivities(ProcessSnapshot a, ProcessSnapshot b) { return added(a.activityIds, b.activityIds); }
+    public static long[] removedActivities(ProcessSnapshot a, ProcessSnapshot b) { return added(b.activityIds, a.activityIds); }
+    public static long[] addedArchs(ProcessSnapshot a, ProcessSnapshot b) { return added(a.archIds, b.archIds); }
+    public static long[] removedArchs(ProcessSnapshot a, ProcessSnapshot b) { return added(b.archIds, a.archIds); }
+    public static long[] addedGateways(ProcessSnapshot a, ProcessSnapshot b) { return added(a.gatewayIds, b.gatewayIds); }
+    public static long[] removedGateways(ProcessSnapshot a, ProcessSnapshot b) { return added(b.gatewayIds, a.gatewayIds); }
+
+    /** Llama a {@code change} por cada campo escalar que difiere. */
+    public static void fields(ProcessSnapshot a, ProcessSnapshot b, FieldChange change) {
+        field("name", a.name, b.name, change);
+        field("description", a.description, b.description, change);
+        field("category", a.category, b.category, change);
+        field("status", a.status, b.status, change);
+        field("organizationId", a.organizationId, b.organizationId, change);
+    }
+
+    private static void field(String name, Object from, Object to, FieldChange change) {
+        if (!Objects.equals(from, to)) change.accept(name, from, to);
+    }
+}
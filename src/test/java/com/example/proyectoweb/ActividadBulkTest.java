@@ -0,0 +1,68 @@
+package com.example.proyectoweb;
+
+import com.example.proyectoweb.Dto.ActivityDto;
+import com.example.proyectoweb.Repo.RepoActividad;
+import com.example.proyectoweb.Servicio.ActividadService;
+import com.example.proyectoweb.common.DomainExceptions;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class ActividadBulkTest {
+
+    @Autowired ActividadService service;
+    @Autowired RepoActividad repo;
+    @Autowired EntityManagerFactory emf;
+
+    @Test
+    void crearLote_insertaEnLotesYDevuelveIds() {
+        int filas = 500;
+        List<ActivityDto> dtos = new ArrayList<>();
+        for (int i = 0; i < filas; i++) dtos.add(new ActivityDto(null, "L" + i, "task", "d", i, 0));
+
+        Statistics stats = emf.unwrap(SessionFactory.class).getStatistics();
+        stats.setStatisticsEnabled(true);
+        stats.clear();
+
+        List<Long> ids = service.crearLote(dtos);
+
+        assertEquals(filas, ids.size());
+        assertEquals(filas, new HashSet<>(ids).size());
+        // 10 lotes de INSERT + un nextval cada 50 IDs, no 500 INSERT sueltos
+        assertTrue(stats.getPrepareStatementCount() <= 25, "sentencias: " + stats.getPrepareStatementCount());
+        assertEquals("L499", repo.findById(ids.get(filas - 1)).orElseThrow().getName());
+    }
+
+    @Test
+    void actualizarLote_actualizaYReportaFaltantes() {
+        List<Long> ids = service.crearLote(List.of(
+                new ActivityDto(null, "U1", "task", "d", 0, 0),
+                new ActivityDto(null, "U2", "task", "d", 0, 0)));
+
+        service.actualizarLote(List.of(
+                new ActivityDto(ids.get(0), "U1b", "task", "d2", null, null),
+                new ActivityDto(ids.get(1), "U2b", "task", "d2", null, null)));
+        assertEquals("U1b", repo.findById(ids.get(0)).orElseThrow().getName());
+        assertEquals("U2b", repo.findById(ids.get(1)).orElseThrow().getName());
+
+        DomainExceptions.NotFound ex = assertThrows(DomainExceptions.NotFound.class, () -> service.actualizarLote(List.of(
+                new ActivityDto(ids.get(0), "X", "task", "d", null, null),
+                new ActivityDto(-7L, "Y", "task", "d", null, null))));
+        assertTrue(ex.getMessage().contains("-7"));
+        assertEquals("U1b", repo.findById(ids.get(0)).orElseThrow().getName());
+
+        assertThrows(DomainExceptions.BadRequest.class, () -> service.crearLote(List.of()));
+    }
+}
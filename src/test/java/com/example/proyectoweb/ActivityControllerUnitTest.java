@@ -3,13 +3,18 @@ package com.example.proyectoweb;
 import com.example.proyectoweb.Controller.ActivityController;
 import com.example.proyectoweb.Dto.ActivityDto;
 import com.example.proyectoweb.Servicio.ActividadService;
+import com.example.proyectoweb.common.JsonStreamWriter;
+import com.example.proyectoweb.common.Versioned;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -18,24 +23,63 @@ import static org.junit.jupiter.api.Assertions.*;
 public class ActivityControllerUnitTest {
 
     static class ActividadServiceStub extends ActividadService {
-        public ActividadServiceStub() { super(null, null, null); }
-        @Override public ActivityDto crear(ActivityDto dto) { return new ActivityDto(11L, dto.getName(), dto.getType(), dto.getDescription()); }
-        @Override public Optional<ActivityDto> obtener(Long id) { return id==11L ? Optional.of(new ActivityDto(11L,"N","t","d")) : Optional.empty(); }
-        @Override public List<ActivityDto> listar() { return List.of(new ActivityDto(11L,"N","t","d")); }
-        @Override public Optional<ActivityDto> actualizar(Long id, ActivityDto dto) { return Optional.of(new ActivityDto(id, dto.getName(), dto.getType(), dto.getDescription())); }
+        public ActividadServiceStub() { super(null, null, null, null, null, null, null, null); }
+        @Override public ActivityDto crear(ActivityDto dto) { return new ActivityDto(11L, dto.getName(), dto.getType(), dto.getDescription(), null, null); }
+        @Override public Optional<Versioned<ActivityDto>> obtenerVersionado(Long id) { return id==11L ? Optional.of(new Versioned<>(new ActivityDto(11L,"N","t","d", null, null), 3)) : Optional.empty(); }
+        @Override public Optional<Long> version(Long id) { return id==11L ? Optional.of(3L) : Optional.empty(); }
+        @Override public List<ActivityDto> listar() { return List.of(new ActivityDto(11L,"N","t","d", null, null)); }
+        @Override public Optional<ActivityDto> actualizar(Long id, ActivityDto dto) { return Optional.of(new ActivityDto(id, dto.getName(), dto.getType(), dto.getDescription(), null, null)); }
         @Override public boolean eliminar(Long id) { return id != 404L; }
+        @Override public void exportar(Consumer<ActivityDto> sink) {
+            sink.accept(new ActivityDto(1L,"A","t","d", null, null));
+            sink.accept(new ActivityDto(2L,"B","t","d", null, null));
+        }
+    }
+
+    @Test
+    void get_conIfNoneMatchVigente_devuelve304() {
+        ActivityController c = new ActivityController(new ActividadServiceStub(), new JsonStreamWriter(new ObjectMapper()));
+
+        ResponseEntity<ActivityDto> first = c.get(11L, null);
+        assertEquals(200, first.getStatusCode().value());
+        String etag = first.getHeaders().getETag();
+        assertEquals("\"actividad-11-3\"", etag);
+
+        ResponseEntity<ActivityDto> again = c.get(11L, "W/\"otro\", " + etag);
+        assertEquals(304, again.getStatusCode().value());
+        assertNull(again.getBody());
+        assertEquals(200, c.get(11L, "\"actividad-11-2\"").getStatusCode().value());
+        assertEquals(404, c.get(404L, etag).getStatusCode().value());
     }
 
     @Test
     void flow_basico() {
-        ActivityController c = new ActivityController(new ActividadServiceStub());
+        ActivityController c = new ActivityController(new ActividadServiceStub(), new JsonStreamWriter(new ObjectMapper()));
 
-        ResponseEntity<ActivityDto> created = c.create(new ActivityDto(null,"A","t","d"));
+        ResponseEntity<ActivityDto> created = c.create(new ActivityDto(null,"A","t","d", null, null));
         assertEquals(201, created.getStatusCode().value());
         assertEquals(11L, created.getBody().getId());
 
-        assertFalse(c.get(404L).getStatusCode().is2xxSuccessful());
+        assertFalse(c.get(404L, null).getStatusCode().is2xxSuccessful());
         assertTrue(c.delete(11L).getStatusCode().is2xxSuccessful());
         assertEquals(404, c.delete(404L).getStatusCode().value());
     }
+
+    @Test
+    void listStream_json_y_ndjson() throws Exception {
+        ActivityController c = new ActivityController(new ActividadServiceStub(), new JsonStreamWriter(new ObjectMapper()));
+
+        MockHttpServletResponse json = new MockHttpServletResponse();
+        c.listStream(null, json);
+        assertEquals("application/json", json.getContentType().split(";")[0]);
+        List<?> arr = new ObjectMapper().readValue(json.getContentAsString(), List.class);
+        assertEquals(2, arr.size());
+
+        MockHttpServletResponse nd = new MockHttpServletResponse();
+        c.listStream("application/x-ndjson", nd);
+        assertEquals("application/x-ndjson", nd.getContentType().split(";")[0]);
+        String[] lines = nd.getContentAsString().split("\n");
+        assertEquals(2, lines.length);
+        assertEquals(2L, new ObjectMapper().readValue(lines[1], ActivityDto.class).getId());
+    }
 }
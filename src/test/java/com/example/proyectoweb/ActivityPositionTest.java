@@ -0,0 +1,119 @@
+package com.example.proyectoweb;
+
+import com.example.proyectoweb.Dto.*;
+import com.example.proyectoweb.Modelo.Actividad;
+import com.example.proyectoweb.Repo.RepoActividad;
+import com.example.proyectoweb.Servicio.ActividadService;
+import com.example.proyectoweb.Servicio.ProcesoService;
+import com.example.proyectoweb.common.DomainExceptions;
+import com.example.proyectoweb.common.ProcessStatus;
+import com.example.proyectoweb.common.Versioned;
+import com.example.proyectoweb.positions.ActivityPositionWriter;
+import com.example.proyectoweb.spatial.ActivityViewportIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class ActivityPositionTest {
+
+    @Autowired ActividadService service;
+    @Autowired ProcesoService procesos;
+    @Autowired ActivityPositionWriter writer;
+    @Autowired RepoActividad repo;
+    @Autowired JdbcTemplate jdbc;
+    @Autowired PlatformTransactionManager txManager;
+    @Autowired EntityManagerFactory emf;
+    @Autowired ActivityViewportIndex viewport;
+
+    @Test
+    void movimientosRepetidos_seEscribenUnaVezConLaUltimaPosicion() throws Exception {
+        Long a = repo.save(new Actividad(null, "Mover A", "task", "d", 0, 0)).getId();
+        long va = service.version(a).orElseThrow();
+        // Deja la actividad en la caché de segundo nivel
+        assertEquals(0, service.obtener(a).orElseThrow().getX());
+
+        // Intervalo largo: nada se escribe hasta el flush explícito
+        ActivityPositionWriter local = new ActivityPositionWriter(jdbc, txManager, emf, viewport, new SimpleMeterRegistry(), 60_000, 500, 100_000);
+        for (int i = 1; i <= 100; i++) local.record(a, i, -i);
+        // Una actividad que ya no existe no tira el lote
+        local.record(-1L, 1, 1);
+        assertEquals(2, local.pending());
+        local.shutdown();
+
+        ActivityDto dto = service.obtener(a).orElseThrow();
+        assertEquals(100, dto.getX());
+        assertEquals(-100, dto.getY());
+        // Un paso de versión por movimiento, aunque a la base llegue uno solo
+        assertEquals(va + 100, service.version(a).orElseThrow());
+    }
+
+    @Test
+    void moverLote_seVeAlLeerSinEscribir() {
+        Long a = repo.save(new Actividad(null, "Mover B", "task", "d", 0, 0)).getId();
+        long va = service.version(a).orElseThrow();
+        for (int i = 1; i <= 10; i++) service.moverLote(List.of(new ActivityPositionDto(a, i * 2, i * 3)));
+
+        // Escrito o no, la lectura da lo mismo
+        Versioned<ActivityDto> leido = service.obtenerVersionado(a).orElseThrow();
+        assertEquals(20, leido.body().getX());
+        assertEquals(30, leido.body().getY());
+        assertEquals(va + 10, leido.version());
+        writer.flush();
+        assertEquals(va + 10, service.version(a).orElseThrow());
+        assertEquals(20, repo.findById(a).orElseThrow().getX());
+    }
+
+    @Test
+    void guardarDiagrama_despuesDeMover_ganaElGuardado() {
+        Long id = procesos.crear(new ProcesoDto(null, "Posiciones", "D", "Cat", ProcessStatus.DRAFT, null, null, null, null), null).getId();
+        ProcessGraphSaveResultDto r = procesos.guardarGrafo(id,
+                new ProcessGraphDto(null, List.of(new ActivityDto(-1L, "A", "task", "d", 0, 0)), null, null), null);
+        Long a = r.getActivityIds().get(-1L);
+
+        service.moverLote(List.of(new ActivityPositionDto(a, 10, 10)));
+        procesos.guardarGrafo(id, new ProcessGraphDto(null, List.of(new ActivityDto(a, "A", "task", "d", 50, 60)), null, null), null);
+        writer.flush();
+
+        Actividad e = repo.findById(a).orElseThrow();
+        assertEquals(50, e.getX());
+        assertEquals(60, e.getY());
+    }
+
+    @Test
+    void sinConexion_losMovimientosVuelvenALaCola() throws Exception {
+        PlatformTransactionManager caido = new PlatformTransactionManager() {
+            public TransactionStatus getTransaction(TransactionDefinition d) {
+                throw new CannotCreateTransactionException("sin conexiones");
+            }
+            public void commit(TransactionStatus s) {}
+            public void rollback(TransactionStatus s) {}
+        };
+        ActivityPositionWriter local = new ActivityPositionWriter(jdbc, caido, emf, viewport, new SimpleMeterRegistry(), 60_000, 500, 100_000);
+        local.record(1L, 5, 5);
+        local.record(1L, 6, 6);
+
+        assertThrows(CannotCreateTransactionException.class, local::flush);
+        assertEquals(new ActivityPositionWriter.Pending(6, 6, 2), local.pending(1L));
+    }
+
+    @Test
+    void moverLote_validaCadaPosicion() {
+        assertThrows(DomainExceptions.BadRequest.class, () -> service.moverLote(List.of()));
+        assertThrows(DomainExceptions.BadRequest.class,
+                () -> service.moverLote(List.of(new ActivityPositionDto(1L, null, 2))));
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.proyectoweb;
+
+import com.example.proyectoweb.Dto.ActivityDto;
+import com.example.proyectoweb.Dto.ActivityPositionDto;
+import com.example.proyectoweb.Dto.ProcesoDto;
+import com.example.proyectoweb.Modelo.Actividad;
+import com.example.proyectoweb.Repo.RepoActividad;
+import com.example.proyectoweb.Servicio.ActividadService;
+import com.example.proyectoweb.Servicio.ProcesoService;
+import com.example.proyectoweb.common.DomainExceptions;
+import com.example.proyectoweb.common.ProcessStatus;
+import com.example.proyectoweb.spatial.ActivityGrid;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class ActivityViewportTest {
+
+    @Autowired ProcesoService procesos;
+    @Autowired ActividadService actividades;
+    @Autowired RepoActividad repo;
+
+    private List<Long> ids(List<ActivityDto> dtos) {
+        return dtos.stream().map(ActivityDto::getId).toList();
+    }
+
+    @Test
+    void grilla_coincideConRecorrerTodo() {
+        Random rnd = new Random(11);
+        int n = 5_000;
+        long[] ids = new long[n];
+        int[] xs = new int[n], ys = new int[n];
+        for (int i = 0; i < n; i++) {
+            ids[i] = i + 1;
+            xs[i] = rnd.nextInt(20_000) - 10_000;
+            ys[i] = rnd.nextInt(20_000) - 10_000;
+        }
+        ActivityGrid g = new ActivityGrid(1, 256, ids, xs, ys);
+
+        for (int q = 0; q < 300; q++) {
+            // Movimientos entre consultas, algunos cambian de celda
+            for (int m = 0; m < 20; m++) {
+                int i = rnd.nextInt(n);
+                xs[i] += rnd.nextInt(1_000) - 500;
+                ys[i] += rnd.nextInt(1_000) - 500;
+                g.move(ids[i], xs[i], ys[i]);
+            }
+            int x0 = rnd.nextInt(24_000) - 12_000, y0 = rnd.nextInt(24_000) - 12_000;
+            int x1 = x0 + rnd.nextInt(q % 10 == 0 ? 30_000 : 2_000), y1 = y0 + rnd.nextInt(2_000);
+            List<Long> esperado = new ArrayList<>();
+            for (int i = 0; i < n; i++)
+                if (xs[i] >= x0 && xs[i] <= x1 && ys[i] >= y0 && ys[i] <= y1) esperado.add(ids[i]);
+            assertEquals(esperado, Arrays.stream(g.query(x0, y0, x1, y1)).boxed().toList(), "consulta " + q);
+        }
+        assertEquals(n, g.query(Integer.MIN_VALUE, Integer.MIN_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE).length);
+        // Un ID ajeno no entra a la grilla
+        g.move(n + 1, 0, 0);
+        assertEquals(n, g.size());
+    }
+
+    @Test
+    void vista_sigueMovimientosYCambiosDelProceso() {
+        Long a = repo.save(new Actividad(null, "V1", "task", "d", 10, 10)).getId();
+        Long b = repo.save(new Actividad(null, "V2", "task", "d", 500, 40)).getId();
+        Long c = repo.save(new Actividad(null, "V3", "task", "d", null, null)).getId();
+        Long d = repo.save(new Actividad(null, "V4", "task", "d", 2_000, 2_000)).getId();
+        Long id = procesos.crear(new ProcesoDto(null, "Lienzo", "D", "Cat", ProcessStatus.DRAFT, null,
+                List.of(a, b, c), null, null), null).getId();
+
+        // Sin coordenadas cuenta como (0, 0); d no es del proceso
+        assertEquals(List.of(a, c), ids(procesos.actividadesEnVista(id, -5, -5, 100, 100)));
+        assertEquals(List.of(a, b, c), ids(procesos.actividadesEnVista(id, null, null, null, null)));
+
+        // Movimiento diferido: la grilla ya cargada lo ve al leer
+        actividades.moverLote(List.of(new ActivityPositionDto(b, 50, 50)));
+        List<ActivityDto> vista = procesos.actividadesEnVista(id, 0, 0, 100, 100);
+        assertEquals(List.of(a, b, c), ids(vista));
+        assertEquals(50, vista.get(1).getX());
+
+        // Actualización de la actividad con coordenadas nuevas
+        actividades.actualizar(a, new ActivityDto(a, "V1", "task", "d", 3_000, 3_000));
+        assertEquals(List.of(b, c), ids(procesos.actividadesEnVista(id, 0, 0, 100, 100)));
+
+        // Cambio de actividades del proceso
+        procesos.actualizar(id, new ProcesoDto(null, null, null, null, null, null, List.of(a, d), null, null), null);
+        assertEquals(List.of(d), ids(procesos.actividadesEnVista(id, 1_000, 1_000, 2_500, 2_500)));
+        assertEquals(List.of(a, d), ids(procesos.actividadesEnVista(id, 1_000, 1_000, 5_000, 5_000)));
+
+        assertThrows(DomainExceptions.BadRequest.class, () -> procesos.actividadesEnVista(id, 10, 0, 0, 10));
+        assertThrows(DomainExceptions.NotFound.class, () -> procesos.actividadesEnVista(-1L, 0, 0, 1, 1));
+    }
+}
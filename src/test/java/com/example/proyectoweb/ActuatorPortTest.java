@@ -0,0 +1,34 @@
+package com.example.proyectoweb;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "management.server.port=0")
+@ActiveProfiles("test")
+public class ActuatorPortTest {
+
+    @Autowired TestRestTemplate rest;
+    @LocalServerPort int port;
+    @LocalManagementPort int managementPort;
+
+    // Los tests no exportan a Prometheus (sin @AutoConfigureObservability); /actuator/metrics sigue la misma regla
+    @Test
+    void metricas_sinToken_soloEnElPuertoDeGestion() {
+        assertNotEquals(port, managementPort);
+
+        ResponseEntity<String> scrape = rest.getForEntity("http://localhost:" + managementPort + "/actuator/metrics", String.class);
+        assertEquals(200, scrape.getStatusCode().value());
+        assertTrue(scrape.getBody().contains("jvm.memory.used"));
+
+        ResponseEntity<String> publico = rest.getForEntity("http://localhost:" + port + "/actuator/metrics", String.class);
+        assertEquals(403, publico.getStatusCode().value());
+    }
+}
@@ -14,7 +14,7 @@ public class ArchServiceSelfLoopTest {
 
     @Test
     void crear_conMismoOrigenYDestino_debeFallar() {
-        ArchService service = new ArchService(null, null); // repos no usados en este caso
+        ArchService service = new ArchService(null, null, null, null); // repos no usados en este caso
         ArchDto input = new ArchDto(null, 7L, 7L);
 
         RuntimeException ex = assertThrows(RuntimeException.class, () -> service.crear(input));
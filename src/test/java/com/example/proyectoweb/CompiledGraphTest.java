@@ -0,0 +1,112 @@
+package com.example.proyectoweb;
+
+import com.example.proyectoweb.Modelo.*;
+import com.example.proyectoweb.Repo.*;
+import com.example.proyectoweb.Servicio.ProcessGraphService;
+import com.example.proyectoweb.common.GatewayType;
+import com.example.proyectoweb.graph.CompiledGraph;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class CompiledGraphTest {
+
+    @Autowired ProcessGraphService graphs;
+    @Autowired RepoProceso repoProceso;
+    @Autowired RepoActividad repoActividad;
+    @Autowired RepoArch repoArch;
+    @Autowired RepoGateway repoGateway;
+
+    // 10 -> 20 -> 30, 10 -> 30, y el arco 4 apunta a una actividad fuera del proceso
+    private static CompiledGraph diamante() {
+        return CompiledGraph.builder(1L, 0L)
+                .activity(30).activity(10).activity(20)
+                .arch(1, 10, 20).arch(2, 20, 30).arch(3, 10, 30).arch(4, 30, 99)
+                .gateway(7, GatewayType.PARALLEL, 1L).gateway(7, GatewayType.PARALLEL, 3L)
+                .gateway(8, GatewayType.EXCLUSIVE, null)
+                .build();
+    }
+
+    @Test
+    void adyacencia_orden_y_alcance() {
+        CompiledGraph g = diamante();
+        int a = g.indexOf(10), b = g.indexOf(20), c = g.indexOf(30);
+
+        assertEquals(3, g.nodeCount());
+        assertEquals(3, g.edgeCount());
+        assertEquals(-1, g.indexOf(99));
+        assertArrayEquals(new int[]{b, c}, g.successors(a));
+        assertArrayEquals(new int[]{b, a}, g.predecessors(c));
+        assertArrayEquals(new int[]{a}, g.sources());
+        assertArrayEquals(new int[]{c}, g.sinks());
+        assertArrayEquals(new long[]{4}, g.danglingArchIds());
+
+        assertTrue(g.isAcyclic());
+        assertArrayEquals(new int[]{a, b, c}, g.topologicalOrder());
+        assertTrue(g.reaches(a, c));
+        assertFalse(g.reaches(c, a));
+
+        assertEquals(2, g.gatewayCount());
+        assertEquals(GatewayType.PARALLEL, g.gatewayType(0));
+        assertEquals(2, g.gatewayArchCount(0));
+        assertEquals(a, g.archSource(g.gatewayArch(0, 1)));
+        assertEquals(0, g.gatewayArchCount(1));
+    }
+
+    @Test
+    void ciclo_quedaFueraDelOrdenTopologico() {
+        CompiledGraph g = CompiledGraph.builder(1L, 0L)
+                .activity(1).activity(2).activity(3)
+                .arch(1, 1, 2).arch(2, 2, 3).arch(3, 3, 2)
+                .build();
+
+        assertFalse(g.isAcyclic());
+        assertArrayEquals(new int[]{g.indexOf(1)}, g.topologicalOrder());
+        BitSet hastaTres = g.reachingTo(g.indexOf(3));
+        assertEquals(3, hastaTres.cardinality());
+    }
+
+    @Test
+    void compilado_seCacheaPorVersion() {
+        Actividad x = repoActividad.save(new Actividad(null, "X", "task", "d", 0, 0));
+        Actividad y = repoActividad.save(new Actividad(null, "Y", "task", "d", 0, 0));
+        Actividad z = repoActividad.save(new Actividad(null, "Z", "task", "d", 0, 0));
+        Arch xy = repoArch.save(new Arch(null, x, y));
+        Gateway gw = repoGateway.save(new Gateway(null, GatewayType.EXCLUSIVE, new ArrayList<>(List.of(xy)), null));
+
+        Proceso p = new Proceso();
+        p.setName("Grafo");
+        p.setDescription("D");
+        p.setCategory("Cat");
+        p.setActivities(new ArrayList<>(List.of(x, y)));
+        p.setArchs(new ArrayList<>(List.of(xy)));
+        p.setGateways(new ArrayList<>(List.of(gw)));
+        p = repoProceso.save(p);
+
+        CompiledGraph g1 = graphs.compilado(p.getId());
+        assertSame(g1, graphs.compilado(p.getId()));
+        assertEquals(2, g1.nodeCount());
+        assertEquals(1, g1.edgeCount());
+        assertEquals(gw.getId(), g1.gatewayId(0));
+
+        // Cambiar la tabla intermedia sube la versión y fuerza recompilar
+        Arch yz = repoArch.save(new Arch(null, y, z));
+        p.setActivities(new ArrayList<>(List.of(x, y, z)));
+        p.setArchs(new ArrayList<>(List.of(xy, yz)));
+        p = repoProceso.save(p);
+
+        CompiledGraph g2 = graphs.compilado(p.getId());
+        assertNotSame(g1, g2);
+        assertTrue(g2.version() > g1.version());
+        assertTrue(g2.reaches(g2.indexOf(x.getId()), g2.indexOf(z.getId())));
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.proyectoweb;
+
+import com.example.proyectoweb.Controller.ProcesoController;
+import com.example.proyectoweb.Dto.ProcessDiffDto;
+import com.example.proyectoweb.Dto.SimulationRequestDto;
+import com.example.proyectoweb.Dto.SimulationResultDto;
+import com.example.proyectoweb.Dto.ValidationResultDto;
+import com.example.proyectoweb.Servicio.ProcesoService;
+import com.example.proyectoweb.common.DomainExceptions;
+import com.example.proyectoweb.exception.GlobalExceptionHandler;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class DomainExceptionStatusTest {
+
+    static class ProcesoServiceStub extends ProcesoService {
+        public ProcesoServiceStub() { super(null,null,null,null,null,null,null,null,null,null,null,null,null,null,null); }
+        @Override public ValidationResultDto validar(Long id) {
+            throw new DomainExceptions.NotFound("Proceso no encontrado");
+        }
+        @Override public SimulationResultDto simular(Long id, SimulationRequestDto req) {
+            throw new DomainExceptions.BadRequest("instances debe estar entre 1 y 10");
+        }
+        @Override public ProcessDiffDto diff(Long procesoId, int from, int to) {
+            throw new DomainExceptions.Conflict("El proceso cambió");
+        }
+    }
+
+    private final MockMvc mvc = MockMvcBuilders.standaloneSetup(new ProcesoController(new ProcesoServiceStub()))
+            .setControllerAdvice(new GlobalExceptionHandler())
+            .build();
+
+    @Test
+    void notFound_es404() throws Exception {
+        mvc.perform(get("/api/processes/7/validate"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.error").value("NOT_FOUND"))
+                .andExpect(jsonPath("$.message").value("Proceso no encontrado"))
+                .andExpect(jsonPath("$.path").value("/api/processes/7/validate"));
+    }
+
+    @Test
+    void badRequest_es400() throws Exception {
+        mvc.perform(post("/api/processes/7/simulate").contentType(MediaType.APPLICATION_JSON).content("{}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("BAD_REQUEST"))
+                .andExpect(jsonPath("$.status").value(400));
+    }
+
+    @Test
+    void conflict_es409() throws Exception {
+        mvc.perform(get("/api/processes/7/diff").param("from", "1").param("to", "2"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error").value("CONFLICT"));
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.proyectoweb;
+
+import com.example.proyectoweb.Dto.GatewayDto;
+import com.example.proyectoweb.Dto.SimulationRequestDto;
+import com.example.proyectoweb.Dto.SimulationResultDto;
+import com.example.proyectoweb.Modelo.*;
+import com.example.proyectoweb.Repo.*;
+import com.example.proyectoweb.Servicio.GatewayService;
+import com.example.proyectoweb.Servicio.ProcessGraphService;
+import com.example.proyectoweb.common.DomainExceptions;
+import com.example.proyectoweb.common.GatewayType;
+import com.example.proyectoweb.condition.ConditionCache;
+import com.example.proyectoweb.condition.GatewayConditions;
+import com.example.proyectoweb.condition.Symbols;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class GatewayConditionsTest {
+
+    @Autowired GatewayService gatewayService;
+    @Autowired ProcessGraphService graphs;
+    @Autowired RepoProceso repoProceso;
+    @Autowired RepoActividad repoActividad;
+    @Autowired RepoArch repoArch;
+    @Autowired RepoGateway repoGateway;
+
+    private static String cond(String when) {
+        return "{\"branches\":[{\"archId\":10,\"when\":\"" + when + "\"}]}";
+    }
+
+    private static GatewayConditions una(String when) {
+        return GatewayConditions.compile(1L, cond(when));
+    }
+
+    @Test
+    void evalua_precedenciaTextosYBooleanos() {
+        GatewayConditions c = GatewayConditions.compile(1L, """
+                {"branches": [
+                   {"archId": 10, "when": "monto * 2 > 1000 + 500 && prioridad == 'ALTA'"},
+                   {"archId": 11, "when": "!urgente || monto <= 100"}],
+                 "default": 12}""");
+        assertEquals(List.of("monto", "prioridad", "urgente"), c.variables());
+
+        assertEquals(0, c.firstMatch(c.bind(Map.of("monto", 800, "prioridad", "ALTA", "urgente", true))));
+        assertEquals(1, c.firstMatch(c.bind(Map.of("monto", 800, "prioridad", "BAJA", "urgente", false))));
+        assertEquals(-1, c.firstMatch(c.bind(Map.of("monto", 700, "prioridad", "ALTA", "urgente", true))));
+        assertEquals(12L, c.defaultArchId());
+
+        assertTrue(una("1 + 2 * 3 == 7").test(0, new double[0]));
+        assertTrue(una("(1 + 2) * 3 == 9").test(0, new double[0]));
+        assertTrue(una("-x < 0 && !(x != 4)").test(0, new double[]{4}));
+    }
+
+    @Test
+    void variableAusente_noCumpleComparaciones() {
+        GatewayConditions c = una("monto > 10 || monto <= 10");
+        assertFalse(c.test(0, c.bind(Map.of())));
+        // Un texto que no aparece en ninguna condición no iguala a nada
+        GatewayConditions t = una("estado == 'APROBADO'");
+        assertFalse(t.test(0, t.bind(Map.of("estado", "valor-que-no-esta-en-ninguna-condicion"))));
+    }
+
+    @Test
+    void constantes_sePliegan() {
+        GatewayConditions c = una("1 < 2 && true");
+        assertTrue(c.variables().isEmpty());
+        assertTrue(c.test(0, new double[0]));
+    }
+
+    @Test
+    void sintaxisInvalida_esBadRequest() {
+        assertThrows(DomainExceptions.BadRequest.class, () -> una("monto >"));
+        assertThrows(DomainExceptions.BadRequest.class, () -> una("(a && b"));
+        assertThrows(DomainExceptions.BadRequest.class, () -> una("a == 'sin cerrar"));
+        assertThrows(DomainExceptions.BadRequest.class, () -> GatewayConditions.compile(1L, "{no json"));
+        assertThrows(DomainExceptions.BadRequest.class, () -> GatewayConditions.compile(1L, "{\"branches\":[{\"when\":\"a\"}]}"));
+    }
+
+    @Test
+    void anidamientoYLargo_acotados() {
+        String profundo = "(".repeat(10_000) + "a" + ")".repeat(10_000);
+        assertThrows(DomainExceptions.BadRequest.class, () -> GatewayConditions.check(1L, cond(profundo)));
+        assertThrows(DomainExceptions.BadRequest.class, () -> GatewayConditions.check(1L, cond("!".repeat(60) + "a")));
+        assertThrows(DomainExceptions.BadRequest.class, () -> GatewayConditions.check(1L, cond("a > " + "1".repeat(3_000))));
+        assertTrue(una("(".repeat(20) + "a > 1" + ")".repeat(20)).test(0, new double[]{2}));
+    }
+
+    @Test
+    void cache_porVersion_noSirveCondicionesViejas() {
+        ConditionCache cache = new ConditionCache(100);
+        GatewayConditions v1 = cache.get(new ConditionCache.Key(99L, 1), cond("a > 1"));
+        // Lectura vieja compilada después del cambio: queda bajo la versión 1
+        assertSame(v1, cache.get(new ConditionCache.Key(99L, 1), cond("a > 1")));
+        GatewayConditions v2 = cache.get(new ConditionCache.Key(99L, 2), cond("a < 1"));
+        assertTrue(v2.test(0, new double[]{0}));
+        assertFalse(v1.test(0, new double[]{0}));
+    }
+
+    @Test
+    void validar_noRegistraTextos() {
+        GatewayConditions c = GatewayConditions.check(1L, cond("estado == 'solo-validado' || estado == 'solo-validado-2'"));
+        assertEquals(List.of("estado"), c.variables());
+        assertTrue(Double.isNaN(Symbols.valueOf("solo-validado")));
+        una("estado == 'compilado'");
+        assertFalse(Double.isNaN(Symbols.valueOf("compilado")));
+    }
+
+    @Test
+    void gateway_rechazaCondicionSobreArcoAjeno() {
+        Actividad a = repoActividad.save(new Actividad(null, "A", "task", "d", 0, 0));
+        Actividad b = repoActividad.save(new Actividad(null, "B", "task", "d", 0, 0));
+        Arch ab = repoArch.save(new Arch(null, a, b));
+        Arch ba = repoArch.save(new Arch(null, b, a));
+
+        String json = "{\"branches\":[{\"archId\":" + ba.getId() + ",\"when\":\"x > 1\"}]}";
+        GatewayDto dto = new GatewayDto(null, GatewayType.EXCLUSIVE, List.of(ab.getId()), json);
+        assertThrows(DomainExceptions.BadRequest.class, () -> gatewayService.crear(dto));
+
+        dto.setConditionsJson("{\"branches\":[{\"archId\":" + ab.getId() + ",\"when\":\"x >\"}]}");
+        assertThrows(DomainExceptions.BadRequest.class, () -> gatewayService.crear(dto));
+    }
+
+    @Test
+    void simulacion_ruteaPorCondiciones() {
+        Actividad inicio = repoActividad.save(new Actividad(null, "Inicio", "task", "d", 0, 0));
+        Actividad alta = repoActividad.save(new Actividad(null, "Alta", "task", "d", 0, 0));
+        Actividad baja = repoActividad.save(new Actividad(null, "Baja", "task", "d", 0, 0));
+        Arch aAlta = repoArch.save(new Arch(null, inicio, alta));
+        Arch aBaja = repoArch.save(new Arch(null, inicio, baja));
+        String json = "{\"branches\":[{\"archId\":" + aAlta.getId() + ",\"when\":\"monto > 1000\"}],"
+                + "\"default\":" + aBaja.getId() + "}";
+        Gateway gw = repoGateway.save(new Gateway(null, GatewayType.EXCLUSIVE, new ArrayList<>(List.of(aAlta, aBaja)), json));
+
+        Proceso p = new Proceso();
+        p.setName("Condiciones");
+        p.setDescription("D");
+        p.setCategory("Cat");
+        p.setActivities(new ArrayList<>(List.of(inicio, alta, baja)));
+        p.setArchs(new ArrayList<>(List.of(aAlta, aBaja)));
+        p.setGateways(new ArrayList<>(List.of(gw)));
+        p = repoProceso.save(p);
+
+        // Con un valor fijo todas las instancias van por la misma rama, sin importar los pesos
+        SimulationResultDto fijo = graphs.simular(p.getId(), new SimulationRequestDto(1_000L, 1L,
+                Map.of(aBaja.getId(), 1.0, aAlta.getId(), 0.0), null, Map.of("monto", 5000)));
+        assertEquals(1_000L, fijo.getEndFrequency().get(alta.getId()));
+
+        // Sin la variable: no se cumple ninguna rama y cae al default
+        SimulationResultDto sinVariable = graphs.simular(p.getId(), new SimulationRequestDto(1_000L, 1L, null, null, null));
+        assertEquals(1_000L, sinVariable.getEndFrequency().get(baja.getId()));
+
+        // Una lista se sortea por instancia
+        SimulationResultDto sorteo = graphs.simular(p.getId(), new SimulationRequestDto(10_000L, 1L, null, null,
+                Map.of("monto", List.of(500, 2000))));
+        assertEquals(0.5, sorteo.getEndFrequency().get(alta.getId()) / 10_000.0, 0.03);
+        assertEquals(10_000L, sorteo.getCompleted());
+    }
+}
@@ -14,7 +14,7 @@ public class GatewayServiceValidationTest {
 
     @Test
     void crear_sinTipo_debeFallar() {
-        GatewayService service = new GatewayService(null, null); // repos no usados si type==null
+        GatewayService service = new GatewayService(null, null, null, null, null); // repos no usados si type==null
         GatewayDto dto = new GatewayDto(null, null, null, null);
 
         NullPointerException ex = assertThrows(NullPointerException.class, () -> service.crear(dto));
@@ -0,0 +1,65 @@
+package com.example.proyectoweb;
+
+import com.example.proyectoweb.Modelo.Actividad;
+import com.example.proyectoweb.Repo.RepoActividad;
+import com.example.proyectoweb.common.DomainExceptions;
+import com.example.proyectoweb.common.IdResolver;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class IdResolverRoundTripTest {
+
+    @Autowired RepoActividad repoActividad;
+    @Autowired EntityManagerFactory emf;
+
+    @Test
+    void resolveAll_unaConsultaEnVezDeUnaPorId() {
+        int n = 200;
+        List<Long> ids = new ArrayList<>(n);
+        for (int i = 0; i < n; i++)
+            ids.add(repoActividad.save(new Actividad(null, "R" + i, "task", "d", 0, 0)).getId());
+        Collections.reverse(ids);
+
+        Statistics stats = emf.unwrap(SessionFactory.class).getStatistics();
+        stats.setStatisticsEnabled(true);
+
+        // Antes: un findById por cada ID (sin el caché de segundo nivel, que los resolvería sin SQL)
+        emf.getCache().evict(Actividad.class);
+        stats.clear();
+        for (Long id : ids) repoActividad.findById(id).orElseThrow();
+        long antes = stats.getPrepareStatementCount();
+
+        // Después: un único SELECT ... IN
+        stats.clear();
+        List<Actividad> out = IdResolver.resolveAll(repoActividad, ids, Actividad::getId, "Actividad");
+        long despues = stats.getPrepareStatementCount();
+        stats.setStatisticsEnabled(false);
+
+        assertEquals(n, antes);
+        assertEquals(1, despues);
+        assertEquals(ids, out.stream().map(Actividad::getId).toList());
+    }
+
+    @Test
+    void resolveAll_reportaTodosLosFaltantes() {
+        Long ok = repoActividad.save(new Actividad(null, "X", "task", "d", 0, 0)).getId();
+
+        DomainExceptions.NotFound ex = assertThrows(DomainExceptions.NotFound.class,
+                () -> IdResolver.resolveAll(repoActividad, List.of(ok, -1L, -2L), Actividad::getId, "Actividad"));
+        assertTrue(ex.getMessage().contains("-1"));
+        assertTrue(ex.getMessage().contains("-2"));
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.proyectoweb;
+
+import com.example.proyectoweb.security.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class JwtUtilTest {
+
+    private static final String SECRET = "mi-super-clave-12345678901234567890";
+
+    private final UserDetails ana = new User("ana@acme.com", "", List.of());
+
+    @Test
+    void parseClaims_segundaVezSaleDeLaCache() {
+        JwtUtil jwt = new JwtUtil(SECRET, 60_000L, 100L);
+        String token = jwt.generateToken(ana);
+
+        Claims first = jwt.parseClaims(token);
+        Claims second = jwt.parseClaims(token);
+
+        assertSame(first, second);
+        assertEquals(1, jwt.verifiedCacheStats().hitCount());
+        assertTrue(jwt.isTokenValid(token, ana));
+        assertFalse(jwt.isTokenValid(first, new User("otro@acme.com", "", List.of())));
+    }
+
+    @Test
+    void parseClaims_firmaAlteradaOExpirado_falla() {
+        JwtUtil jwt = new JwtUtil(SECRET, 60_000L, 100L);
+        String token = jwt.generateToken(ana);
+        String alterado = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+        assertThrows(JwtException.class, () -> jwt.parseClaims(alterado));
+
+        JwtUtil vencido = new JwtUtil(SECRET, -1_000L, 100L);
+        String expirado = vencido.generateToken(ana);
+        assertThrows(ExpiredJwtException.class, () -> vencido.parseClaims(expirado));
+    }
+}
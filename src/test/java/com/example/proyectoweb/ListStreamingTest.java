@@ -0,0 +1,74 @@
+package com.example.proyectoweb;
+
+import com.example.proyectoweb.Dto.ActivityDto;
+import com.example.proyectoweb.Dto.GatewayDto;
+import com.example.proyectoweb.Modelo.Actividad;
+import com.example.proyectoweb.Modelo.Arch;
+import com.example.proyectoweb.Modelo.Gateway;
+import com.example.proyectoweb.Repo.RepoActividad;
+import com.example.proyectoweb.Repo.RepoArch;
+import com.example.proyectoweb.Repo.RepoGateway;
+import com.example.proyectoweb.Servicio.ActividadService;
+import com.example.proyectoweb.Servicio.GatewayService;
+import com.example.proyectoweb.common.GatewayType;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class ListStreamingTest {
+
+    @Autowired ActividadService actividadService;
+    @Autowired GatewayService gatewayService;
+    @Autowired RepoActividad repoActividad;
+    @Autowired RepoArch repoArch;
+    @Autowired RepoGateway repoGateway;
+    @Autowired EntityManagerFactory emf;
+
+    @Test
+    void exportar_actividades_unaSolaConsultaYEnOrden() {
+        List<Actividad> nuevas = new ArrayList<>();
+        for (int i = 0; i < 1200; i++) nuevas.add(new Actividad(null, "S" + i, "task", "d", i, i));
+        Set<Long> ids = new HashSet<>();
+        repoActividad.saveAll(nuevas).forEach(a -> ids.add(a.getId()));
+
+        Statistics stats = emf.unwrap(SessionFactory.class).getStatistics();
+        stats.setStatisticsEnabled(true);
+        stats.clear();
+
+        List<ActivityDto> out = new ArrayList<>();
+        actividadService.exportar(out::add);
+
+        assertEquals(1, stats.getPrepareStatementCount());
+        assertTrue(out.stream().map(ActivityDto::getId).toList().containsAll(ids));
+        for (int i = 1; i < out.size(); i++) assertTrue(out.get(i - 1).getId() < out.get(i).getId());
+    }
+
+    @Test
+    void exportar_gateways_agrupaArcosPorGateway() {
+        Actividad a1 = repoActividad.save(new Actividad(null, "G1", "task", "d", 0, 0));
+        Actividad a2 = repoActividad.save(new Actividad(null, "G2", "task", "d", 0, 0));
+        Arch x = repoArch.save(new Arch(null, a1, a2));
+        Arch y = repoArch.save(new Arch(null, a2, a1));
+        Gateway conArcos = repoGateway.save(new Gateway(null, GatewayType.PARALLEL, new ArrayList<>(List.of(x, y)), "{}"));
+        Gateway sinArcos = repoGateway.save(new Gateway(null, GatewayType.EXCLUSIVE, new ArrayList<>(), null));
+
+        Map<Long, GatewayDto> porId = new HashMap<>();
+        gatewayService.exportar(g -> assertNull(porId.put(g.getId(), g), "gateway repetido " + g.getId()));
+
+        GatewayDto dto = porId.get(conArcos.getId());
+        assertEquals(GatewayType.PARALLEL, dto.getType());
+        assertEquals("{}", dto.getConditionsJson());
+        assertEquals(Set.of(x.getId(), y.getId()), new HashSet<>(dto.getArchIds()));
+        assertTrue(porId.get(sinArcos.getId()).getArchIds().isEmpty());
+    }
+}
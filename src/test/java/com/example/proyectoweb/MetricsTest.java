@@ -0,0 +1,42 @@
+package com.example.proyectoweb;
+
+import com.example.proyectoweb.Servicio.OrganizationService;
+import com.example.proyectoweb.metrics.ServiceMetricsAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class MetricsTest {
+
+    @Autowired MeterRegistry registry;
+    @Autowired OrganizationService organizationService;
+
+    @Test
+    void metodosDeServicio_quedanCronometrados() {
+        organizationService.listar();
+        organizationService.obtener(-1L);
+
+        Timer listar = registry.find(ServiceMetricsAspect.METRIC)
+                .tags("class", "OrganizationService", "method", "listar", "exception", "none").timer();
+        assertNotNull(listar);
+        assertTrue(listar.count() >= 1);
+        assertNotNull(registry.find(ServiceMetricsAspect.METRIC).tags("method", "obtener").timer());
+    }
+
+    @Test
+    void caches_hikariEHibernate_registrados() {
+        for (String cache : new String[]{"principal", "jwt.verified", "process-graph", "gateway-conditions", "l2.organization"}) {
+            assertNotNull(registry.find("cache.gets").tags("cache", cache, "result", "hit").functionCounter(), cache);
+            assertNotNull(registry.find("cache.hit.ratio").tags("cache", cache).gauge(), cache);
+        }
+        assertNotNull(registry.find("hikaricp.connections.active").gauge());
+        assertNotNull(registry.find("hibernate.statements").functionCounter());
+    }
+}
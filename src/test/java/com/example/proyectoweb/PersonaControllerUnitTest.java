@@ -18,7 +18,7 @@ import static org.junit.jupiter.api.Assertions.*;
 public class PersonaControllerUnitTest {
 
     static class PersonaServiceStub extends PersonaService {
-        public PersonaServiceStub() { super(null, null, null); }
+        public PersonaServiceStub() { super(null, null, null, null, null); }
         @Override public PersonaDto crear(PersonaDto dto) { return new PersonaDto(1L, dto.getName(), dto.getEmail(), dto.getPassword(), dto.getOrganizationId()); }
         @Override public Optional<PersonaDto> obtener(Long id) { return id==1L? Optional.of(new PersonaDto(1L,"Ana","ana@acme.com","x",1L)): Optional.empty(); }
         @Override public List<PersonaDto> listar() { return List.of(new PersonaDto(1L,"Ana","ana@acme.com","x",1L)); }
@@ -28,7 +28,7 @@ public class PersonaControllerUnitTest {
 
     @Test
     void flow_basico() {
-        PersonaController c = new PersonaController(new PersonaServiceStub());
+        PersonaController c = new PersonaController(new PersonaServiceStub(), null);
         ResponseEntity<PersonaDto> created = c.create(new PersonaDto(null,"Ana","ana@acme.com","x",1L));
         assertEquals(201, created.getStatusCode().value());
         assertEquals(1L, created.getBody().getId());
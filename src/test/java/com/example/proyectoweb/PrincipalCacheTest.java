@@ -0,0 +1,83 @@
+package com.example.proyectoweb;
+
+import com.example.proyectoweb.Dto.PersonaDto;
+import com.example.proyectoweb.Servicio.PersonaService;
+import com.example.proyectoweb.security.PrincipalCache;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class PrincipalCacheTest {
+
+    @Autowired PrincipalCache cache;
+    @Autowired PersonaService personaService;
+    @Autowired PlatformTransactionManager txManager;
+
+    @Test
+    void get_cargaUnaVezPorEmailYNoGuardaPassword() {
+        AtomicInteger loads = new AtomicInteger();
+        Function<String, UserDetails> loader = email -> {
+            loads.incrementAndGet();
+            return new User(email, "hash", List.of());
+        };
+        long hitsAntes = cache.stats().hitCount();
+
+        UserDetails first = cache.get("cache@acme.com", loader);
+        UserDetails second = cache.get("CACHE@acme.com", loader);
+
+        assertEquals(1, loads.get());
+        assertSame(first, second);
+        assertEquals("", first.getPassword());
+        assertEquals(hitsAntes + 1, cache.stats().hitCount());
+    }
+
+    @Test
+    void actualizarYEliminarPersona_invalidanElPrincipal() {
+        PersonaDto p = personaService.crear(new PersonaDto(null, "Cache", "inval@acme.com", "secret", null));
+        AtomicInteger loads = new AtomicInteger();
+        Function<String, UserDetails> loader = email -> {
+            loads.incrementAndGet();
+            return new User(email, "hash", List.of());
+        };
+
+        cache.get("inval@acme.com", loader);
+        personaService.actualizar(p.getId(), new PersonaDto(null, "Cache 2", "inval@acme.com", null, null));
+        cache.get("inval@acme.com", loader);
+        assertEquals(2, loads.get());
+
+        personaService.eliminar(p.getId());
+        cache.get("inval@acme.com", loader);
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void principalCargadoAntesDelCommit_noQuedaEnLaCache() {
+        PersonaDto p = personaService.crear(new PersonaDto(null, "Commit", "commit@acme.com", "secret", null));
+        AtomicInteger loads = new AtomicInteger();
+        Function<String, UserDetails> loader = email -> {
+            loads.incrementAndGet();
+            return new User(email, "hash", List.of());
+        };
+
+        // Un request que llega entre el cambio y el commit carga la persona vieja
+        new TransactionTemplate(txManager).executeWithoutResult(s -> {
+            personaService.actualizar(p.getId(), new PersonaDto(null, "Commit 2", "commit@acme.com", null, null));
+            cache.get("commit@acme.com", loader);
+        });
+        cache.get("commit@acme.com", loader);
+        assertEquals(2, loads.get());
+    }
+}
@@ -2,9 +2,12 @@ package com.example.proyectoweb;
 
 import com.example.proyectoweb.Controller.ProcesoController;
 import com.example.proyectoweb.Dto.ProcesoDto;
-import com.example.proyectoweb.Modelo.ProcessHistory;
+import com.example.proyectoweb.Dto.ProcesoPageDto;
+import com.example.proyectoweb.Dto.ProcessHistoryDto;
+import com.example.proyectoweb.Dto.ProcessHistoryPageDto;
 import com.example.proyectoweb.Servicio.ProcesoService;
 import com.example.proyectoweb.common.ProcessStatus;
+import com.example.proyectoweb.common.Versioned;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.ResponseEntity;
@@ -17,47 +20,73 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 
 @SpringBootTest
 @ActiveProfiles("test")
 public class ProcesoControllerUnitTest {
 
     static class ProcesoServiceStub extends ProcesoService {
-        public ProcesoServiceStub() { super(null,null,null,null,null,null); }
+        int listados;
+        public ProcesoServiceStub() { super(null,null,null,null,null,null,null,null,null,null,null,null,null,null,null); }
         @Override public ProcesoDto crear(ProcesoDto dto, String actorEmail) {
             return new ProcesoDto(100L, dto.getName(), dto.getDescription(), dto.getCategory(),
                     dto.getStatus(), dto.getOrganizationId(), dto.getActivityIds(), dto.getArchIds(), dto.getGatewayIds());
         }
-        @Override public Optional<ProcesoDto> obtener(Long id) {
-            return id==100L ? Optional.of(new ProcesoDto(100L,"N","D","C",ProcessStatus.DRAFT,1L,null,null,null)) : Optional.empty();
+        @Override public Optional<Versioned<ProcesoDto>> obtenerVersionado(Long id) {
+            return id==100L ? Optional.of(new Versioned<>(new ProcesoDto(100L,"N","D","C",ProcessStatus.DRAFT,1L,null,null,null), 0)) : Optional.empty();
         }
-        @Override public List<ProcesoDto> listar(Long orgId, ProcessStatus status) {
+        @Override public String marca(Long orgId, ProcessStatus status, String category, String cursor, Integer size) {
+            return status==null? "2.1.2" : "1.2";
+        }
+        @Override public ProcesoPageDto listar(Long orgId, ProcessStatus status, String category, String cursor, Integer size) {
+            listados++;
             List<ProcesoDto> list = new ArrayList<>();
             list.add(new ProcesoDto(1L,"P1","D1","Cat",ProcessStatus.DRAFT,1L,null,null,null));
             list.add(new ProcesoDto(2L,"P2","D2","Cat",ProcessStatus.PUBLISHED,1L,null,null,null));
-            if (status==null) return list;
+            if (status==null) return new ProcesoPageDto(list, "next", "2.1.2");
             List<ProcesoDto> out = new ArrayList<>();
             for (ProcesoDto p : list) if (p.getStatus()==status) out.add(p);
-            return out;
+            return new ProcesoPageDto(out, null, "1.2");
         }
         @Override public Optional<ProcesoDto> actualizar(Long id, ProcesoDto dto, String actorEmail) {
             return Optional.of(new ProcesoDto(id, dto.getName(), dto.getDescription(), dto.getCategory(),
                     dto.getStatus(), dto.getOrganizationId(), dto.getActivityIds(), dto.getArchIds(), dto.getGatewayIds()));
         }
         @Override public boolean eliminar(Long id, boolean hardDelete, String actorEmail) { return id != 404L; }
-        @Override public List<ProcessHistory> historial(Long procesoId) {
-            ProcessHistory h = new ProcessHistory();
-            h.setId(1L);
-            h.setCreatedAt(Instant.now());
-            return List.of(h);
+        @Override public ProcessHistoryPageDto historial(Long procesoId, Instant from, Instant to, String cursor, Integer size) {
+            ProcessHistoryDto h = new ProcessHistoryDto(1L, procesoId, "ana@acme.com", ProcessStatus.DRAFT, "D", Instant.now().toEpochMilli());
+            return new ProcessHistoryPageDto(List.of(h), "next");
         }
     }
 
     @Test
     void list_sinFiltros_devuelveLista() {
         ProcesoController controller = new ProcesoController(new ProcesoServiceStub());
-        List<ProcesoDto> r = controller.list(null, null);
-        assertFalse(r.isEmpty());
+        ResponseEntity<List<ProcesoDto>> r = controller.list(null, null, null, null, null, null);
+        assertFalse(r.getBody().isEmpty());
+        assertEquals("next", r.getHeaders().getFirst(ProcesoController.NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    void list_ultimaPagina_sinCursor() {
+        ProcesoController controller = new ProcesoController(new ProcesoServiceStub());
+        ResponseEntity<List<ProcesoDto>> r = controller.list(1L, ProcessStatus.PUBLISHED, null, null, 10, null);
+        assertEquals(1, r.getBody().size());
+        assertNull(r.getHeaders().getFirst(ProcesoController.NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    void list_conMarcaVigente_devuelve304SinCuerpo() {
+        ProcesoServiceStub stub = new ProcesoServiceStub();
+        ProcesoController controller = new ProcesoController(stub);
+        String etag = controller.list(1L, null, null, null, null, null).getHeaders().getETag();
+        assertEquals("\"procesos-1-2.1.2\"", etag);
+        ResponseEntity<List<ProcesoDto>> r = controller.list(1L, null, null, null, null, etag);
+        assertEquals(304, r.getStatusCode().value());
+        assertNull(r.getBody());
+        // El 304 sale de la marca: la página no se vuelve a armar
+        assertEquals(1, stub.listados);
     }
 
     @Test
@@ -75,4 +104,13 @@ public class ProcesoControllerUnitTest {
         assertEquals(204, controller.delete(100L, false, "ana@acme.com").getStatusCode().value());
         assertEquals(404, controller.delete(404L, false, "ana@acme.com").getStatusCode().value());
     }
+
+    @Test
+    void history_devuelveItemsYCursorEnCabecera() {
+        ProcesoController controller = new ProcesoController(new ProcesoServiceStub());
+        ResponseEntity<List<ProcessHistoryDto>> r = controller.history(7L, null, null, null, null);
+        assertEquals(1, r.getBody().size());
+        assertEquals(7L, r.getBody().get(0).getProcesoId());
+        assertEquals("next", r.getHeaders().getFirst(ProcesoController.NEXT_CURSOR_HEADER));
+    }
 }
@@ -0,0 +1,150 @@
+package com.example.proyectoweb;
+
+import com.example.proyectoweb.Dto.ProcesoDto;
+import com.example.proyectoweb.Dto.ProcesoPageDto;
+import com.example.proyectoweb.Modelo.*;
+import com.example.proyectoweb.Repo.*;
+import com.example.proyectoweb.Servicio.ProcesoService;
+import com.example.proyectoweb.common.DomainExceptions;
+import com.example.proyectoweb.common.GatewayType;
+import com.example.proyectoweb.common.ProcessStatus;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class ProcesoServiceListarTest {
+
+    @Autowired ProcesoService service;
+    @Autowired RepoOrganization repoOrg;
+    @Autowired RepoProceso repoProceso;
+    @Autowired RepoActividad repoActividad;
+    @Autowired RepoArch repoArch;
+    @Autowired RepoGateway repoGateway;
+    @Autowired EntityManagerFactory emf;
+
+    // La marca de la proyección debe ser la misma que la de la página armada
+    private String marca(Long orgId) {
+        String marca = service.marca(orgId, null, null, null, null);
+        assertEquals(marca, service.listar(orgId, null, null, null, null).getWatermark());
+        return marca;
+    }
+
+    @Test
+    void listar_numeroDeConsultasNoCreceConLosProcesos() {
+        Organization org = repoOrg.save(new Organization(null, "Acme", "nit-listar", "listar@acme.com"));
+        int procesos = 12;
+        for (int i = 0; i < procesos; i++) {
+            Actividad a1 = repoActividad.save(new Actividad(null, "A" + i, "task", "d", 0, 0));
+            Actividad a2 = repoActividad.save(new Actividad(null, "B" + i, "task", "d", 0, 0));
+            Arch arch = repoArch.save(new Arch(null, a1, a2));
+            Gateway gw = repoGateway.save(new Gateway(null, GatewayType.EXCLUSIVE, new ArrayList<>(), null));
+
+            Proceso p = new Proceso();
+            p.setName("P" + i);
+            p.setDescription("D" + i);
+            p.setCategory("Cat");
+            p.setOrganization(org);
+            p.setActivities(new ArrayList<>(List.of(a1, a2)));
+            p.setArchs(new ArrayList<>(List.of(arch)));
+            p.setGateways(new ArrayList<>(List.of(gw)));
+            repoProceso.save(p);
+        }
+
+        Statistics stats = emf.unwrap(SessionFactory.class).getStatistics();
+        stats.setStatisticsEnabled(true);
+        stats.clear();
+
+        List<ProcesoDto> out = service.listar(org.getId(), null, null, null, null).getItems();
+
+        assertEquals(procesos, out.size());
+        for (ProcesoDto dto : out) {
+            assertEquals(org.getId(), dto.getOrganizationId());
+            assertEquals(2, dto.getActivityIds().size());
+            assertEquals(1, dto.getArchIds().size());
+            assertEquals(1, dto.getGatewayIds().size());
+        }
+        // 1 consulta de procesos + 1 por cada tabla intermedia, sin importar cuántas filas haya
+        assertEquals(4, stats.getPrepareStatementCount());
+
+        // La marca para If-None-Match es una sola consulta de (id, versión), sin entidades
+        stats.clear();
+        service.marca(org.getId(), null, null, null, null);
+        assertEquals(1, stats.getPrepareStatementCount());
+        assertEquals(0, stats.getEntityLoadCount());
+        stats.setStatisticsEnabled(false);
+    }
+
+    @Test
+    void listar_paginaConCursorYFiltraEnBaseDeDatos() {
+        Organization org = repoOrg.save(new Organization(null, "Beta", "nit-pagina", "pagina@beta.com"));
+        for (int i = 0; i < 5; i++) {
+            Proceso p = new Proceso();
+            p.setName("Q" + i);
+            p.setDescription("D");
+            p.setCategory(i % 2 == 0 ? "Ventas" : "RRHH");
+            p.setStatus(i == 4 ? ProcessStatus.PUBLISHED : ProcessStatus.DRAFT);
+            p.setOrganization(org);
+            repoProceso.save(p);
+        }
+
+        ProcesoPageDto first = service.listar(org.getId(), ProcessStatus.DRAFT, null, null, 2);
+        assertEquals(List.of("Q0", "Q1"), first.getItems().stream().map(ProcesoDto::getName).toList());
+        assertNotNull(first.getNextCursor());
+
+        ProcesoPageDto second = service.listar(org.getId(), ProcessStatus.DRAFT, null, first.getNextCursor(), 2);
+        assertEquals(List.of("Q2", "Q3"), second.getItems().stream().map(ProcesoDto::getName).toList());
+        assertNull(second.getNextCursor());
+
+        ProcesoPageDto ventas = service.listar(org.getId(), null, "Ventas", null, 10);
+        assertEquals(List.of("Q0", "Q2", "Q4"), ventas.getItems().stream().map(ProcesoDto::getName).toList());
+
+        assertThrows(DomainExceptions.BadRequest.class,
+                () -> service.listar(org.getId(), null, null, "%%%", 10));
+    }
+
+    @Test
+    void marcaDePagina_cambiaConAltasCambiosYBajasDeLaOrganizacion() {
+        Organization org = repoOrg.save(new Organization(null, "Gamma", "nit-marca", "marca@gamma.com"));
+        Organization otra = repoOrg.save(new Organization(null, "Delta", "nit-marca-2", "marca@delta.com"));
+        Long a = service.crear(new ProcesoDto(null, "M1", "D", "Cat", ProcessStatus.DRAFT, org.getId(), null, null, null), null).getId();
+        Long b = service.crear(new ProcesoDto(null, "M2", "D", "Cat", ProcessStatus.DRAFT, otra.getId(), null, null, null), null).getId();
+
+        String m0 = marca(org.getId());
+        assertEquals(m0, marca(org.getId()));
+
+        // Un cambio en otra organización no invalida este listado
+        service.actualizar(b, new ProcesoDto(null, null, "Otra", null, null, null, null, null, null), null);
+        assertEquals(m0, marca(org.getId()));
+
+        service.actualizar(a, new ProcesoDto(null, null, "Nueva", null, null, null, null, null, null), null);
+        String m1 = marca(org.getId());
+        assertNotEquals(m0, m1);
+
+        Proceso c = new Proceso();
+        c.setName("M3");
+        c.setDescription("D");
+        c.setCategory("Cat");
+        c.setOrganization(org);
+        c = repoProceso.save(c);
+        String m2 = marca(org.getId());
+        assertNotEquals(m1, m2);
+
+        repoProceso.deleteById(c.getId());
+        assertNotEquals(m2, marca(org.getId()));
+        assertEquals(m1, marca(org.getId()));
+
+        assertEquals(repoProceso.findVersionById(a), service.version(a));
+        assertTrue(service.obtenerVersionado(a).orElseThrow().version() > 0);
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.proyectoweb;
+
+import com.example.proyectoweb.Dto.*;
+import com.example.proyectoweb.Repo.RepoActividad;
+import com.example.proyectoweb.Repo.RepoArch;
+import com.example.proyectoweb.Repo.RepoGateway;
+import com.example.proyectoweb.Repo.RepoProceso;
+import com.example.proyectoweb.Servicio.ProcesoService;
+import com.example.proyectoweb.common.DomainExceptions;
+import com.example.proyectoweb.common.GatewayType;
+import com.example.proyectoweb.common.ProcessStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class ProcessDiagramTest {
+
+    @Autowired ProcesoService service;
+    @Autowired RepoProceso repo;
+    @Autowired RepoActividad repoActividad;
+    @Autowired RepoArch repoArch;
+    @Autowired RepoGateway repoGateway;
+
+    private Long nuevoProceso(String name) {
+        return service.crear(new ProcesoDto(null, name, "D", "Cat", ProcessStatus.DRAFT, null, null, null, null), null).getId();
+    }
+
+    private static ActivityDto act(long id, String name, int x) {
+        return new ActivityDto(id, name, "task", "d", x, 0);
+    }
+
+    @Test
+    void guardar_creaConIdsTemporalesYDevuelveElMapeo() {
+        Long id = nuevoProceso("Diagrama");
+        Long v0 = repo.findVersionById(id).orElseThrow();
+
+        ProcessGraphSaveResultDto r = service.guardarGrafo(id, new ProcessGraphDto(null,
+                List.of(act(-1, "A", 0), act(-2, "B", 100), act(-3, "C", 200)),
+                List.of(new ArchDto(-10L, -1L, -2L), new ArchDto(-11L, -1L, -3L)),
+                List.of(new GatewayDto(-20L, GatewayType.EXCLUSIVE, List.of(-10L, -11L),
+                        "{\"branches\":[{\"archId\":-10,\"when\":\"monto > 10\"}],\"default\":-11}"))), "ana@acme.com");
+
+        assertEquals(6, r.getInserted());
+        assertEquals(3, r.getActivityIds().size());
+        assertTrue(r.getVersion() > v0);
+        Long a1 = r.getActivityIds().get(-1L), arch10 = r.getArchIds().get(-10L), arch11 = r.getArchIds().get(-11L);
+        Long gw = r.getGatewayIds().get(-20L);
+
+        ProcesoDto p = service.obtener(id).orElseThrow();
+        assertEquals(List.copyOf(r.getActivityIds().values()), p.getActivityIds());
+        assertEquals(List.of(arch10, arch11), p.getArchIds());
+        assertEquals(List.of(gw), p.getGatewayIds());
+        assertEquals(a1, repoArch.findById(arch10).orElseThrow().getActividadI().getId());
+        String conditions = repoGateway.findById(gw).orElseThrow().getConditionsJson();
+        assertTrue(conditions.contains("\"archId\":" + arch10) && conditions.contains("\"default\":" + arch11), conditions);
+    }
+
+    @Test
+    void guardar_aplicaSoloElDelta() {
+        Long id = nuevoProceso("Delta");
+        ProcessGraphSaveResultDto r = service.guardarGrafo(id, new ProcessGraphDto(null,
+                List.of(act(-1, "A", 0), act(-2, "B", 100), act(-3, "C", 200)),
+                List.of(new ArchDto(-10L, -1L, -2L), new ArchDto(-11L, -1L, -3L)),
+                List.of(new GatewayDto(-20L, GatewayType.PARALLEL, List.of(-10L, -11L), null))), null);
+        Long a1 = r.getActivityIds().get(-1L), a2 = r.getActivityIds().get(-2L), a3 = r.getActivityIds().get(-3L);
+        Long arch10 = r.getArchIds().get(-10L), arch11 = r.getArchIds().get(-11L), gw = r.getGatewayIds().get(-20L);
+
+        // Mismo diagrama: nada cambia y la versión no sube
+        ProcessGraphDto igual = new ProcessGraphDto(r.getVersion(),
+                List.of(act(a1, "A", 0), act(a2, "B", 100), act(a3, "C", 200)),
+                List.of(new ArchDto(arch10, a1, a2), new ArchDto(arch11, a1, a3)),
+                List.of(new GatewayDto(gw, GatewayType.PARALLEL, List.of(arch11, arch10), null)));
+        ProcessGraphSaveResultDto same = service.guardarGrafo(id, igual, null);
+        assertEquals(0, same.getInserted() + same.getUpdated() + same.getDeleted());
+        assertEquals(r.getVersion(), same.getVersion());
+
+        // Mover una actividad solo actualiza esa fila, pero la versión sube igual
+        ProcessGraphSaveResultDto moved = service.guardarGrafo(id, new ProcessGraphDto(same.getVersion(),
+                List.of(act(a1, "A", 50), act(a2, "B", 100), act(a3, "C", 200)),
+                igual.getArchs(), igual.getGateways()), null);
+        assertEquals(1, moved.getUpdated());
+        assertEquals(0, moved.getInserted() + moved.getDeleted());
+        assertTrue(moved.getVersion() > same.getVersion());
+        assertEquals(50, repoActividad.findById(a1).orElseThrow().getX());
+
+        // Quitar C y su arco; el gateway se queda con un solo arco
+        ProcessGraphSaveResultDto shrunk = service.guardarGrafo(id, new ProcessGraphDto(null,
+                List.of(act(a1, "A", 50), act(a2, "B", 100)),
+                List.of(new ArchDto(arch10, a1, a2)),
+                List.of(new GatewayDto(gw, GatewayType.PARALLEL, List.of(arch10), null))), null);
+        assertEquals(1, shrunk.getUpdated());
+        assertEquals(2, shrunk.getDeleted());
+        assertFalse(repoActividad.existsById(a3));
+        assertFalse(repoArch.existsById(arch11));
+        assertEquals(List.of(a1, a2), service.obtener(id).orElseThrow().getActivityIds());
+    }
+
+    @Test
+    void guardar_rechazaVersionViejaYElementosAjenos() {
+        Long id = nuevoProceso("Ajeno");
+        Long otro = nuevoProceso("Otro");
+        ProcessGraphSaveResultDto r = service.guardarGrafo(otro,
+                new ProcessGraphDto(null, List.of(act(-1, "X", 0)), null, null), null);
+        Long ajena = r.getActivityIds().get(-1L);
+
+        assertThrows(DomainExceptions.Conflict.class, () -> service.guardarGrafo(otro,
+                new ProcessGraphDto(r.getVersion() - 1, List.of(), null, null), null));
+        assertThrows(DomainExceptions.BadRequest.class, () -> service.guardarGrafo(id,
+                new ProcessGraphDto(null, List.of(act(-1, "N", 0), act(ajena, "X", 0)), null, null), null));
+        assertThrows(DomainExceptions.BadRequest.class, () -> service.guardarGrafo(id, new ProcessGraphDto(null,
+                List.of(act(-1, "N", 0)), List.of(new ArchDto(-2L, -1L, -9L)), null), null));
+
+        // Los rechazos revierten todo: el proceso sigue vacío y la actividad ajena intacta
+        assertTrue(service.obtener(id).orElseThrow().getActivityIds().isEmpty());
+        assertEquals(List.of(ajena), service.obtener(otro).orElseThrow().getActivityIds());
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.proyectoweb;
+
+import com.example.proyectoweb.Dto.ProcesoDto;
+import com.example.proyectoweb.Dto.ProcessHistoryDto;
+import com.example.proyectoweb.Dto.ProcessHistoryPageDto;
+import com.example.proyectoweb.Servicio.ProcesoService;
+import com.example.proyectoweb.common.DomainExceptions;
+import com.example.proyectoweb.common.ProcessStatus;
+import com.example.proyectoweb.history.ProcessHistoryWriter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class ProcessHistoryPageTest {
+
+    @Autowired ProcesoService service;
+    @Autowired ProcessHistoryWriter writer;
+
+    private static final Instant T0 = Instant.parse("2024-01-01T00:00:00Z");
+
+    // Proceso con su evento de creación (ahora) más n eventos a T0 + i minutos; los pares comparten instante
+    private Long procesoConHistorial(int n) {
+        Long id = service.crear(new ProcesoDto(null, "Hist", "D", "Cat", ProcessStatus.DRAFT, null, null, null, null), "a@x.com").getId();
+        for (int i = 0; i < n; i++)
+            writer.record(new ProcessHistoryWriter.Event(id, "a@x.com", ProcessStatus.DRAFT, "v" + i, T0.plusSeconds(60L * (i / 2))));
+        return id;
+    }
+
+    @Test
+    void paginas_recorrenTodoSinRepetirEnOrdenDescendente() {
+        Long id = procesoConHistorial(25);
+
+        List<ProcessHistoryDto> all = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            ProcessHistoryPageDto page = service.historial(id, null, null, cursor, 10);
+            all.addAll(page.getItems());
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(3, pages);
+        assertEquals(26, all.size());
+        assertEquals(26, all.stream().map(ProcessHistoryDto::getId).distinct().count());
+        for (int i = 1; i < all.size(); i++) {
+            ProcessHistoryDto prev = all.get(i - 1), cur = all.get(i);
+            assertTrue(prev.getCreatedAtEpoch() > cur.getCreatedAtEpoch()
+                    || (prev.getCreatedAtEpoch().equals(cur.getCreatedAtEpoch()) && prev.getId() > cur.getId()));
+        }
+        assertTrue(all.stream().allMatch(h -> id.equals(h.getProcesoId())));
+    }
+
+    @Test
+    void rango_fromInclusivoToExclusivo() {
+        Long id = procesoConHistorial(10);
+        // Minutos 1 y 2 => eventos v2..v5
+        List<ProcessHistoryDto> items = service.historial(id, T0.plusSeconds(60), T0.plusSeconds(180), null, null).getItems();
+        assertEquals(List.of("v5", "v4", "v3", "v2"), items.stream().map(ProcessHistoryDto::getDescriptionSnapshot).toList());
+    }
+
+    @Test
+    void parametrosInvalidos_sonBadRequest() {
+        Long id = procesoConHistorial(0);
+        assertThrows(DomainExceptions.BadRequest.class, () -> service.historial(id, null, null, "%%%", null));
+        assertThrows(DomainExceptions.BadRequest.class, () -> service.historial(id, T0, T0, null, null));
+    }
+}
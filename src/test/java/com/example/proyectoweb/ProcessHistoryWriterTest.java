@@ -0,0 +1,119 @@
+package com.example.proyectoweb;
+
+import com.example.proyectoweb.Dto.ProcesoDto;
+import com.example.proyectoweb.Dto.ProcessHistoryDto;
+import com.example.proyectoweb.Repo.RepoProcessHistory;
+import com.example.proyectoweb.Servicio.ProcesoService;
+import com.example.proyectoweb.common.ProcessStatus;
+import com.example.proyectoweb.exception.ProcessValidationException;
+import com.example.proyectoweb.history.ProcessHistoryWriter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class ProcessHistoryWriterTest {
+
+    @Autowired ProcesoService service;
+    @Autowired RepoProcessHistory repoHistory;
+    @Autowired JdbcTemplate jdbc;
+    @Autowired PlatformTransactionManager txManager;
+
+    // Deja escrito su propio evento de creación antes de devolver el id
+    private Long nuevoProceso(String name) {
+        Long id = service.crear(new ProcesoDto(null, name, "D", "Cat", ProcessStatus.DRAFT, null, null, null, null), "ana@acme.com").getId();
+        service.historial(id, null, null, null, null);
+        return id;
+    }
+
+    @Test
+    void crearYActualizar_dejanHistorialLegibleEnseguida() {
+        Long id = nuevoProceso("Historial");
+        service.actualizar(id, new ProcesoDto(null, null, "Nueva", null, null, null, null, null, null), null);
+
+        List<ProcessHistoryDto> h = service.historial(id, null, null, null, null).getItems();
+        assertEquals(2, h.size());
+        assertTrue(h.stream().anyMatch(x -> "ana@acme.com".equals(x.getChangedBy())));
+        assertTrue(h.stream().anyMatch(x -> "Nueva".equals(x.getDescriptionSnapshot())));
+    }
+
+    @Test
+    void rollback_noDejaHistorial() {
+        Long id = nuevoProceso("Rollback");
+        // Publicar un proceso vacío falla la validación y revierte la transacción
+        assertThrows(ProcessValidationException.class, () ->
+                service.actualizar(id, new ProcesoDto(null, null, null, null, ProcessStatus.PUBLISHED, null, null, null, null), null));
+        assertEquals(1, service.historial(id, null, null, null, null).getItems().size());
+    }
+
+    @Test
+    void colaLlena_yCierre_noPierdenEventos() throws Exception {
+        Long id = nuevoProceso("Presion");
+
+        // Cola de 2: la mayoría de los eventos los escribe el llamador; el resto sale al cerrar
+        ProcessHistoryWriter writer = new ProcessHistoryWriter(jdbc, txManager, new SimpleMeterRegistry(), 2, 10, 60_000, 0, 5_000);
+        TransactionTemplate tx = new TransactionTemplate(txManager);
+        for (int i = 0; i < 100; i++) {
+            ProcessHistoryWriter.Event e = new ProcessHistoryWriter.Event(id, "bulk", ProcessStatus.DRAFT, "e" + i, Instant.now());
+            if (i % 2 == 0) writer.record(e);
+            else tx.executeWithoutResult(s -> writer.record(e));
+        }
+        writer.shutdown();
+
+        assertEquals(0, writer.pending());
+        assertEquals(101, repoHistory.countByProceso_Id(id));
+    }
+
+    @Test
+    void procesoBorrado_noTiraElLote() throws Exception {
+        Long id = nuevoProceso("Valido");
+
+        ProcessHistoryWriter writer = new ProcessHistoryWriter(jdbc, txManager, new SimpleMeterRegistry(), 100, 10, 60_000, 0, 5_000);
+        writer.record(new ProcessHistoryWriter.Event(id, "x", ProcessStatus.DRAFT, "ok", Instant.now()));
+        writer.record(new ProcessHistoryWriter.Event(-1L, "x", ProcessStatus.DRAFT, "huérfano", Instant.now()));
+        writer.record(new ProcessHistoryWriter.Event(id, "x", ProcessStatus.DRAFT, "ok", Instant.now()));
+        writer.shutdown();
+
+        assertEquals(3, repoHistory.countByProceso_Id(id));
+    }
+
+    @Test
+    void sinConexion_elLoteSeReintentaSinPerderse() throws Exception {
+        Long id = nuevoProceso("Reintento");
+
+        // Las dos primeras transacciones fallan como con el pool agotado
+        AtomicInteger fallas = new AtomicInteger(2);
+        PlatformTransactionManager inestable = new PlatformTransactionManager() {
+            public TransactionStatus getTransaction(TransactionDefinition d) {
+                if (fallas.getAndDecrement() > 0) throw new CannotCreateTransactionException("sin conexiones");
+                return txManager.getTransaction(d);
+            }
+            public void commit(TransactionStatus s) { txManager.commit(s); }
+            public void rollback(TransactionStatus s) { txManager.rollback(s); }
+        };
+        ProcessHistoryWriter writer = new ProcessHistoryWriter(jdbc, inestable, new SimpleMeterRegistry(), 100, 10, 10, 0, 50);
+        for (int i = 0; i < 3; i++)
+            writer.record(new ProcessHistoryWriter.Event(id, "x", ProcessStatus.DRAFT, "r" + i, Instant.now()));
+
+        long hasta = System.currentTimeMillis() + 5_000;
+        while (repoHistory.countByProceso_Id(id) < 4 && System.currentTimeMillis() < hasta) Thread.sleep(10);
+        writer.shutdown();
+
+        assertEquals(4, repoHistory.countByProceso_Id(id));
+    }
+}
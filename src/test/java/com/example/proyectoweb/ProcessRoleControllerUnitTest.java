@@ -17,7 +17,7 @@ import static org.junit.jupiter.api.Assertions.*;
 public class ProcessRoleControllerUnitTest {
 
     static class RoleServiceStub extends ProcessRoleService {
-        public RoleServiceStub() { super(null,null,null,null,null); }
+        public RoleServiceStub() { super(null,null,null,null,null,null); }
         @Override public ProcessRoleDto crear(ProcessRoleDto dto) { return new ProcessRoleDto(5L, dto.getName(), dto.getOrganizationId()); }
         @Override public List<ProcessRoleDto> listar(Long orgId) { return List.of(new ProcessRoleDto(5L, "Revisor", 1L)); }
         @Override public Optional<ProcessRoleDto> actualizar(Long id, ProcessRoleDto dto) { return Optional.of(new ProcessRoleDto(id, dto.getName(), dto.getOrganizationId())); }
@@ -0,0 +1,64 @@
+package com.example.proyectoweb;
+
+import com.example.proyectoweb.Modelo.*;
+import com.example.proyectoweb.Repo.*;
+import com.example.proyectoweb.Servicio.ProcessRoleService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class ProcessRoleServiceUsageTest {
+
+    @Autowired ProcessRoleService service;
+    @Autowired RepoProcessRole repoRole;
+    @Autowired RepoActividad repoActividad;
+    @Autowired RepoActivityRoleLink repoLink;
+    @Autowired RepoProceso repoProceso;
+
+    @Test
+    void dondeSeUsa_devuelveActividadesYProcesosQueLasContienen() {
+        ProcessRole role = repoRole.save(new ProcessRole(null, "Aprobador-uso", null));
+        ProcessRole otro = repoRole.save(new ProcessRole(null, "Otro-uso", null));
+        Actividad a1 = repoActividad.save(new Actividad(null, "U1", "task", "d", 0, 0));
+        Actividad a2 = repoActividad.save(new Actividad(null, "U2", "task", "d", 0, 0));
+        Actividad a3 = repoActividad.save(new Actividad(null, "U3", "task", "d", 0, 0));
+        repoLink.save(new ActivityRoleLink(null, a1, role));
+        repoLink.save(new ActivityRoleLink(null, a2, role));
+        repoLink.save(new ActivityRoleLink(null, a3, otro));
+
+        Proceso p1 = proceso("Usa a1", a1);
+        Proceso p2 = proceso("Usa a2 y a3", a2, a3);
+        proceso("Sin rol", repoActividad.save(new Actividad(null, "U4", "task", "d", 0, 0)));
+
+        Map<String, List<Long>> out = service.dondeSeUsa(role.getId());
+
+        assertEquals(List.of(a1.getId(), a2.getId()), out.get("actividades"));
+        assertEquals(List.of(p1.getId(), p2.getId()), out.get("procesos"));
+    }
+
+    @Test
+    void dondeSeUsa_rolSinActividades_listasVacias() {
+        ProcessRole role = repoRole.save(new ProcessRole(null, "Sin-uso", null));
+        Map<String, List<Long>> out = service.dondeSeUsa(role.getId());
+        assertTrue(out.get("actividades").isEmpty());
+        assertTrue(out.get("procesos").isEmpty());
+    }
+
+    private Proceso proceso(String name, Actividad... acts) {
+        Proceso p = new Proceso();
+        p.setName(name);
+        p.setDescription("D");
+        p.setCategory("Cat");
+        p.setActivities(new ArrayList<>(List.of(acts)));
+        return repoProceso.save(p);
+    }
+}
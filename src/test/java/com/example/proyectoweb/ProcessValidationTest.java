@@ -0,0 +1,119 @@
+package com.example.proyectoweb;
+
+import com.example.proyectoweb.Dto.ProcesoDto;
+import com.example.proyectoweb.Dto.ValidationIssueDto;
+import com.example.proyectoweb.Dto.ValidationResultDto;
+import com.example.proyectoweb.Modelo.Actividad;
+import com.example.proyectoweb.Modelo.Arch;
+import com.example.proyectoweb.Repo.RepoActividad;
+import com.example.proyectoweb.Repo.RepoArch;
+import com.example.proyectoweb.Repo.RepoProceso;
+import com.example.proyectoweb.Servicio.ProcesoService;
+import com.example.proyectoweb.common.GatewayType;
+import com.example.proyectoweb.common.IssueSeverity;
+import com.example.proyectoweb.common.ProcessStatus;
+import com.example.proyectoweb.exception.ProcessValidationException;
+import com.example.proyectoweb.graph.CompiledGraph;
+import com.example.proyectoweb.graph.GraphValidator;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class ProcessValidationTest {
+
+    @Autowired ProcesoService service;
+    @Autowired RepoProceso repoProceso;
+    @Autowired RepoActividad repoActividad;
+    @Autowired RepoArch repoArch;
+
+    private static Set<String> codes(ValidationResultDto r) {
+        return r.getIssues().stream().map(ValidationIssueDto::getCode).collect(Collectors.toSet());
+    }
+
+    @Test
+    void validate_divisionYUnionParalelas_esValido() {
+        // 1 -> {2,3} -> 4
+        CompiledGraph g = CompiledGraph.builder(1L, 0L)
+                .activity(1).activity(2).activity(3).activity(4)
+                .arch(10, 1, 2).arch(11, 1, 3).arch(12, 2, 4).arch(13, 3, 4)
+                .gateway(1, GatewayType.PARALLEL, 10L).gateway(1, GatewayType.PARALLEL, 11L)
+                .gateway(2, GatewayType.PARALLEL, 12L).gateway(2, GatewayType.PARALLEL, 13L)
+                .build();
+
+        ValidationResultDto r = GraphValidator.validate(g);
+        assertTrue(r.isValid());
+        assertTrue(r.getIssues().isEmpty(), () -> r.getIssues().toString());
+    }
+
+    @Test
+    void validate_reportaCadaProblema() {
+        // 1 -> 2 -> 3 -> 2 (ciclo sin salida), 1 -> 4, 5 suelta con arco colgante, gateway parcial
+        CompiledGraph g = CompiledGraph.builder(1L, 0L)
+                .activity(1).activity(2).activity(3).activity(4).activity(5)
+                .arch(10, 1, 2).arch(11, 2, 3).arch(12, 3, 2).arch(13, 1, 4).arch(14, 5, 99)
+                .arch(15, 4, 6)
+                .gateway(1, GatewayType.EXCLUSIVE, 10L)
+                .gateway(2, GatewayType.INCLUSIVE, 10L).gateway(2, GatewayType.INCLUSIVE, 11L)
+                .build();
+
+        ValidationResultDto r = GraphValidator.validate(g);
+        assertFalse(r.isValid());
+        assertEquals(Set.of("DANGLING_ARCH", "DEAD_END", "CYCLE", "GATEWAY_SINGLE_ARCH", "GATEWAY_MIXED", "IMPLICIT_SPLIT", "IMPLICIT_JOIN"),
+                codes(r));
+
+        ValidationIssueDto deadEnd = r.getIssues().stream().filter(i -> i.getCode().equals("DEAD_END")).findFirst().orElseThrow();
+        assertEquals(List.of(2L, 3L), deadEnd.getActivityIds());
+        ValidationIssueDto ciclo = r.getIssues().stream().filter(i -> i.getCode().equals("CYCLE")).findFirst().orElseThrow();
+        assertEquals(IssueSeverity.WARNING, ciclo.getSeverity());
+        assertEquals(List.of(2L, 3L), ciclo.getActivityIds());
+        ValidationIssueDto dangling = r.getIssues().stream().filter(i -> i.getCode().equals("DANGLING_ARCH")).findFirst().orElseThrow();
+        assertEquals(List.of(14L, 15L), dangling.getArchIds());
+    }
+
+    @Test
+    void validate_modeloGrande_esLineal() {
+        int n = 50_000;
+        CompiledGraph.Builder b = CompiledGraph.builder(1L, 0L);
+        for (int i = 0; i < n; i++) b.activity(i);
+        for (int i = 1; i < n; i++) b.arch(i, i - 1, i);
+        ValidationResultDto r = GraphValidator.validate(b.build());
+        assertTrue(r.isValid());
+    }
+
+    @Test
+    void publicar_procesoInvalido_seRechazaYNoCambiaElEstado() {
+        Actividad a = repoActividad.save(new Actividad(null, "PA", "task", "d", 0, 0));
+        Actividad b = repoActividad.save(new Actividad(null, "PB", "task", "d", 0, 0));
+        Arch ab = repoArch.save(new Arch(null, a, b));
+        Arch ba = repoArch.save(new Arch(null, b, a));
+
+        ProcesoDto dto = new ProcesoDto();
+        dto.setName("Publicable");
+        dto.setDescription("D");
+        dto.setCategory("Cat");
+        dto.setActivityIds(List.of(a.getId(), b.getId()));
+        dto.setArchIds(List.of(ab.getId(), ba.getId()));
+        Long id = service.crear(dto, "test@acme.com").getId();
+
+        ProcesoDto publicar = new ProcesoDto();
+        publicar.setStatus(ProcessStatus.PUBLISHED);
+        ProcessValidationException ex = assertThrows(ProcessValidationException.class,
+                () -> service.actualizar(id, publicar, "test@acme.com"));
+        assertTrue(codes(ex.getResult()).contains("NO_START"));
+        assertEquals(ProcessStatus.DRAFT, repoProceso.findById(id).orElseThrow().getStatus());
+
+        // Corrigiendo el grafo en el mismo request la publicación pasa
+        publicar.setArchIds(List.of(ab.getId()));
+        assertEquals(ProcessStatus.PUBLISHED, service.actualizar(id, publicar, "test@acme.com").orElseThrow().getStatus());
+        assertTrue(service.validar(id).isValid());
+    }
+}
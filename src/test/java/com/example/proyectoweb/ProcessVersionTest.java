@@ -0,0 +1,158 @@
+package com.example.proyectoweb;
+
+import com.example.proyectoweb.Dto.FieldChangeDto;
+import com.example.proyectoweb.Dto.ProcesoDto;
+import com.example.proyectoweb.Dto.ProcessDiffDto;
+import com.example.proyectoweb.Dto.ProcessRevisionDto;
+import com.example.proyectoweb.Dto.ProcessRevisionPageDto;
+import com.example.proyectoweb.Dto.ProcessVersionDto;
+import com.example.proyectoweb.Modelo.Actividad;
+import com.example.proyectoweb.Modelo.Proceso;
+import com.example.proyectoweb.Repo.RepoActividad;
+import com.example.proyectoweb.Servicio.ProcesoService;
+import com.example.proyectoweb.common.DomainExceptions;
+import com.example.proyectoweb.common.ProcessStatus;
+import com.example.proyectoweb.versioning.ProcessSnapshot;
+import com.example.proyectoweb.versioning.RevisionCodec;
+import com.example.proyectoweb.versioning.SnapshotDiff;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class ProcessVersionTest {
+
+    @Autowired ProcesoService service;
+    @Autowired RepoActividad repoActividad;
+
+    private static Proceso proceso(String name, ProcessStatus status, long... activityIds) {
+        Proceso p = new Proceso();
+        p.setName(name);
+        p.setDescription("D");
+        p.setCategory("Cat");
+        p.setStatus(status);
+        List<Actividad> acts = new ArrayList<>();
+        for (long id : activityIds) {
+            Actividad a = new Actividad();
+            a.setId(id);
+            acts.add(a);
+        }
+        p.setActivities(acts);
+        return p;
+    }
+
+    @Test
+    void codec_checkpointMasDeltasReproducenCadaEstado() {
+        Random rnd = new Random(7);
+        ProcessSnapshot prev = ProcessSnapshot.EMPTY, rebuilt = ProcessSnapshot.EMPTY;
+        for (int i = 0; i < 200; i++) {
+            long[] ids = rnd.longs(rnd.nextInt(50), 1, 300).toArray();
+            ProcessSnapshot next = ProcessSnapshot.of(proceso(i % 3 == 0 ? "P" + i : "P",
+                    ProcessStatus.values()[rnd.nextInt(ProcessStatus.values().length)], ids));
+            byte[] delta = i == 0 ? RevisionCodec.checkpoint(next) : RevisionCodec.delta(prev, next);
+            rebuilt = RevisionCodec.apply(rebuilt, delta);
+            assertTrue(rebuilt.sameAs(next), "revisión " + i);
+            prev = next;
+        }
+
+        // Un cambio de una actividad entre mil IDs ocupa unos pocos bytes
+        long[] mil = new long[1000];
+        for (int i = 0; i < mil.length; i++) mil[i] = 100_000 + i * 3L;
+        long[] otro = mil.clone();
+        otro[500] = otro[500] + 1;
+        byte[] d = RevisionCodec.delta(ProcessSnapshot.of(proceso("X", ProcessStatus.DRAFT, mil)),
+                ProcessSnapshot.of(proceso("X", ProcessStatus.DRAFT, otro)));
+        assertTrue(d.length < 20, "delta de " + d.length + " bytes");
+    }
+
+    @Test
+    void servicio_reconstruyeCualquierRevisionAtravesandoCheckpoints() {
+        List<Long> acts = new ArrayList<>();
+        for (int i = 0; i < 5; i++) acts.add(repoActividad.save(new Actividad(null, "V" + i, "task", "d", 0, 0)).getId());
+
+        Long id = service.crear(new ProcesoDto(null, "Rev", "D0", "Cat", ProcessStatus.DRAFT, null,
+                List.of(acts.get(0)), null, null), "ana@acme.com").getId();
+
+        // Revisión r (r >= 2): descripción "D<r>" y las actividades acts[0..r%5]
+        Map<Integer, List<Long>> esperado = new HashMap<>();
+        esperado.put(1, List.of(acts.get(0)));
+        for (int r = 2; r <= 45; r++) {
+            List<Long> set = new ArrayList<>(acts.subList(0, r % 5 + 1));
+            service.actualizar(id, new ProcesoDto(null, null, "D" + r, null, null, null, set, null, null), "ana@acme.com");
+            esperado.put(r, set);
+        }
+        // Sin cambios no hay revisión nueva
+        service.actualizar(id, new ProcesoDto(null, null, "D45", null, null, null, null, null, null), null);
+
+        for (int r = 1; r <= 45; r++) {
+            ProcessVersionDto v = service.version(id, r);
+            assertEquals(r == 1 ? "D0" : "D" + r, v.getDescription(), "revisión " + r);
+            assertEquals(esperado.get(r).stream().sorted().toList(), v.getActivityIds(), "revisión " + r);
+            assertEquals("Rev", v.getName());
+        }
+        assertThrows(DomainExceptions.NotFound.class, () -> service.version(id, 46));
+        assertThrows(DomainExceptions.NotFound.class, () -> service.version(id, 0));
+
+        List<ProcessRevisionDto> todas = new ArrayList<>();
+        String cursor = null;
+        do {
+            ProcessRevisionPageDto page = service.versiones(id, cursor, 20);
+            todas.addAll(page.getItems());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        assertEquals(45, todas.size());
+        assertEquals(45, todas.get(0).getRevision());
+        assertEquals(List.of(1, 21, 41), todas.stream().filter(ProcessRevisionDto::isCheckpoint)
+                .map(ProcessRevisionDto::getRevision).sorted().toList());
+    }
+
+    @Test
+    void diff_dentroYAtravesDeCheckpoints() {
+        List<Long> acts = new ArrayList<>();
+        for (int i = 0; i < 4; i++) acts.add(repoActividad.save(new Actividad(null, "F" + i, "task", "d", 0, 0)).getId());
+        Long id = service.crear(new ProcesoDto(null, "Diff", "D0", "Cat", ProcessStatus.DRAFT, null,
+                List.of(acts.get(0), acts.get(1)), null, null), "ana@acme.com").getId();
+        service.actualizar(id, new ProcesoDto(null, null, "D1", null, null, null,
+                List.of(acts.get(1), acts.get(2)), null, null), null);
+        for (int r = 3; r <= 25; r++)
+            service.actualizar(id, new ProcesoDto(null, null, "D" + r, null, null, null, null, null, null), null);
+        service.actualizar(id, new ProcesoDto(null, "Diff2", null, null, null, null,
+                List.of(acts.get(1), acts.get(3)), null, null), null);
+
+        ProcessDiffDto d = service.diff(id, 1, 2);
+        assertEquals(List.of(new FieldChangeDto("description", "D0", "D1")), d.getFields());
+        assertEquals(List.of(acts.get(2)), d.getAddedActivityIds());
+        assertEquals(List.of(acts.get(0)), d.getRemovedActivityIds());
+        assertTrue(d.getAddedArchIds().isEmpty() && d.getRemovedGatewayIds().isEmpty());
+
+        // 2 → 26 cruza el checkpoint 21; 26 → 1 es el diff inverso
+        d = service.diff(id, 2, 26);
+        assertEquals(List.of("name", "description"), d.getFields().stream().map(FieldChangeDto::getField).toList());
+        assertEquals(List.of(acts.get(3)), d.getAddedActivityIds());
+        assertEquals(List.of(acts.get(2)), d.getRemovedActivityIds());
+        d = service.diff(id, 26, 1);
+        assertEquals(List.of(acts.get(0)), d.getAddedActivityIds());
+        assertEquals(List.of(acts.get(3)), d.getRemovedActivityIds());
+
+        assertTrue(service.diff(id, 5, 5).getFields().isEmpty());
+        assertThrows(DomainExceptions.NotFound.class, () -> service.diff(id, 3, 27));
+    }
+
+    @Test
+    void snapshotDiff_conjuntosGrandes() {
+        long[] a = new long[20_000], b = new long[20_000];
+        for (int i = 0; i < a.length; i++) { a[i] = 2L * i; b[i] = 2L * i + (i % 100 == 0 ? 1 : 0); }
+        long[] added = SnapshotDiff.added(a, b), removed = SnapshotDiff.added(b, a);
+        assertEquals(200, added.length);
+        assertEquals(200, removed.length);
+        assertEquals(1, added[0]);
+        assertEquals(0, removed[0]);
+        assertEquals(0, SnapshotDiff.added(a, a).length);
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.proyectoweb;
+
+import com.example.proyectoweb.Dto.*;
+import com.example.proyectoweb.Servicio.ActividadService;
+import com.example.proyectoweb.Servicio.ProcesoService;
+import com.example.proyectoweb.Servicio.SearchService;
+import com.example.proyectoweb.common.DomainExceptions;
+import com.example.proyectoweb.common.ProcessStatus;
+import com.example.proyectoweb.common.SearchHitType;
+import com.example.proyectoweb.Repo.RepoActividad;
+import com.example.proyectoweb.Repo.RepoProceso;
+import com.example.proyectoweb.search.InvertedIndex;
+import com.example.proyectoweb.search.SearchIndexer;
+import com.example.proyectoweb.search.Tokenizer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class SearchTest {
+
+    @Autowired SearchService search;
+    @Autowired ProcesoService procesos;
+    @Autowired ActividadService actividades;
+    @Autowired RepoProceso repoProceso;
+    @Autowired RepoActividad repoActividad;
+    @Autowired PlatformTransactionManager txManager;
+
+    // Las primeras "fallas" transacciones fallan como con el pool agotado
+    private PlatformTransactionManager inestable(int fallas) {
+        AtomicInteger restantes = new AtomicInteger(fallas);
+        return new PlatformTransactionManager() {
+            public TransactionStatus getTransaction(TransactionDefinition d) {
+                if (restantes.getAndDecrement() > 0) throw new CannotCreateTransactionException("sin conexiones");
+                return txManager.getTransaction(d);
+            }
+            public void commit(TransactionStatus st) { txManager.commit(st); }
+            public void rollback(TransactionStatus st) { txManager.rollback(st); }
+        };
+    }
+
+    private static List<Long> keys(List<InvertedIndex.Hit> hits) {
+        return hits.stream().map(InvertedIndex.Hit::key).toList();
+    }
+
+    private static List<Long> ids(SearchPageDto page) {
+        return page.getItems().stream().map(SearchHitDto::getId).toList();
+    }
+
+    @Test
+    void tokenizer_ignoraTildesMayusculasYPalabrasVacias() {
+        assertEquals(List.of("aprobacion", "solicitud", "credito", "2024"),
+                Tokenizer.terms("Aprobación de la SOLICITUD: crédito-2024"));
+        assertTrue(Tokenizer.terms("  de la  ").isEmpty());
+    }
+
+    @Test
+    void indice_exigeTodosLosTerminosYRankeaPorPeso() {
+        InvertedIndex idx = new InvertedIndex();
+        idx.put(2, Map.of("factura", 4, "pago", 1));
+        idx.put(4, Map.of("factura", 1, "pago", 1));
+        idx.put(6, Map.of("factura", 1));
+        idx.put(8, Map.of("facturacion", 4, "pago", 4));
+
+        assertEquals(List.of(2L, 4L), keys(idx.search(List.of("factura", "pago"), false, k -> true, null, 10)));
+        // Prefijo en la última palabra: "factura" y "facturacion"
+        assertEquals(List.of(8L, 2L, 4L), keys(idx.search(List.of("pago", "fact"), true, k -> true, null, 10)));
+        assertTrue(idx.search(List.of("factura", "inexistente"), false, k -> true, null, 10).isEmpty());
+
+        // Reemplazar y quitar dejan de encontrar lo viejo
+        idx.put(2, Map.of("recibo", 1));
+        idx.remove(4);
+        assertEquals(List.of(6L), keys(idx.search(List.of("factura"), false, k -> true, null, 10)));
+        assertEquals(3, idx.size());
+    }
+
+    @Test
+    void indice_paginaSinRepetirYCompactaEntradasMuertas() {
+        InvertedIndex idx = new InvertedIndex();
+        Random rnd = new Random(3);
+        for (long k = 1; k <= 2_000; k++) idx.put(k, Map.of("comun", 1 + rnd.nextInt(5)));
+        // La mayoría cambia de término: sus entradas viejas quedan muertas y se compactan
+        for (long k = 1; k <= 1_500; k++) idx.put(k, Map.of("otro", 1));
+
+        List<Long> todas = new ArrayList<>();
+        InvertedIndex.Hit after = null;
+        while (true) {
+            List<InvertedIndex.Hit> page = idx.search(List.of("comun"), false, k -> k % 2 == 0, after, 64);
+            if (page.isEmpty()) break;
+            for (int i = 1; i < page.size(); i++) assertTrue(InvertedIndex.RANKING.compare(page.get(i - 1), page.get(i)) < 0);
+            page.forEach(h -> todas.add(h.key()));
+            after = page.get(page.size() - 1);
+        }
+        assertEquals(250, todas.size());
+        assertEquals(250, new HashSet<>(todas).size());
+        assertTrue(todas.stream().allMatch(k -> k > 1_500 && k % 2 == 0));
+    }
+
+    @Test
+    void cargaInicial_fallida_seReintentaHastaCompletar() {
+        Long p = procesos.crear(new ProcesoDto(null, "Recarga de berenjenas", "D", "Cat", ProcessStatus.DRAFT,
+                null, null, null, null), null).getId();
+
+        SearchIndexer indexer = new SearchIndexer(repoProceso, repoActividad, inestable(2), new SimpleMeterRegistry(), 1, 10_000, 1_000);
+        indexer.cargar();
+        List<InvertedIndex.Hit> hits = indexer.index().search(List.of("berenjenas"), false, k -> true, null, 10);
+        assertEquals(List.of(SearchIndexer.key(SearchHitType.PROCESS, p)), keys(hits));
+
+        // Sin base durante toda la espera: 503, no resultados a medias
+        SearchIndexer caido = new SearchIndexer(repoProceso, repoActividad, inestable(Integer.MAX_VALUE), new SimpleMeterRegistry(), 1, 50, 60_000);
+        caido.cargar();
+        assertThrows(DomainExceptions.Unavailable.class, caido::index);
+    }
+
+    @Test
+    void servicio_sigueLasEscriturasYPagina() {
+        Long p = procesos.crear(new ProcesoDto(null, "Aprobación de zanahorias", "Revisa pedidos de zanahoria",
+                "Compras", ProcessStatus.DRAFT, null, null, null, null), null).getId();
+        List<Long> acts = actividades.crearLote(List.of(
+                new ActivityDto(null, "Pesar zanahoria", "task", "Balanza", 0, 0),
+                new ActivityDto(null, "Lavar", "task", "Zanahorias y papas", 0, 0),
+                new ActivityDto(null, "Embalar", "task", "Cajas", 0, 0)));
+        procesos.actualizar(p, new ProcesoDto(null, null, null, null, null, null, List.of(acts.get(0)), null, null), null);
+
+        SearchPageDto page = search.buscar("zanahoria", null, null, null);
+        // El nombre pesa más que la descripción
+        assertEquals(List.of(p, acts.get(0)), ids(page).subList(0, 2));
+        SearchHitDto act = page.getItems().get(1);
+        assertEquals(SearchHitType.ACTIVITY, act.getType());
+        assertEquals(p, act.getProcesoId());
+
+        // "zanahor" como prefijo alcanza "zanahoria" y "zanahorias"
+        assertEquals(Set.of(p, acts.get(0), acts.get(1)), new HashSet<>(ids(search.buscar("zanahor", null, null, null))));
+        assertEquals(List.of(acts.get(0)), ids(search.buscar("zanahoria balanza", SearchHitType.ACTIVITY, null, null)));
+        assertEquals(List.of(p), ids(search.buscar("zanahor", SearchHitType.PROCESS, null, null)));
+
+        // Página de a uno
+        List<Long> vistos = new ArrayList<>();
+        String cursor = null;
+        do {
+            SearchPageDto one = search.buscar("zanahor", null, cursor, 1);
+            vistos.addAll(ids(one));
+            cursor = one.getNextCursor();
+        } while (cursor != null);
+        assertEquals(ids(search.buscar("zanahor", null, null, null)), vistos);
+
+        actividades.actualizar(acts.get(0), new ActivityDto(acts.get(0), "Pesar", "task", "Balanza", null, null));
+        actividades.eliminar(acts.get(1));
+        assertEquals(List.of(p), ids(search.buscar("zanahor", null, null, null)));
+        procesos.actualizar(p, new ProcesoDto(null, "Aprobación de pepinos", "Revisa pedidos", null, null, null, null, null, null), null);
+        assertTrue(search.buscar("zanahor", null, null, null).getItems().isEmpty());
+        assertEquals(List.of(p), ids(search.buscar("aprobacion pepino", null, null, null)));
+
+        assertThrows(DomainExceptions.BadRequest.class, () -> search.buscar(" ", null, null, null));
+        assertThrows(DomainExceptions.BadRequest.class, () -> search.buscar("x", null, "@@", null));
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.proyectoweb;
+
+import com.example.proyectoweb.Config.SecondLevelCacheConfig;
+import com.example.proyectoweb.Config.SecondLevelCacheStats;
+import com.example.proyectoweb.Modelo.Organization;
+import com.example.proyectoweb.Modelo.ProcessRole;
+import com.example.proyectoweb.Repo.RepoOrganization;
+import com.example.proyectoweb.Repo.RepoProcessRole;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class SecondLevelCacheTest {
+
+    @Autowired RepoOrganization repoOrg;
+    @Autowired RepoProcessRole repoRole;
+    @Autowired SecondLevelCacheStats cacheStats;
+
+    private Organization nuevaOrg() {
+        String u = UUID.randomUUID().toString();
+        return repoOrg.save(new Organization(null, "Org", u, u + "@x.com"));
+    }
+
+    @Test
+    void organizacion_seLeeDelCacheYVeLosCambios() {
+        Organization org = nuevaOrg();
+        long hits = cacheStats.stats(SecondLevelCacheConfig.ORGANIZATION).hitCount();
+
+        // Cada findById abre su propia sesión: el primero llena la región y los siguientes no van a la base
+        repoOrg.findById(org.getId()).orElseThrow();
+        repoOrg.findById(org.getId()).orElseThrow();
+        repoOrg.findById(org.getId()).orElseThrow();
+        assertTrue(cacheStats.stats(SecondLevelCacheConfig.ORGANIZATION).hitCount() >= hits + 2);
+
+        org.setName("Renombrada");
+        repoOrg.save(org);
+        assertEquals("Renombrada", repoOrg.findById(org.getId()).orElseThrow().getName());
+    }
+
+    @Test
+    void rolesPorOrganizacion_usanCacheDeConsultasYSeInvalidan() {
+        Organization org = nuevaOrg();
+        repoRole.save(new ProcessRole(null, "Analista", org));
+
+        assertEquals(1, repoRole.findAllByOrganization_Id(org.getId()).size());
+        long hits = cacheStats.stats(SecondLevelCacheConfig.ROLES_BY_ORGANIZATION).hitCount();
+        assertEquals(1, repoRole.findAllByOrganization_Id(org.getId()).size());
+        assertEquals(hits + 1, cacheStats.stats(SecondLevelCacheConfig.ROLES_BY_ORGANIZATION).hitCount());
+
+        // Un INSERT en ProcessRole deja vieja la consulta cacheada
+        repoRole.save(new ProcessRole(null, "Revisor", org));
+        assertEquals(2, repoRole.findAllByOrganization_Id(org.getId()).size());
+    }
+
+    @Test
+    void stats_listaTodasLasRegiones() {
+        assertTrue(cacheStats.stats().keySet().containsAll(java.util.List.of(
+                SecondLevelCacheConfig.ORGANIZATION, SecondLevelCacheConfig.PROCESS_ROLE, SecondLevelCacheConfig.ACTIVIDAD,
+                SecondLevelCacheConfig.ROLES_BY_ORGANIZATION)));
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.proyectoweb;
+
+import com.example.proyectoweb.Config.SequenceInitializer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class SequenceInitializerTest {
+
+    @Autowired SequenceInitializer sequences;
+    @Autowired JdbcTemplate jdbc;
+
+    private long nextval(String sequence) {
+        return jdbc.queryForObject("select nextval('" + sequence + "')", Long.class);
+    }
+
+    @Test
+    void secuenciaAtrasada_quedaPorDelanteDelMayorId() {
+        // Como una base que venía de IDENTITY: filas con IDs que la secuencia todavía no dio
+        long id = nextval("activity_seq") + 5_000;
+        jdbc.update("insert into activity (id, name, type, description, x, y, version) values (?, 'Vieja', 'task', 'd', 0, 0, 0)", id);
+
+        sequences.ajustar();
+        // El bloque que reparte el próximo valor (v - 50, v] ya no toca IDs existentes
+        assertTrue(nextval("activity_seq") - 50 >= id);
+
+        // Ya ajustada, no retrocede
+        long antes = nextval("activity_seq");
+        sequences.ajustar();
+        assertTrue(nextval("activity_seq") > antes);
+        jdbc.update("delete from activity where id = ?", id);
+    }
+
+    @Test
+    void archYGateway_tambienSeAjustan() {
+        long id = nextval("gateway_seq") + 5_000;
+        jdbc.update("insert into gateway (id, type, version) values (?, 'EXCLUSIVE', 0)", id);
+
+        sequences.ajustar();
+        assertTrue(nextval("gateway_seq") - 50 >= id);
+        assertTrue(nextval("arch_seq") > 0);
+        jdbc.update("delete from gateway where id = ?", id);
+    }
+}
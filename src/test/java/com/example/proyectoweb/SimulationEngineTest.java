@@ -0,0 +1,104 @@
+package com.example.proyectoweb;
+
+import com.example.proyectoweb.Dto.SimulationRequestDto;
+import com.example.proyectoweb.Dto.SimulationResultDto;
+import com.example.proyectoweb.common.DomainExceptions.BadRequest;
+import com.example.proyectoweb.common.GatewayType;
+import com.example.proyectoweb.graph.CompiledGraph;
+import com.example.proyectoweb.simulation.SimulationEngine;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class SimulationEngineTest {
+
+    @Autowired SimulationEngine engine;
+
+    // 1 -> {2,3} -> 4 con el tipo dado en la división y en la unión
+    private static CompiledGraph diamante(GatewayType split, GatewayType join) {
+        return CompiledGraph.builder(1L, 0L)
+                .activity(1).activity(2).activity(3).activity(4)
+                .arch(10, 1, 2).arch(11, 1, 3).arch(12, 2, 4).arch(13, 3, 4)
+                .gateway(1, split, 10L).gateway(1, split, 11L)
+                .gateway(2, join, 12L).gateway(2, join, 13L)
+                .build();
+    }
+
+    @Test
+    void exclusive_respetaPesosYEsReproducible() {
+        CompiledGraph g = diamante(GatewayType.EXCLUSIVE, GatewayType.EXCLUSIVE);
+        SimulationRequestDto req = new SimulationRequestDto(100_000L, 42L, Map.of(10L, 0.8, 11L, 0.2), null, null);
+
+        SimulationResultDto r = engine.run(g, req);
+        assertEquals(100_000, r.getCompleted());
+        assertEquals(100_000L, r.getEndFrequency().get(4L));
+        assertEquals(0.8, r.getActivityVisits().get(2L) / 100_000.0, 0.01);
+        assertEquals(2, r.getTopPaths().size());
+
+        SimulationResultDto again = engine.run(g, req);
+        assertEquals(r.getActivityVisits(), again.getActivityVisits());
+    }
+
+    @Test
+    void parallel_divideYSincroniza() {
+        SimulationResultDto r = engine.run(diamante(GatewayType.PARALLEL, GatewayType.PARALLEL),
+                new SimulationRequestDto(10_000L, 1L, null, null, null));
+        assertEquals(10_000, r.getCompleted());
+        // La unión dispara una vez por instancia aunque lleguen dos tokens
+        assertEquals(10_000L, r.getActivityVisits().get(4L));
+        assertEquals(10_000L, r.getActivityVisits().get(3L));
+    }
+
+    @Test
+    void inclusive_unionEsperaLasRamasActivas() {
+        SimulationResultDto r = engine.run(diamante(GatewayType.INCLUSIVE, GatewayType.INCLUSIVE),
+                new SimulationRequestDto(10_000L, 7L, null, null, null));
+        assertEquals(10_000, r.getCompleted());
+        assertEquals(10_000L, r.getActivityVisits().get(4L));
+        long ramas = r.getActivityVisits().get(2L) + r.getActivityVisits().get(3L);
+        assertTrue(ramas > 10_000 && ramas < 20_000);
+    }
+
+    @Test
+    void exclusiveHaciaUnionParalela_quedaBloqueada() {
+        SimulationResultDto r = engine.run(diamante(GatewayType.EXCLUSIVE, GatewayType.PARALLEL),
+                new SimulationRequestDto(1_000L, 3L, null, null, null));
+        assertEquals(1_000, r.getDeadlocked());
+        assertNull(r.getEndFrequency().get(4L));
+    }
+
+    @Test
+    void bucles_terminanOSeCortan() {
+        // 1 -> 2 -> 3, y 2 -> 2 con retrabajo del 50%
+        CompiledGraph retrabajo = CompiledGraph.builder(1L, 0L)
+                .activity(1).activity(2).activity(3)
+                .arch(10, 1, 2).arch(11, 2, 2).arch(12, 2, 3)
+                .gateway(1, GatewayType.EXCLUSIVE, 11L).gateway(1, GatewayType.EXCLUSIVE, 12L)
+                .build();
+        SimulationResultDto r = engine.run(retrabajo, new SimulationRequestDto(10_000L, 5L, null, null, null));
+        assertEquals(10_000, r.getCompleted());
+        // 1 visita a 1 y a 3, y en promedio 2 a la actividad con retrabajo
+        assertEquals(4.0, r.getAvgStepsPerInstance(), 0.1);
+
+        CompiledGraph sinSalida = CompiledGraph.builder(1L, 0L)
+                .activity(1).activity(2).activity(3)
+                .arch(10, 1, 2).arch(11, 2, 3).arch(12, 3, 2)
+                .build();
+        SimulationResultDto s = engine.run(sinSalida, new SimulationRequestDto(100L, 5L, null, 50, null));
+        assertEquals(100, s.getTruncated());
+    }
+
+    @Test
+    void pasosPorInstancia_fueraDeRango_esBadRequest() {
+        CompiledGraph g = diamante(GatewayType.EXCLUSIVE, GatewayType.EXCLUSIVE);
+        assertThrows(BadRequest.class, () -> engine.run(g, new SimulationRequestDto(10L, 1L, null, Integer.MAX_VALUE, null)));
+        assertThrows(BadRequest.class, () -> engine.run(g, new SimulationRequestDto(10L, 1L, null, 0, null)));
+    }
+}